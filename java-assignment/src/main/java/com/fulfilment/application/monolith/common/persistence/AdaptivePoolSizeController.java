@@ -0,0 +1,160 @@
+package com.fulfilment.application.monolith.common.persistence;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Resizes the JDBC connection pool between {@code min-size} and {@code max-size} when
+ * {@code persistence.pool.adaptive.enabled} is set. Every interval it looks at the mean
+ * connection wait measured by {@link JdbcPoolMonitor} and at the round trip of a validation query:
+ *
+ * <ul>
+ *   <li>a database slower than {@code latency-ceiling} loses a connection, as more connections
+ *       would only queue inside the database;
+ *   <li>otherwise, callers waiting longer than {@code wait-target} on average, or still waiting,
+ *       add a quarter of the pool;
+ *   <li>a pool less than half in use loses a connection.
+ * </ul>
+ */
+@ApplicationScoped
+public class AdaptivePoolSizeController {
+
+  private static final Logger LOGGER =
+      Logger.getLogger(AdaptivePoolSizeController.class.getName());
+
+  private static final int PROBE_TIMEOUT_SECONDS = 5;
+
+  private final AgroalDataSource dataSource;
+
+  private final JdbcPoolMonitor poolMonitor;
+
+  private final boolean enabled;
+
+  private final int minSize;
+
+  private final int maxSize;
+
+  private final Duration waitTarget;
+
+  private final Duration latencyCeiling;
+
+  private final AtomicLong resizes = new AtomicLong();
+
+  private volatile long lastLatencyNanos = -1;
+
+  @Inject
+  public AdaptivePoolSizeController(
+      AgroalDataSource dataSource,
+      JdbcPoolMonitor poolMonitor,
+      @ConfigProperty(name = "persistence.pool.adaptive.enabled", defaultValue = "false")
+          boolean enabled,
+      @ConfigProperty(name = "persistence.pool.adaptive.min-size", defaultValue = "2")
+          int minSize,
+      @ConfigProperty(name = "persistence.pool.adaptive.max-size", defaultValue = "32")
+          int maxSize,
+      @ConfigProperty(name = "persistence.pool.adaptive.wait-target", defaultValue = "5ms")
+          Duration waitTarget,
+      @ConfigProperty(name = "persistence.pool.adaptive.latency-ceiling", defaultValue = "50ms")
+          Duration latencyCeiling) {
+    if (minSize < 1 || maxSize < minSize) {
+      throw new IllegalArgumentException(
+          "persistence.pool.adaptive needs 1 <= min-size <= max-size: " + minSize + ", " + maxSize);
+    }
+    this.dataSource = dataSource;
+    this.poolMonitor = poolMonitor;
+    this.enabled = enabled;
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.waitTarget = waitTarget;
+    this.latencyCeiling = latencyCeiling;
+  }
+
+  /** Applies one sizing decision; does nothing unless adaptive sizing is enabled. */
+  @Scheduled(
+      every = "${persistence.pool.adaptive.interval:10s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  public void adjust() {
+    if (!enabled) {
+      return;
+    }
+    var waitMean = poolMonitor.drainWaitMean();
+    var latency = probeLatency();
+    if (latency == null) {
+      return;
+    }
+    lastLatencyNanos = latency.toNanos();
+
+    var pool = dataSource.getConfiguration().connectionPoolConfiguration();
+    int current = pool.maxSize();
+    long pending = poolMonitor.getPendingCount();
+    int next = nextMaxSize(current, waitMean, pending, poolMonitor.getActiveCount(), latency);
+    if (next == current) {
+      return;
+    }
+    if (next < pool.minSize()) {
+      pool.setMinSize(next);
+    }
+    pool.setMaxSize(next);
+    resizes.incrementAndGet();
+    LOGGER.info(
+        "JDBC pool resized from " + current + " to " + next + " connections (mean wait "
+            + waitMean.toMillis() + "ms, database round trip " + latency.toMillis() + "ms)");
+  }
+
+  /** The pool size for the measurements of one interval, within the configured bounds. */
+  int nextMaxSize(int current, Duration waitMean, long pending, long active, Duration latency) {
+    int size = Math.max(minSize, Math.min(maxSize, current));
+    if (latency.compareTo(latencyCeiling) > 0) {
+      size--;
+    } else if (waitMean.compareTo(waitTarget) > 0 || pending > 0) {
+      size += Math.max(1, size / 4);
+    } else if (active * 2 < size) {
+      size--;
+    }
+    return Math.max(minSize, Math.min(maxSize, size));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public int getMinSize() {
+    return minSize;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getResizeCount() {
+    return resizes.get();
+  }
+
+  /** Round trip of the latest validation query, or -1 before the first one. */
+  public double getLastLatencyMillis() {
+    long nanos = lastLatencyNanos;
+    return nanos < 0 ? -1 : nanos / 1e6;
+  }
+
+  // Time only the round trip, not the wait for the connection
+  private Duration probeLatency() {
+    try (var connection = dataSource.getConnection()) {
+      long start = System.nanoTime();
+      if (!connection.isValid(PROBE_TIMEOUT_SECONDS)) {
+        LOGGER.warn("JDBC pool not resized: the validation query failed");
+        return null;
+      }
+      return Duration.ofNanos(System.nanoTime() - start);
+    } catch (SQLException e) {
+      LOGGER.warn("JDBC pool not resized: " + e.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package com.fulfilment.application.monolith.common.persistence;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Instruments the JDBC connection pool: connection counts by state, acquisitions, leaks and how
+ * long callers wait for a connection. The meters are published with the other metrics on
+ * /q/metrics and summarised under connectionPool in /monitoring/metrics.
+ *
+ * <p>Agroal only keeps a running total of the time spent acquiring connections, so the pool is
+ * sampled every {@code persistence.pool.sample-interval} and each acquisition of an interval is
+ * recorded in the wait histogram with that interval's mean wait.
+ */
+@ApplicationScoped
+public class JdbcPoolMonitor implements MeterBinder {
+
+  public static final String ACQUIRE_WAIT = "jdbc.pool.acquire.wait";
+
+  static final Duration[] WAIT_BUCKETS = {
+    Duration.ofMillis(1),
+    Duration.ofMillis(5),
+    Duration.ofMillis(10),
+    Duration.ofMillis(25),
+    Duration.ofMillis(50),
+    Duration.ofMillis(100),
+    Duration.ofMillis(250),
+    Duration.ofMillis(500),
+    Duration.ofSeconds(1),
+    Duration.ofMillis(2500),
+    Duration.ofSeconds(5)
+  };
+
+  private final AgroalDataSource dataSource;
+
+  // set once bound to the registry
+  private volatile Timer acquireWait;
+
+  // pool totals at the previous sample
+  private long sampledAcquires;
+  private long sampledBlockingNanos;
+
+  // acquisitions and their wait since the last drainWaitMean()
+  private long windowAcquires;
+  private long windowBlockingNanos;
+
+  private volatile long lastWaitMeanNanos;
+
+  @Inject
+  public JdbcPoolMonitor(AgroalDataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    connectionGauge(registry, "active", JdbcPoolMonitor::getActiveCount);
+    connectionGauge(registry, "idle", JdbcPoolMonitor::getIdleCount);
+    connectionGauge(registry, "pending", JdbcPoolMonitor::getPendingCount);
+    Gauge.builder("jdbc.pool.max.size", this, JdbcPoolMonitor::getMaxSize)
+        .description("Maximum number of JDBC connections")
+        .register(registry);
+    Gauge.builder("jdbc.pool.max.used", this, JdbcPoolMonitor::getMaxUsedCount)
+        .description("Most JDBC connections in use at once")
+        .register(registry);
+    FunctionCounter.builder("jdbc.pool.acquires", this, JdbcPoolMonitor::getAcquireCount)
+        .description("JDBC connections handed out")
+        .register(registry);
+    FunctionCounter.builder("jdbc.pool.leaks", this, JdbcPoolMonitor::getLeakCount)
+        .description("JDBC connections held past the leak detection interval")
+        .register(registry);
+    acquireWait =
+        Timer.builder(ACQUIRE_WAIT)
+            .description("Time spent waiting for a JDBC connection")
+            .serviceLevelObjectives(WAIT_BUCKETS)
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+  }
+
+  /** Records the acquisitions since the previous sample in the wait histogram. */
+  @Scheduled(
+      every = "${persistence.pool.sample-interval:1s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  public synchronized void sample() {
+    var waits = acquireWait;
+    if (waits == null) {
+      return;
+    }
+    var metrics = dataSource.getMetrics();
+    long acquires = metrics.acquireCount();
+    long blockingNanos = metrics.blockingTimeTotal().toNanos();
+    long newAcquires = acquires - sampledAcquires;
+    long newBlockingNanos = Math.max(0, blockingNanos - sampledBlockingNanos);
+    sampledAcquires = acquires;
+    sampledBlockingNanos = blockingNanos;
+    // nothing acquired, or the pool metrics were reset
+    if (newAcquires <= 0) {
+      return;
+    }
+    long meanNanos = newBlockingNanos / newAcquires;
+    for (long i = 0; i < newAcquires; i++) {
+      waits.record(meanNanos, TimeUnit.NANOSECONDS);
+    }
+    windowAcquires += newAcquires;
+    windowBlockingNanos += newBlockingNanos;
+    lastWaitMeanNanos = meanNanos;
+  }
+
+  /**
+   * Returns the mean acquire wait over the samples since the previous call and starts a new
+   * window; zero when nothing was acquired.
+   */
+  public synchronized Duration drainWaitMean() {
+    var mean =
+        windowAcquires == 0
+            ? Duration.ZERO
+            : Duration.ofNanos(windowBlockingNanos / windowAcquires);
+    windowAcquires = 0;
+    windowBlockingNanos = 0;
+    return mean;
+  }
+
+  public long getActiveCount() {
+    return dataSource.getMetrics().activeCount();
+  }
+
+  public long getIdleCount() {
+    return dataSource.getMetrics().availableCount();
+  }
+
+  /** Callers waiting for a connection right now. */
+  public long getPendingCount() {
+    return dataSource.getMetrics().awaitingCount();
+  }
+
+  public long getMaxUsedCount() {
+    return dataSource.getMetrics().maxUsedCount();
+  }
+
+  public long getAcquireCount() {
+    return dataSource.getMetrics().acquireCount();
+  }
+
+  public long getLeakCount() {
+    return dataSource.getMetrics().leakDetectionCount();
+  }
+
+  public int getMinSize() {
+    return dataSource.getConfiguration().connectionPoolConfiguration().minSize();
+  }
+
+  public int getMaxSize() {
+    return dataSource.getConfiguration().connectionPoolConfiguration().maxSize();
+  }
+
+  /** The longest single acquire wait the pool has seen. */
+  public double getWaitMaxMillis() {
+    return dataSource.getMetrics().blockingTimeMax().toNanos() / 1e6;
+  }
+
+  /** Mean acquire wait of the latest sample with acquisitions. */
+  public double getLastWaitMeanMillis() {
+    return lastWaitMeanNanos / 1e6;
+  }
+
+  /** Acquire wait percentiles, e.g. {@code p99}, in milliseconds. */
+  public Map<String, Double> getWaitPercentilesMillis() {
+    Map<String, Double> percentiles = new LinkedHashMap<>();
+    var waits = acquireWait;
+    if (waits == null) {
+      return percentiles;
+    }
+    for (var value : waits.takeSnapshot().percentileValues()) {
+      percentiles.put(
+          "p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+    }
+    return percentiles;
+  }
+
+  /** Acquisitions that waited at most each bucket's bound, keyed by the bound in milliseconds. */
+  public Map<String, Long> getWaitHistogram() {
+    Map<String, Long> histogram = new LinkedHashMap<>();
+    var waits = acquireWait;
+    if (waits == null) {
+      return histogram;
+    }
+    for (var bucket : waits.takeSnapshot().histogramCounts()) {
+      histogram.put(
+          "le" + formatMillis(bucket.bucket(TimeUnit.MILLISECONDS)), (long) bucket.count());
+    }
+    histogram.put("count", waits.count());
+    return histogram;
+  }
+
+  private void connectionGauge(
+      MeterRegistry registry, String state, ToDoubleFunction<JdbcPoolMonitor> count) {
+    Gauge.builder("jdbc.pool.connections", this, count)
+        .description("JDBC connections by state")
+        .tag("state", state)
+        .register(registry);
+  }
+
+  private static String formatMillis(double millis) {
+    return millis == Math.rint(millis) ? Long.toString((long) millis) : Double.toString(millis);
+  }
+}
@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.common.persistence;
+
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Pool;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * The reactive SQL client used by the read endpoints when {@code persistence.read-mode} is
+ * {@code reactive}. A query then waits on the Vert.x event loop instead of holding a worker thread
+ * and one of the JDBC connections, and the client pipelines queries over its few connections.
+ *
+ * <p>With the default {@code jdbc} mode the reads keep going through Hibernate, with its
+ * second-level and query caches, and the reactive client is never touched.
+ */
+@ApplicationScoped
+public class ReactiveReadPool {
+
+  public static final String JDBC_MODE = "jdbc";
+
+  public static final String REACTIVE_MODE = "reactive";
+
+  private final boolean enabled;
+
+  private final Instance<PgPool> pgPools;
+
+  private final boolean numberedParameters;
+
+  // the datasource's pool bean, looked up on first use
+  private volatile Pool pool;
+
+  @Inject
+  public ReactiveReadPool(
+      @ConfigProperty(name = "persistence.read-mode", defaultValue = JDBC_MODE) String readMode,
+      Instance<PgPool> pgPools) {
+    if (!JDBC_MODE.equals(readMode) && !REACTIVE_MODE.equals(readMode)) {
+      throw new IllegalArgumentException(
+          "persistence.read-mode must be " + JDBC_MODE + " or " + REACTIVE_MODE + ": " + readMode);
+    }
+    this.enabled = REACTIVE_MODE.equals(readMode);
+    this.pgPools = pgPools;
+    this.numberedParameters = true;
+  }
+
+  /**
+   * Uses the given client for the reads, e.g. a Vert.x JDBC pool in tests.
+   *
+   * @param numberedParameters whether the client takes {@code $1} parameters, as the PostgreSQL
+   *     client does, rather than {@code ?}
+   */
+  public ReactiveReadPool(Pool pool, boolean numberedParameters) {
+    this.enabled = true;
+    this.pgPools = null;
+    this.pool = pool;
+    this.numberedParameters = numberedParameters;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (enabled) {
+      pool();
+    }
+  }
+
+  /** Whether the read endpoints use the reactive client. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Pool pool() {
+    if (pool == null) {
+      if (pgPools == null || pgPools.isUnsatisfied()) {
+        throw new IllegalStateException(
+            "persistence.read-mode=reactive needs a reactive PostgreSQL datasource");
+      }
+      pool = pgPools.get();
+    }
+    return pool;
+  }
+
+  /** The placeholder of the {@code index}th query parameter, counting from 1. */
+  public String parameter(int index) {
+    return numberedParameters ? "$" + index : "?";
+  }
+}
@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith.common.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Newline-delimited JSON, one object per line, as taken by the bulk import and written by the
+ * stream endpoints. Streamed items are written as soon as the source hands them over, so a
+ * source reading through a database cursor keeps heap use flat however many rows it returns.
+ */
+public final class Ndjson {
+
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+  private static final byte[] NEWLINE = {'\n'};
+
+  private Ndjson() {}
+
+  /**
+   * Streams the items the source passes to its consumer, one JSON line each.
+   *
+   * @param source runs the given consumer for every item to write, in order
+   */
+  public static <T> StreamingOutput stream(
+      ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+    return output -> {
+      try {
+        source.accept(item -> writeLine(objectMapper, output, item));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      output.flush();
+    };
+  }
+
+  private static void writeLine(ObjectMapper objectMapper, OutputStream output, Object item) {
+    try {
+      output.write(objectMapper.writeValueAsBytes(item));
+      output.write(NEWLINE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
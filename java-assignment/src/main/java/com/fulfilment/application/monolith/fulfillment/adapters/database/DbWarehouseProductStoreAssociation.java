@@ -5,11 +5,19 @@ import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "warehouse_product_store_association")
+@Table(
+    name = "warehouse_product_store_association",
+    indexes = {
+      @Index(name = "idx_wpsa_store_warehouse", columnList = "storeId, warehouseBusinessUnitCode"),
+      @Index(name = "idx_wpsa_warehouse_product", columnList = "warehouseBusinessUnitCode, productId"),
+      @Index(name = "idx_wpsa_warehouse_id", columnList = "warehouseBusinessUnitCode, id"),
+      @Index(name = "idx_wpsa_product_store", columnList = "productId, storeId")
+    })
 @Cacheable
 public class DbWarehouseProductStoreAssociation {
 
@@ -1,25 +1,100 @@
 package com.fulfilment.application.monolith.fulfillment.adapters.database;
 
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationConstraintCounts;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationCounters;
 import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class WarehouseProductStoreAssociationRepository
     implements PanacheRepository<DbWarehouseProductStoreAssociation> {
 
+  // Keep in line with quarkus.hibernate-orm.jdbc.statement-batch-size
+  static final int BATCH_SIZE = 50;
+
+  static final int STREAM_FETCH_SIZE = 1000;
+
   public WarehouseProductStoreAssociation create(WarehouseProductStoreAssociation association) {
-    var dbAssociation = new DbWarehouseProductStoreAssociation();
-    dbAssociation.warehouseBusinessUnitCode = association.warehouseBusinessUnitCode;
-    dbAssociation.productId = association.productId;
-    dbAssociation.storeId = association.storeId;
-    dbAssociation.createdAt = LocalDateTime.now();
+    var dbAssociation = toDbAssociation(association, LocalDateTime.now());
     this.persist(dbAssociation);
     return dbAssociation.toAssociation();
   }
 
+  /**
+   * Inserts associations in JDBC batches.
+   *
+   * @return the stored associations with their ids, in the given order
+   */
+  public List<WarehouseProductStoreAssociation> createAll(
+      List<WarehouseProductStoreAssociation> associations) {
+    var entityManager = getEntityManager();
+    var createdAt = LocalDateTime.now();
+    List<WarehouseProductStoreAssociation> created = new ArrayList<>(associations.size());
+    for (int i = 0; i < associations.size(); i++) {
+      var dbAssociation = toDbAssociation(associations.get(i), createdAt);
+      entityManager.persist(dbAssociation);
+      created.add(dbAssociation.toAssociation());
+      // Flush each full JDBC batch and detach it so the persistence context stays small
+      if ((i + 1) % BATCH_SIZE == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    return created;
+  }
+
+  /**
+   * Runs an action for every stored association in id order, reading them through a cursor and
+   * detaching each row once handled, so memory use does not grow with the size of the table.
+   *
+   * @param action the action to run for each association
+   */
+  @Transactional
+  public void forEachAssociation(Consumer<WarehouseProductStoreAssociation> action) {
+    stream(this.findAll(Sort.by("id")), action);
+  }
+
+  /**
+   * Like {@link #forEachAssociation(Consumer)}, limited to the associations of one warehouse with
+   * an id greater than {@code afterId}.
+   *
+   * @param afterId the id to start after, or null to start from the first association
+   */
+  @Transactional
+  public void streamByWarehouseAfter(
+      String warehouseCode, Long afterId, Consumer<WarehouseProductStoreAssociation> action) {
+    stream(
+        this.find(
+            "warehouseBusinessUnitCode = ?1 and id > ?2",
+            Sort.by("id"),
+            warehouseCode,
+            cursor(afterId)),
+        action);
+  }
+
+  /**
+   * Like {@link #forEachAssociation(Consumer)}, limited to the associations of one store with an
+   * id greater than {@code afterId}.
+   *
+   * @param afterId the id to start after, or null to start from the first association
+   */
+  @Transactional
+  public void streamByStoreAfter(
+      Long storeId, Long afterId, Consumer<WarehouseProductStoreAssociation> action) {
+    stream(
+        this.find("storeId = ?1 and id > ?2", Sort.by("id"), storeId, cursor(afterId)), action);
+  }
+
   public List<WarehouseProductStoreAssociation> findByProductAndStore(Long productId, Long storeId) {
     return this.find("productId = ?1 and storeId = ?2", productId, storeId).list().stream()
         .map(DbWarehouseProductStoreAssociation::toAssociation)
@@ -44,15 +119,133 @@ public class WarehouseProductStoreAssociationRepository
   }
 
   public int countWarehousesForStore(Long storeId) {
-    return (int) this.find("storeId", storeId).stream().map(a -> a.warehouseBusinessUnitCode)
-        .distinct()
-        .count();
+    return countDistinct(
+        "select count(distinct a.warehouseBusinessUnitCode)"
+            + " from DbWarehouseProductStoreAssociation a where a.storeId = ?1",
+        storeId);
   }
 
   public int countProductsForWarehouse(String warehouseCode) {
-    return (int) this.find("warehouseBusinessUnitCode", warehouseCode).stream()
-        .map(a -> a.productId)
-        .distinct()
-        .count();
+    return countDistinct(
+        "select count(distinct a.productId)"
+            + " from DbWarehouseProductStoreAssociation a where a.warehouseBusinessUnitCode = ?1",
+        warehouseCode);
+  }
+
+  /**
+   * Reads every input of the association limits in a single round trip. Only the rows of the
+   * store and of the warehouse are aggregated, each reached through its composite index.
+   */
+  public AssociationConstraintCounts countConstraints(
+      String warehouseCode, Long productId, Long storeId) {
+    Object[] row =
+        getEntityManager()
+            .createQuery(
+                "select"
+                    + " sum(case when a.productId = ?2 and a.storeId = ?3 then 1 else 0 end),"
+                    + " count(distinct case when a.storeId = ?3"
+                    + " then a.warehouseBusinessUnitCode end),"
+                    + " count(distinct case when a.warehouseBusinessUnitCode = ?1"
+                    + " then a.productId end),"
+                    + " sum(case when a.storeId = ?3"
+                    + " and a.warehouseBusinessUnitCode = ?1 then 1 else 0 end),"
+                    + " sum(case when a.warehouseBusinessUnitCode = ?1"
+                    + " and a.productId = ?2 then 1 else 0 end)"
+                    + " from DbWarehouseProductStoreAssociation a"
+                    + " where a.storeId = ?3 or a.warehouseBusinessUnitCode = ?1",
+                Object[].class)
+            .setParameter(1, warehouseCode)
+            .setParameter(2, productId)
+            .setParameter(3, storeId)
+            .getSingleResult();
+    return new AssociationConstraintCounts(
+        (Number) row[0], (Number) row[1], (Number) row[2], (Number) row[3], (Number) row[4]);
+  }
+
+  /**
+   * Loads the stored associations that count towards the limits of the given warehouses, products
+   * and stores. Every limit is bounded, so each query returns at most a few rows per key.
+   */
+  public AssociationCounters loadCounters(
+      Collection<String> warehouseCodes, Collection<Long> productIds, Collection<Long> storeIds) {
+    var counters = new AssociationCounters();
+    var entityManager = getEntityManager();
+    if (!productIds.isEmpty() && !storeIds.isEmpty()) {
+      entityManager
+          .createQuery(
+              "select a.productId, a.storeId, count(a) from DbWarehouseProductStoreAssociation a"
+                  + " where a.productId in ?1 and a.storeId in ?2 group by a.productId, a.storeId",
+              Object[].class)
+          .setParameter(1, productIds)
+          .setParameter(2, storeIds)
+          .getResultList()
+          .forEach(
+              row ->
+                  counters.addProductStoreCount(
+                      (Long) row[0], (Long) row[1], ((Number) row[2]).longValue()));
+    }
+    if (!storeIds.isEmpty()) {
+      entityManager
+          .createQuery(
+              "select distinct a.storeId, a.warehouseBusinessUnitCode"
+                  + " from DbWarehouseProductStoreAssociation a where a.storeId in ?1",
+              Object[].class)
+          .setParameter(1, storeIds)
+          .getResultList()
+          .forEach(row -> counters.addWarehouseInStore((Long) row[0], (String) row[1]));
+    }
+    if (!warehouseCodes.isEmpty()) {
+      entityManager
+          .createQuery(
+              "select distinct a.warehouseBusinessUnitCode, a.productId"
+                  + " from DbWarehouseProductStoreAssociation a"
+                  + " where a.warehouseBusinessUnitCode in ?1",
+              Object[].class)
+          .setParameter(1, warehouseCodes)
+          .getResultList()
+          .forEach(row -> counters.addProductInWarehouse((String) row[0], (Long) row[1]));
+    }
+    return counters;
+  }
+
+  private DbWarehouseProductStoreAssociation toDbAssociation(
+      WarehouseProductStoreAssociation association, LocalDateTime createdAt) {
+    var dbAssociation = new DbWarehouseProductStoreAssociation();
+    dbAssociation.warehouseBusinessUnitCode = association.warehouseBusinessUnitCode;
+    dbAssociation.productId = association.productId;
+    dbAssociation.storeId = association.storeId;
+    dbAssociation.createdAt = createdAt;
+    return dbAssociation;
+  }
+
+  private void stream(
+      PanacheQuery<DbWarehouseProductStoreAssociation> query,
+      Consumer<WarehouseProductStoreAssociation> action) {
+    var entityManager = getEntityManager();
+    try (var associations =
+        query
+            .withHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+            .withHint("org.hibernate.readOnly", true)
+            // A scan would only churn the second-level cache
+            .withHint("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS)
+            .stream()) {
+      associations.forEach(
+          association -> {
+            action.accept(association.toAssociation());
+            entityManager.detach(association);
+          });
+    }
+  }
+
+  private static long cursor(Long afterId) {
+    return afterId == null ? 0L : afterId;
+  }
+
+  private int countDistinct(String query, Object parameter) {
+    return getEntityManager()
+        .createQuery(query, Long.class)
+        .setParameter(1, parameter)
+        .getSingleResult()
+        .intValue();
   }
 }
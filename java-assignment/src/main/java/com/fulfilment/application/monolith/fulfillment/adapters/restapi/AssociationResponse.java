@@ -0,0 +1,42 @@
+package com.fulfilment.application.monolith.fulfillment.adapters.restapi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * One warehouse/product/store association as returned by the fulfillment lookups. It is created
+ * straight from a topology row and written field by field, without reflection.
+ */
+@JsonSerialize(using = AssociationResponse.Serializer.class)
+public record AssociationResponse(
+    long id,
+    String warehouseBusinessUnitCode,
+    long productId,
+    long storeId,
+    LocalDateTime createdAt) {
+
+  static final class Serializer extends StdSerializer<AssociationResponse> {
+
+    Serializer() {
+      super(AssociationResponse.class);
+    }
+
+    @Override
+    public void serialize(
+        AssociationResponse value, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      generator.writeStartObject();
+      generator.writeNumberField("id", value.id());
+      generator.writeStringField("warehouseBusinessUnitCode", value.warehouseBusinessUnitCode());
+      generator.writeNumberField("productId", value.productId());
+      generator.writeNumberField("storeId", value.storeId());
+      // Dates go through the configured serializer, so their format matches the rest of the API
+      provider.defaultSerializeField("createdAt", value.createdAt(), generator);
+      generator.writeEndObject();
+    }
+  }
+}
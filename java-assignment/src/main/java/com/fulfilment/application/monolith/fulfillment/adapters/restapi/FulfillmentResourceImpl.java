@@ -1,9 +1,13 @@
 package com.fulfilment.application.monolith.fulfillment.adapters.restapi;
 
-import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationBatchResult;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
 import com.fulfilment.application.monolith.fulfillment.domain.usecases.AssociateWarehouseToProductInStoreUseCase;
+import com.fulfilment.application.monolith.fulfillment.domain.usecases.BatchAssociateWarehouseToProductInStoreUseCase;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.smallrye.common.annotation.NonBlocking;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -13,13 +17,13 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 @Path("fulfillment")
@@ -28,8 +32,15 @@ import org.jboss.logging.Logger;
 @Consumes("application/json")
 public class FulfillmentResourceImpl {
 
+  static final int MAX_PAGE_SIZE = 1000;
+
   @Inject private AssociateWarehouseToProductInStoreUseCase associateUseCase;
-  @Inject private WarehouseProductStoreAssociationRepository associationRepository;
+  @Inject private FulfillmentTopology topology;
+  @Inject private BatchAssociateWarehouseToProductInStoreUseCase batchAssociateUseCase;
+  @Inject private ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "fulfillment.associations.batch.max-items", defaultValue = "1000")
+  int maxBatchItems = 1000;
 
   private static final Logger LOGGER = Logger.getLogger(FulfillmentResourceImpl.class.getName());
 
@@ -39,8 +50,20 @@ public class FulfillmentResourceImpl {
     this.associateUseCase = useCase;
   }
 
-  public void setAssociationRepository(WarehouseProductStoreAssociationRepository repository) {
-    this.associationRepository = repository;
+  public void setTopology(FulfillmentTopology topology) {
+    this.topology = topology;
+  }
+
+  public void setBatchAssociateUseCase(BatchAssociateWarehouseToProductInStoreUseCase useCase) {
+    this.batchAssociateUseCase = useCase;
+  }
+
+  public void setObjectMapper(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public void setMaxBatchItems(int maxBatchItems) {
+    this.maxBatchItems = maxBatchItems;
   }
 
   @Override
@@ -66,57 +89,89 @@ public class FulfillmentResourceImpl {
     return Response.status(201).entity(association).build();
   }
 
+  @POST
+  @Path("associations:batch")
+  @Transactional
+  public ObjectNode associateBatch(List<WarehouseProductStoreAssociation> associations) {
+    if (associations == null || associations.isEmpty()) {
+      throw new WebApplicationException("Request body must contain at least one association", 400);
+    }
+    if (associations.size() > maxBatchItems) {
+      throw new WebApplicationException(
+          "A batch accepts at most " + maxBatchItems + " associations", 413);
+    }
+
+    var results = batchAssociateUseCase.associateAll(associations);
+
+    long created = results.stream().filter(result -> result.created).count();
+    ObjectNode response = objectMapper.createObjectNode();
+    response.put("created", created);
+    response.put("rejected", results.size() - created);
+    var items = response.putArray("results");
+    for (AssociationBatchResult result : results) {
+      var item = items.addObject();
+      item.put("index", result.index);
+      item.put("warehouseBusinessUnitCode", result.warehouseBusinessUnitCode);
+      item.put("productId", result.productId);
+      item.put("storeId", result.storeId);
+      item.put("created", result.created);
+      if (result.id != null) {
+        item.put("id", result.id);
+      }
+      if (result.error != null) {
+        item.put("error", result.error);
+      }
+    }
+    return response;
+  }
+
+  // The lookups are answered from the in-memory topology, without the database, so they run
+  // on the I/O thread rather than being handed to a worker thread
   @GET
   @Path("warehouse/{warehouseCode}")
-  public List<Map<String, Object>> getAssociationsByWarehouse(
-      @PathParam("warehouseCode") String warehouseCode) {
-    return associationRepository.findByWarehouse(warehouseCode).stream()
-        .map(
-            a -> {
-              Map<String, Object> map = new HashMap<>();
-              map.put("id", a.id);
-              map.put("warehouseBusinessUnitCode", a.warehouseBusinessUnitCode);
-              map.put("productId", a.productId);
-              map.put("storeId", a.storeId);
-              map.put("createdAt", a.createdAt);
-              return map;
-            })
-        .toList();
+  @NonBlocking
+  public List<AssociationResponse> getAssociationsByWarehouse(
+      @PathParam("warehouseCode") String warehouseCode,
+      @QueryParam("after") Long after,
+      @QueryParam("limit") Integer limit) {
+    if (after == null && limit == null) {
+      return topology.findByWarehouse(warehouseCode, AssociationResponse::new);
+    }
+    return topology.findByWarehouse(
+        warehouseCode, cursor(after), pageSize(limit), AssociationResponse::new);
   }
 
   @GET
   @Path("store/{storeId}")
-  public List<Map<String, Object>> getAssociationsByStore(@PathParam("storeId") Long storeId) {
-    return associationRepository.findByStore(storeId).stream()
-        .map(
-            a -> {
-              Map<String, Object> map = new HashMap<>();
-              map.put("id", a.id);
-              map.put("warehouseBusinessUnitCode", a.warehouseBusinessUnitCode);
-              map.put("productId", a.productId);
-              map.put("storeId", a.storeId);
-              map.put("createdAt", a.createdAt);
-              return map;
-            })
-        .toList();
+  @NonBlocking
+  public List<AssociationResponse> getAssociationsByStore(
+      @PathParam("storeId") Long storeId,
+      @QueryParam("after") Long after,
+      @QueryParam("limit") Integer limit) {
+    if (after == null && limit == null) {
+      return topology.findByStore(storeId, AssociationResponse::new);
+    }
+    return topology.findByStore(storeId, cursor(after), pageSize(limit), AssociationResponse::new);
   }
 
   @GET
   @Path("product/{productId}/store/{storeId}")
-  public List<Map<String, Object>> getAssociationsByProductStore(
+  @NonBlocking
+  public List<AssociationResponse> getAssociationsByProductStore(
       @PathParam("productId") Long productId, @PathParam("storeId") Long storeId) {
-    return associationRepository.findByProductAndStore(productId, storeId).stream()
-        .map(
-            a -> {
-              Map<String, Object> map = new HashMap<>();
-              map.put("id", a.id);
-              map.put("warehouseBusinessUnitCode", a.warehouseBusinessUnitCode);
-              map.put("productId", a.productId);
-              map.put("storeId", a.storeId);
-              map.put("createdAt", a.createdAt);
-              return map;
-            })
-        .toList();
+    return topology.findByProductAndStore(productId, storeId, AssociationResponse::new);
+  }
+
+  private static long cursor(Long after) {
+    return after == null ? 0L : after;
+  }
+
+  private static int pageSize(Integer limit) {
+    int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE, 400);
+    }
+    return pageSize;
   }
 
   @Provider
@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.fulfillment.adapters.restapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.common.rest.Ndjson;
+import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.function.Consumer;
+
+/**
+ * Streams the associations of a warehouse or a store as newline-delimited JSON, one association
+ * per line in id order. Rows are read from the database through a cursor and written as soon as
+ * they are read, so heap use stays flat however many associations there are.
+ */
+@Path("fulfillment/stream")
+@ApplicationScoped
+public class FulfillmentStreamResource {
+
+  @Inject private WarehouseProductStoreAssociationRepository associationRepository;
+  @Inject private ObjectMapper objectMapper;
+
+  public FulfillmentStreamResource() {}
+
+  // Setters for testing
+  public void setAssociationRepository(
+      WarehouseProductStoreAssociationRepository associationRepository) {
+    this.associationRepository = associationRepository;
+  }
+
+  public void setObjectMapper(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @GET
+  @Path("warehouse/{warehouseCode}")
+  @Produces(Ndjson.APPLICATION_NDJSON)
+  public StreamingOutput streamByWarehouse(
+      @PathParam("warehouseCode") String warehouseCode, @QueryParam("after") Long after) {
+    return stream(
+        action -> associationRepository.streamByWarehouseAfter(warehouseCode, after, action));
+  }
+
+  @GET
+  @Path("store/{storeId}")
+  @Produces(Ndjson.APPLICATION_NDJSON)
+  public StreamingOutput streamByStore(
+      @PathParam("storeId") Long storeId, @QueryParam("after") Long after) {
+    return stream(action -> associationRepository.streamByStoreAfter(storeId, after, action));
+  }
+
+  private StreamingOutput stream(Consumer<Consumer<WarehouseProductStoreAssociation>> source) {
+    return Ndjson.<AssociationResponse>stream(
+        objectMapper,
+        action -> source.accept(association -> action.accept(toResponse(association))));
+  }
+
+  private static AssociationResponse toResponse(WarehouseProductStoreAssociation association) {
+    return new AssociationResponse(
+        association.id,
+        association.warehouseBusinessUnitCode,
+        association.productId,
+        association.storeId,
+        association.createdAt);
+  }
+}
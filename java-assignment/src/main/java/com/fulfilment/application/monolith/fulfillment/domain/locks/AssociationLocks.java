@@ -0,0 +1,138 @@
+package com.fulfilment.application.monolith.fulfillment.domain.locks;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Striped locks that serialize association changes per store and per warehouse.
+ * Every association limit is scoped to a store or to a warehouse, so holding the locks of both
+ * makes the limit checks and the insert that follows atomic, while changes to other stores and
+ * warehouses proceed in parallel. Keys map onto a fixed number of stripes, so memory use does not
+ * grow with the number of stores and warehouses.
+ * Inside a transaction the locks are held until it completes, so no other change can read the
+ * counts before the insert is visible.
+ */
+@ApplicationScoped
+public class AssociationLocks {
+
+  private static final Object HELD_STRIPES = AssociationLocks.class.getName() + ".heldStripes";
+
+  private final Semaphore[] stripes;
+
+  private final long timeoutMillis;
+
+  private final TransactionSynchronizationRegistry transactionRegistry;
+
+  @Inject
+  public AssociationLocks(
+      @ConfigProperty(name = "fulfillment.association-locks.stripes", defaultValue = "1024")
+          int stripeCount,
+      @ConfigProperty(name = "fulfillment.association-locks.timeout", defaultValue = "10s")
+          Duration timeout,
+      TransactionSynchronizationRegistry transactionRegistry) {
+    this.stripes = new Semaphore[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      // Semaphores are not owned by a thread, so a transaction may release them on completion
+      stripes[i] = new Semaphore(1);
+    }
+    this.timeoutMillis = timeout.toMillis();
+    this.transactionRegistry = transactionRegistry;
+  }
+
+  /**
+   * Runs an action while holding the locks of the given stores and warehouses. The stripes are
+   * always taken in index order, so callers locking overlapping keys cannot deadlock.
+   *
+   * @param storeIds the stores the action changes, null entries are ignored
+   * @param warehouseCodes the warehouses the action changes, null entries are ignored
+   * @param action the checks and changes to make atomic
+   * @return the result of the action
+   */
+  public <T> T callWithLocks(
+      Collection<Long> storeIds, Collection<String> warehouseCodes, Supplier<T> action) {
+    var indexes = new TreeSet<Integer>();
+    storeIds.stream().filter(Objects::nonNull).forEach(id -> indexes.add(stripeOf("store:" + id)));
+    warehouseCodes.stream()
+        .filter(Objects::nonNull)
+        .forEach(code -> indexes.add(stripeOf("warehouse:" + code)));
+
+    if (transactionRegistry == null
+        || transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+      Set<Integer> held = new HashSet<>();
+      try {
+        acquire(indexes, held);
+        return action.get();
+      } finally {
+        release(held);
+      }
+    }
+
+    acquire(indexes, heldByTransaction());
+    return action.get();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<Integer> heldByTransaction() {
+    var held = (Set<Integer>) transactionRegistry.getResource(HELD_STRIPES);
+    if (held == null) {
+      var stripesOfTransaction = new HashSet<Integer>();
+      transactionRegistry.putResource(HELD_STRIPES, stripesOfTransaction);
+      transactionRegistry.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              release(stripesOfTransaction);
+            }
+          });
+      held = stripesOfTransaction;
+    }
+    return held;
+  }
+
+  private void acquire(Set<Integer> indexes, Set<Integer> held) {
+    for (int index : indexes) {
+      if (held.contains(index)) {
+        continue;
+      }
+      try {
+        if (!stripes[index].tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+          throw new WebApplicationException(
+              "Timed out waiting for concurrent association changes", 503);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new WebApplicationException("Interrupted waiting for association locks", 503);
+      }
+      held.add(index);
+    }
+  }
+
+  private void release(Set<Integer> held) {
+    for (int index : held) {
+      stripes[index].release();
+    }
+    held.clear();
+  }
+
+  private int stripeOf(String key) {
+    int hash = key.hashCode();
+    return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+  }
+}
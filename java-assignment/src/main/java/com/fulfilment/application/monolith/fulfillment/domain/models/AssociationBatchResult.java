@@ -0,0 +1,46 @@
+package com.fulfilment.application.monolith.fulfillment.domain.models;
+
+/**
+ * Outcome of one item of a batch of warehouse/product/store associations.
+ */
+public class AssociationBatchResult {
+
+  // position of the item in the submitted batch
+  public int index;
+
+  public String warehouseBusinessUnitCode;
+
+  public Long productId;
+
+  public Long storeId;
+
+  // id of the stored association, null when rejected
+  public Long id;
+
+  public boolean created;
+
+  // reason the item was rejected, null when created
+  public String error;
+
+  public AssociationBatchResult() {}
+
+  public AssociationBatchResult(
+      int index, WarehouseProductStoreAssociation association, boolean created, String error) {
+    this.index = index;
+    this.warehouseBusinessUnitCode = association.warehouseBusinessUnitCode;
+    this.productId = association.productId;
+    this.storeId = association.storeId;
+    this.created = created;
+    this.error = error;
+  }
+
+  public static AssociationBatchResult created(
+      int index, WarehouseProductStoreAssociation association) {
+    return new AssociationBatchResult(index, association, true, null);
+  }
+
+  public static AssociationBatchResult rejected(
+      int index, WarehouseProductStoreAssociation association, String error) {
+    return new AssociationBatchResult(index, association, false, error);
+  }
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.fulfillment.domain.models;
+
+/** Everything the association limits are checked against, read in one query. */
+public class AssociationConstraintCounts {
+
+  // warehouses already fulfilling the product in the store
+  public long warehousesForProductStore;
+
+  // distinct warehouses fulfilling anything in the store
+  public long warehousesForStore;
+
+  // distinct products the warehouse fulfils in any store
+  public long productsForWarehouse;
+
+  // whether the warehouse already fulfils something in the store
+  public boolean warehouseInStore;
+
+  // whether the warehouse already fulfils the product in some store
+  public boolean productInWarehouse;
+
+  public AssociationConstraintCounts(
+      Number warehousesForProductStore,
+      Number warehousesForStore,
+      Number productsForWarehouse,
+      Number warehouseInStore,
+      Number productInWarehouse) {
+    this.warehousesForProductStore = toLong(warehousesForProductStore);
+    this.warehousesForStore = toLong(warehousesForStore);
+    this.productsForWarehouse = toLong(productsForWarehouse);
+    this.warehouseInStore = toLong(warehouseInStore) > 0;
+    this.productInWarehouse = toLong(productInWarehouse) > 0;
+  }
+
+  public static AssociationConstraintCounts empty() {
+    return new AssociationConstraintCounts(0L, 0L, 0L, 0L, 0L);
+  }
+
+  private static long toLong(Number value) {
+    return value == null ? 0 : value.longValue();
+  }
+}
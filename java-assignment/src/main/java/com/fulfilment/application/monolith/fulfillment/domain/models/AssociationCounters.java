@@ -0,0 +1,75 @@
+package com.fulfilment.application.monolith.fulfillment.domain.models;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory view of the association limits for the warehouses, products and stores of a batch.
+ * It starts from the associations already stored and records every association accepted from the
+ * batch, so each item is also checked against the earlier ones.
+ */
+public class AssociationCounters {
+
+  public static final int MAX_WAREHOUSES_PER_PRODUCT_STORE = 2;
+
+  public static final int MAX_WAREHOUSES_PER_STORE = 3;
+
+  public static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
+
+  // associations per product and store, keyed by productStoreKey
+  private final Map<String, Long> warehousesByProductStore = new HashMap<>();
+
+  private final Map<Long, Set<String>> warehousesByStore = new HashMap<>();
+
+  private final Map<String, Set<Long>> productsByWarehouse = new HashMap<>();
+
+  public void addProductStoreCount(Long productId, Long storeId, long count) {
+    warehousesByProductStore.merge(productStoreKey(productId, storeId), count, Long::sum);
+  }
+
+  public void addWarehouseInStore(Long storeId, String warehouseCode) {
+    warehousesByStore.computeIfAbsent(storeId, id -> new HashSet<>()).add(warehouseCode);
+  }
+
+  public void addProductInWarehouse(String warehouseCode, Long productId) {
+    productsByWarehouse.computeIfAbsent(warehouseCode, code -> new HashSet<>()).add(productId);
+  }
+
+  /**
+   * Checks an association against the limits.
+   *
+   * @return the limit the association would break, or null when it is allowed
+   */
+  public String violation(String warehouseCode, Long productId, Long storeId) {
+    if (warehousesByProductStore.getOrDefault(productStoreKey(productId, storeId), 0L)
+        >= MAX_WAREHOUSES_PER_PRODUCT_STORE) {
+      return "Maximum number of warehouses (2) reached for this product in this store";
+    }
+
+    var storeWarehouses = warehousesByStore.getOrDefault(storeId, Set.of());
+    if (storeWarehouses.size() >= MAX_WAREHOUSES_PER_STORE
+        && !storeWarehouses.contains(warehouseCode)) {
+      return "Maximum number of warehouses (3) reached for this store";
+    }
+
+    var warehouseProducts = productsByWarehouse.getOrDefault(warehouseCode, Set.of());
+    if (warehouseProducts.size() >= MAX_PRODUCTS_PER_WAREHOUSE
+        && !warehouseProducts.contains(productId)) {
+      return "Maximum number of products (5) reached for this warehouse";
+    }
+    return null;
+  }
+
+  /** Counts an accepted association. */
+  public void record(String warehouseCode, Long productId, Long storeId) {
+    addProductStoreCount(productId, storeId, 1);
+    addWarehouseInStore(storeId, warehouseCode);
+    addProductInWarehouse(warehouseCode, productId);
+  }
+
+  private static String productStoreKey(Long productId, Long storeId) {
+    return productId + "/" + storeId;
+  }
+}
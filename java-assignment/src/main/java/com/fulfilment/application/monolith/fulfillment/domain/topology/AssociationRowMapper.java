@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.fulfillment.domain.topology;
+
+import java.time.LocalDateTime;
+
+/**
+ * Turns one association row of the topology into the type a caller needs, without going through
+ * an intermediate association object.
+ *
+ * @param <T> the type produced for each row
+ */
+@FunctionalInterface
+public interface AssociationRowMapper<T> {
+
+  T map(
+      long id, String warehouseBusinessUnitCode, long productId, long storeId,
+      LocalDateTime createdAt);
+}
@@ -0,0 +1,256 @@
+package com.fulfilment.application.monolith.fulfillment.domain.topology;
+
+import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jboss.logging.Logger;
+
+/**
+ * In-memory, read-optimized view of all warehouse/product/store associations, so the fulfillment
+ * lookups need no database access. It is built at startup, extended when new associations commit,
+ * and periodically rebuilt from the database to pick up changes made elsewhere.
+ *
+ * <p>Associations are kept in primitive column arrays, with stores and warehouses mapped to int
+ * arrays of row numbers. Estimated footprint for 10M associations over 1M stores and 10k
+ * warehouses:
+ *
+ * <ul>
+ *   <li>columns (id, product, store, created at, warehouse slot): 36 B per row, 360 MB
+ *   <li>store index: long-keyed open-addressing map of 2M slots (24 MB), row arrays of 10M ints
+ *       plus 1M array headers (56 MB)
+ *   <li>warehouse index: row arrays of 10M ints (40 MB), dictionary of 10k codes (1 MB)
+ * </ul>
+ *
+ * <p>That is about 480 MB, against roughly 2 GB for one object per association held in boxed
+ * HashMaps and lists. {@link #getEstimatedMemoryBytes()} reports the figure for the live data.
+ */
+@ApplicationScoped
+public class FulfillmentTopology {
+
+  private static final Logger LOGGER = Logger.getLogger(FulfillmentTopology.class.getName());
+
+  private final WarehouseProductStoreAssociationRepository associationRepository;
+
+  private final TransactionSynchronizationRegistry transactionRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private TopologyIndex index = new TopologyIndex(0);
+
+  // associations committed while a rebuild reads the database, replayed onto the new index
+  private List<WarehouseProductStoreAssociation> committedDuringRebuild;
+
+  public FulfillmentTopology(
+      WarehouseProductStoreAssociationRepository associationRepository,
+      TransactionSynchronizationRegistry transactionRegistry) {
+    this.associationRepository = associationRepository;
+    this.transactionRegistry = transactionRegistry;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    rebuild();
+  }
+
+  /**
+   * Replaces the topology with the associations currently stored in the database. Associations
+   * committed while the database is read are carried over to the new topology.
+   */
+  @Scheduled(
+      every = "${fulfillment.topology.rebuild-interval:10m}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @ActivateRequestContext
+  public synchronized void rebuild() {
+    List<WarehouseProductStoreAssociation> committed = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      committedDuringRebuild = committed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    var fresh = new TopologyIndex((int) Math.min(Integer.MAX_VALUE, associationRepository.count()));
+    try {
+      associationRepository.forEachAssociation(fresh::add);
+      fresh.trim();
+    } finally {
+      lock.writeLock().lock();
+      try {
+        committed.forEach(fresh::add);
+        index = fresh;
+        committedDuringRebuild = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    LOGGER.info("Fulfillment topology built with " + fresh.size() + " associations");
+  }
+
+  /**
+   * Adds stored associations to the topology once the current transaction, if any, commits.
+   *
+   * @param associations the associations that have been persisted, with their ids
+   */
+  public void recordCreated(List<WarehouseProductStoreAssociation> associations) {
+    if (transactionRegistry != null
+        && transactionRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+      transactionRegistry.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              if (status == Status.STATUS_COMMITTED) {
+                apply(associations);
+              }
+            }
+          });
+    } else {
+      apply(associations);
+    }
+  }
+
+  public List<WarehouseProductStoreAssociation> findByWarehouse(String warehouseCode) {
+    return findByWarehouse(warehouseCode, FulfillmentTopology::toAssociation);
+  }
+
+  public <T> List<T> findByWarehouse(String warehouseCode, AssociationRowMapper<T> mapper) {
+    lock.readLock().lock();
+    try {
+      return index.findByWarehouse(warehouseCode, mapper);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns one page of the associations of a warehouse, in id order.
+   *
+   * @param afterId only associations with a greater id are returned
+   * @param limit the maximum number of associations to return
+   */
+  public <T> List<T> findByWarehouse(
+      String warehouseCode, long afterId, int limit, AssociationRowMapper<T> mapper) {
+    lock.readLock().lock();
+    try {
+      return index.pageByWarehouse(warehouseCode, afterId, limit, mapper);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public List<WarehouseProductStoreAssociation> findByStore(Long storeId) {
+    return findByStore(storeId, FulfillmentTopology::toAssociation);
+  }
+
+  public <T> List<T> findByStore(Long storeId, AssociationRowMapper<T> mapper) {
+    lock.readLock().lock();
+    try {
+      return index.findByStore(storeId, mapper);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns one page of the associations of a store, in id order.
+   *
+   * @param afterId only associations with a greater id are returned
+   * @param limit the maximum number of associations to return
+   */
+  public <T> List<T> findByStore(
+      Long storeId, long afterId, int limit, AssociationRowMapper<T> mapper) {
+    lock.readLock().lock();
+    try {
+      return index.pageByStore(storeId, afterId, limit, mapper);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public List<WarehouseProductStoreAssociation> findByProductAndStore(Long productId, Long storeId) {
+    return findByProductAndStore(productId, storeId, FulfillmentTopology::toAssociation);
+  }
+
+  public <T> List<T> findByProductAndStore(
+      Long productId, Long storeId, AssociationRowMapper<T> mapper) {
+    lock.readLock().lock();
+    try {
+      return index.findByProductAndStore(productId, storeId, mapper);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int getSize() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int getStoreCount() {
+    lock.readLock().lock();
+    try {
+      return index.storeCount();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int getWarehouseCount() {
+    lock.readLock().lock();
+    try {
+      return index.warehouseCount();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long getEstimatedMemoryBytes() {
+    lock.readLock().lock();
+    try {
+      return index.estimatedMemoryBytes();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static WarehouseProductStoreAssociation toAssociation(
+      long id, String warehouseBusinessUnitCode, long productId, long storeId,
+      LocalDateTime createdAt) {
+    var association = new WarehouseProductStoreAssociation();
+    association.id = id;
+    association.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
+    association.productId = productId;
+    association.storeId = storeId;
+    association.createdAt = createdAt;
+    return association;
+  }
+
+  private void apply(List<WarehouseProductStoreAssociation> associations) {
+    lock.writeLock().lock();
+    try {
+      associations.forEach(index::add);
+      if (committedDuringRebuild != null) {
+        committedDuringRebuild.addAll(associations);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.fulfilment.application.monolith.fulfillment.domain.topology;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative int values, without boxing.
+ * Not thread-safe; {@link FulfillmentTopology} guards every access.
+ */
+final class LongIntHashMap {
+
+  static final int MISSING = -1;
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+
+  // MISSING marks a free slot
+  private int[] values;
+
+  private int size;
+
+  LongIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(values, MISSING);
+  }
+
+  int get(long key) {
+    int mask = keys.length - 1;
+    for (int slot = slotOf(key, mask); values[slot] != MISSING; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+    }
+    return MISSING;
+  }
+
+  void put(long key, int value) {
+    if (size + 1 > keys.length * LOAD_FACTOR) {
+      resize(keys.length << 1);
+    }
+    int mask = keys.length - 1;
+    int slot = slotOf(key, mask);
+    while (values[slot] != MISSING) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  long estimatedMemoryBytes() {
+    return 2 * 16L + keys.length * (Long.BYTES + Integer.BYTES);
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(values, MISSING);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != MISSING) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private static int slotOf(long key, int mask) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+}
@@ -0,0 +1,281 @@
+package com.fulfilment.application.monolith.fulfillment.domain.topology;
+
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented index of associations. Each association is a row in a set of primitive arrays,
+ * warehouse codes are stored once in a dictionary, and stores and warehouses map to int arrays of
+ * row numbers sorted by association id. Not thread-safe; {@link FulfillmentTopology} guards every
+ * access.
+ */
+final class TopologyIndex {
+
+  private static final int ARRAY_HEADER_BYTES = 16;
+
+  private static final int INITIAL_ROWS_PER_KEY = 4;
+
+  // association columns, one entry per row
+  private long[] ids;
+  private long[] productIds;
+  private long[] storeIds;
+  private long[] createdAtMicros;
+  private int[] warehouseSlots;
+  private int rows;
+
+  private final Map<String, Integer> warehouseSlotByCode = new HashMap<>();
+  private final List<String> warehouseCodes = new ArrayList<>();
+  private int[][] rowsByWarehouse = new int[16][];
+  private int[] rowCountByWarehouse = new int[16];
+
+  private final LongIntHashMap storeSlotById;
+  private int[][] rowsByStore;
+  private int[] rowCountByStore;
+  private int stores;
+
+  TopologyIndex(int expectedRows) {
+    int capacity = Math.max(16, expectedRows);
+    ids = new long[capacity];
+    productIds = new long[capacity];
+    storeIds = new long[capacity];
+    createdAtMicros = new long[capacity];
+    warehouseSlots = new int[capacity];
+    storeSlotById = new LongIntHashMap(Math.max(16, expectedRows / 4));
+    rowsByStore = new int[Math.max(16, expectedRows / 4)][];
+    rowCountByStore = new int[rowsByStore.length];
+  }
+
+  /** Adds an association unless a row with its id is already indexed. */
+  void add(WarehouseProductStoreAssociation association) {
+    int storeSlot = storeSlotById.get(association.storeId);
+    if (storeSlot != LongIntHashMap.MISSING) {
+      // A store has at most a few associations, so this duplicate check is cheap
+      int[] storeRows = rowsByStore[storeSlot];
+      for (int i = 0; i < rowCountByStore[storeSlot]; i++) {
+        if (ids[storeRows[i]] == association.id) {
+          return;
+        }
+      }
+    } else {
+      storeSlot = newStoreSlot(association.storeId);
+    }
+
+    int warehouseSlot = warehouseSlotOf(association.warehouseBusinessUnitCode);
+    if (rows == ids.length) {
+      growColumns(Math.max(16, rows + (rows >> 1)));
+    }
+    int row = rows++;
+    ids[row] = association.id;
+    productIds[row] = association.productId;
+    storeIds[row] = association.storeId;
+    createdAtMicros[row] = toMicros(association.createdAt);
+    warehouseSlots[row] = warehouseSlot;
+
+    rowsByStore[storeSlot] = append(rowsByStore[storeSlot], rowCountByStore[storeSlot]++, row);
+    rowsByWarehouse[warehouseSlot] =
+        append(rowsByWarehouse[warehouseSlot], rowCountByWarehouse[warehouseSlot]++, row);
+  }
+
+  /** Returns up to {@code limit} rows of the warehouse with an id above {@code afterId}. */
+  <T> List<T> pageByWarehouse(
+      String warehouseCode, long afterId, int limit, AssociationRowMapper<T> mapper) {
+    Integer slot = warehouseSlotByCode.get(warehouseCode);
+    if (slot == null) {
+      return List.of();
+    }
+    return mapPage(rowsByWarehouse[slot], rowCountByWarehouse[slot], afterId, limit, mapper);
+  }
+
+  /** Returns up to {@code limit} rows of the store with an id above {@code afterId}. */
+  <T> List<T> pageByStore(long storeId, long afterId, int limit, AssociationRowMapper<T> mapper) {
+    int slot = storeSlotById.get(storeId);
+    if (slot == LongIntHashMap.MISSING) {
+      return List.of();
+    }
+    return mapPage(rowsByStore[slot], rowCountByStore[slot], afterId, limit, mapper);
+  }
+
+  <T> List<T> findByWarehouse(String warehouseCode, AssociationRowMapper<T> mapper) {
+    Integer slot = warehouseSlotByCode.get(warehouseCode);
+    if (slot == null) {
+      return List.of();
+    }
+    return mapRows(rowsByWarehouse[slot], rowCountByWarehouse[slot], null, mapper);
+  }
+
+  <T> List<T> findByStore(long storeId, AssociationRowMapper<T> mapper) {
+    return findByStore(storeId, null, mapper);
+  }
+
+  <T> List<T> findByProductAndStore(long productId, long storeId, AssociationRowMapper<T> mapper) {
+    return findByStore(storeId, productId, mapper);
+  }
+
+  int size() {
+    return rows;
+  }
+
+  int storeCount() {
+    return stores;
+  }
+
+  int warehouseCount() {
+    return warehouseCodes.size();
+  }
+
+  /** Drops the spare capacity left by growing, once a bulk load is complete. */
+  void trim() {
+    growColumns(rows);
+    for (int slot = 0; slot < stores; slot++) {
+      rowsByStore[slot] = Arrays.copyOf(rowsByStore[slot], rowCountByStore[slot]);
+    }
+    for (int slot = 0; slot < warehouseCodes.size(); slot++) {
+      rowsByWarehouse[slot] = Arrays.copyOf(rowsByWarehouse[slot], rowCountByWarehouse[slot]);
+    }
+  }
+
+  /** Approximate heap used by the index, from the sizes of its arrays. */
+  long estimatedMemoryBytes() {
+    long bytes = 5L * ARRAY_HEADER_BYTES + ids.length * (4L * Long.BYTES + Integer.BYTES);
+    bytes += storeSlotById.estimatedMemoryBytes();
+    bytes += 2L * ARRAY_HEADER_BYTES + rowsByStore.length * (4L + Integer.BYTES);
+    for (int slot = 0; slot < stores; slot++) {
+      bytes += ARRAY_HEADER_BYTES + (long) rowsByStore[slot].length * Integer.BYTES;
+    }
+    bytes += 2L * ARRAY_HEADER_BYTES + rowsByWarehouse.length * (4L + Integer.BYTES);
+    for (int slot = 0; slot < warehouseCodes.size(); slot++) {
+      bytes += ARRAY_HEADER_BYTES + (long) rowsByWarehouse[slot].length * Integer.BYTES;
+      // dictionary entry, code string and its characters
+      bytes += 96 + warehouseCodes.get(slot).length();
+    }
+    return bytes;
+  }
+
+  private <T> List<T> findByStore(long storeId, Long productId, AssociationRowMapper<T> mapper) {
+    int slot = storeSlotById.get(storeId);
+    if (slot == LongIntHashMap.MISSING) {
+      return List.of();
+    }
+    return mapRows(rowsByStore[slot], rowCountByStore[slot], productId, mapper);
+  }
+
+  private <T> List<T> mapRows(
+      int[] keyRows, int count, Long productId, AssociationRowMapper<T> mapper) {
+    List<T> mapped = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int row = keyRows[i];
+      if (productId != null && productIds[row] != productId) {
+        continue;
+      }
+      mapped.add(mapRow(row, mapper));
+    }
+    return mapped;
+  }
+
+  private <T> List<T> mapPage(
+      int[] keyRows, int count, long afterId, int limit, AssociationRowMapper<T> mapper) {
+    // Rows of a key are kept in id order, so the cursor is found by binary search
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (ids[keyRows[mid]] <= afterId) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    int end = (int) Math.min(count, (long) low + limit);
+    List<T> mapped = new ArrayList<>(end - low);
+    for (int i = low; i < end; i++) {
+      mapped.add(mapRow(keyRows[i], mapper));
+    }
+    return mapped;
+  }
+
+  private <T> T mapRow(int row, AssociationRowMapper<T> mapper) {
+    return mapper.map(
+        ids[row],
+        warehouseCodes.get(warehouseSlots[row]),
+        productIds[row],
+        storeIds[row],
+        fromMicros(createdAtMicros[row]));
+  }
+
+  private int newStoreSlot(long storeId) {
+    if (stores == rowsByStore.length) {
+      rowsByStore = Arrays.copyOf(rowsByStore, stores << 1);
+      rowCountByStore = Arrays.copyOf(rowCountByStore, stores << 1);
+    }
+    int slot = stores++;
+    rowsByStore[slot] = new int[INITIAL_ROWS_PER_KEY];
+    storeSlotById.put(storeId, slot);
+    return slot;
+  }
+
+  private int warehouseSlotOf(String warehouseCode) {
+    Integer slot = warehouseSlotByCode.get(warehouseCode);
+    if (slot != null) {
+      return slot;
+    }
+    int newSlot = warehouseCodes.size();
+    if (newSlot == rowsByWarehouse.length) {
+      rowsByWarehouse = Arrays.copyOf(rowsByWarehouse, newSlot << 1);
+      rowCountByWarehouse = Arrays.copyOf(rowCountByWarehouse, newSlot << 1);
+    }
+    rowsByWarehouse[newSlot] = new int[INITIAL_ROWS_PER_KEY];
+    warehouseCodes.add(warehouseCode);
+    warehouseSlotByCode.put(warehouseCode, newSlot);
+    return newSlot;
+  }
+
+  private void growColumns(int capacity) {
+    ids = Arrays.copyOf(ids, capacity);
+    productIds = Arrays.copyOf(productIds, capacity);
+    storeIds = Arrays.copyOf(storeIds, capacity);
+    createdAtMicros = Arrays.copyOf(createdAtMicros, capacity);
+    warehouseSlots = Arrays.copyOf(warehouseSlots, capacity);
+  }
+
+  /**
+   * Adds a row to the rows of a key, keeping them in id order. Rows mostly arrive in id order, so
+   * the row is nearly always placed at the end; only transactions committing out of order shift.
+   */
+  private int[] append(int[] keyRows, int count, int row) {
+    if (count == keyRows.length) {
+      keyRows = Arrays.copyOf(keyRows, Math.max(INITIAL_ROWS_PER_KEY, count << 1));
+    }
+    int position = count;
+    while (position > 0 && ids[keyRows[position - 1]] > ids[row]) {
+      keyRows[position] = keyRows[position - 1];
+      position--;
+    }
+    keyRows[position] = row;
+    return keyRows;
+  }
+
+  // Timestamps are kept at the microsecond precision the database stores
+  private static long toMicros(LocalDateTime createdAt) {
+    if (createdAt == null) {
+      return Long.MIN_VALUE;
+    }
+    return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), createdAt);
+  }
+
+  private static LocalDateTime fromMicros(long micros) {
+    if (micros == Long.MIN_VALUE) {
+      return null;
+    }
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(micros, 1_000_000L),
+        (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+        ZoneOffset.UTC);
+  }
+}
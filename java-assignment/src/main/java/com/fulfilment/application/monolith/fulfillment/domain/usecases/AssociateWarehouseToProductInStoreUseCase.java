@@ -1,13 +1,17 @@
 package com.fulfilment.application.monolith.fulfillment.domain.usecases;
 
 import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationCounters;
+import com.fulfilment.application.monolith.fulfillment.domain.locks.AssociationLocks;
 import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
 import com.fulfilment.application.monolith.products.ProductRepository;
 import com.fulfilment.application.monolith.stores.Store;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
+import java.util.List;
 
 @ApplicationScoped
 public class AssociateWarehouseToProductInStoreUseCase {
@@ -15,6 +19,8 @@ public class AssociateWarehouseToProductInStoreUseCase {
   @Inject private WarehouseProductStoreAssociationRepository associationRepository;
   @Inject private WarehouseRepository warehouseRepository;
   @Inject private ProductRepository productRepository;
+  @Inject private AssociationLocks associationLocks;
+  @Inject private FulfillmentTopology topology;
 
   public void setAssociationRepository(WarehouseProductStoreAssociationRepository associationRepository) {
     this.associationRepository = associationRepository;
@@ -28,13 +34,24 @@ public class AssociateWarehouseToProductInStoreUseCase {
     this.productRepository = productRepository;
   }
 
+  public void setAssociationLocks(AssociationLocks associationLocks) {
+    this.associationLocks = associationLocks;
+  }
+
+  public void setTopology(FulfillmentTopology topology) {
+    this.topology = topology;
+  }
+
   public WarehouseProductStoreAssociation associate(
       String warehouseBusinessUnitCode, Long productId, Long storeId) {
 
-    var warehouse = warehouseRepository.findByBusinessUnitCode(warehouseBusinessUnitCode);
-    if (warehouse == null) {
-      throw new WebApplicationException("Warehouse not found: " + warehouseBusinessUnitCode, 404);
-    }
+    var warehouse =
+        warehouseRepository
+            .findOptionalByBusinessUnitCode(warehouseBusinessUnitCode)
+            .orElseThrow(
+                () ->
+                    new WebApplicationException(
+                        "Warehouse not found: " + warehouseBusinessUnitCode, 404));
 
     var product = productRepository.findById(productId);
     if (product == null) {
@@ -46,26 +63,31 @@ public class AssociateWarehouseToProductInStoreUseCase {
       throw new WebApplicationException("Store not found: " + storeId, 404);
     }
 
-    int warehousesForProductStore =
-        associationRepository.countWarehousesForProductStore(productId, storeId);
-    if (warehousesForProductStore >= 2) {
+    // The store and warehouse stay locked until the insert commits, so the counts cannot go stale
+    return associationLocks.callWithLocks(
+        List.of(storeId),
+        List.of(warehouseBusinessUnitCode),
+        () -> checkLimitsAndCreate(warehouseBusinessUnitCode, productId, storeId));
+  }
+
+  private WarehouseProductStoreAssociation checkLimitsAndCreate(
+      String warehouseBusinessUnitCode, Long productId, Long storeId) {
+    var counts =
+        associationRepository.countConstraints(warehouseBusinessUnitCode, productId, storeId);
+    if (counts.warehousesForProductStore
+        >= AssociationCounters.MAX_WAREHOUSES_PER_PRODUCT_STORE) {
       throw new WebApplicationException(
           "Maximum number of warehouses (2) reached for this product in this store", 400);
     }
 
-    int warehousesForStore = associationRepository.countWarehousesForStore(storeId);
-    if (warehousesForStore >= 3
-        && !associationRepository.findByStore(storeId).stream()
-            .anyMatch(a -> a.warehouseBusinessUnitCode.equals(warehouseBusinessUnitCode))) {
+    if (counts.warehousesForStore >= AssociationCounters.MAX_WAREHOUSES_PER_STORE
+        && !counts.warehouseInStore) {
       throw new WebApplicationException(
           "Maximum number of warehouses (3) reached for this store", 400);
     }
 
-    int productsForWarehouse =
-        associationRepository.countProductsForWarehouse(warehouseBusinessUnitCode);
-    if (productsForWarehouse >= 5
-        && !associationRepository.findByWarehouse(warehouseBusinessUnitCode).stream()
-            .anyMatch(a -> a.productId.equals(productId))) {
+    if (counts.productsForWarehouse >= AssociationCounters.MAX_PRODUCTS_PER_WAREHOUSE
+        && !counts.productInWarehouse) {
       throw new WebApplicationException(
           "Maximum number of products (5) reached for this warehouse", 400);
     }
@@ -75,6 +97,8 @@ public class AssociateWarehouseToProductInStoreUseCase {
     association.productId = productId;
     association.storeId = storeId;
 
-    return associationRepository.create(association);
+    var created = associationRepository.create(association);
+    topology.recordCreated(List.of(created));
+    return created;
   }
 }
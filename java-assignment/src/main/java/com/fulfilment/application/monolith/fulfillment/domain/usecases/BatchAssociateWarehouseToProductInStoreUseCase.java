@@ -0,0 +1,141 @@
+package com.fulfilment.application.monolith.fulfillment.domain.usecases;
+
+import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.locks.AssociationLocks;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationBatchResult;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationCounters;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Associates a batch of warehouse/product/store triples at once.
+ * The referenced warehouses, products and stores are resolved with one query each, and the limits
+ * are checked against in-memory counters loaded once for the whole batch. Accepted items are
+ * inserted together and rejected items are reported without failing the batch.
+ */
+@ApplicationScoped
+public class BatchAssociateWarehouseToProductInStoreUseCase {
+
+  @Inject private WarehouseProductStoreAssociationRepository associationRepository;
+  @Inject private WarehouseRepository warehouseRepository;
+  @Inject private ProductRepository productRepository;
+  @Inject private AssociationLocks associationLocks;
+  @Inject private FulfillmentTopology topology;
+
+  public void setAssociationRepository(WarehouseProductStoreAssociationRepository associationRepository) {
+    this.associationRepository = associationRepository;
+  }
+
+  public void setWarehouseRepository(WarehouseRepository warehouseRepository) {
+    this.warehouseRepository = warehouseRepository;
+  }
+
+  public void setProductRepository(ProductRepository productRepository) {
+    this.productRepository = productRepository;
+  }
+
+  public void setAssociationLocks(AssociationLocks associationLocks) {
+    this.associationLocks = associationLocks;
+  }
+
+  public void setTopology(FulfillmentTopology topology) {
+    this.topology = topology;
+  }
+
+  public List<AssociationBatchResult> associateAll(
+      List<WarehouseProductStoreAssociation> associations) {
+    Set<String> warehouseCodes = collect(associations, a -> a.warehouseBusinessUnitCode);
+    Set<Long> productIds = collect(associations, a -> a.productId);
+    Set<Long> storeIds = collect(associations, a -> a.storeId);
+
+    Set<String> knownWarehouses = warehouseRepository.findExistingBusinessUnitCodes(warehouseCodes);
+    Set<Long> knownProducts = productRepository.findExistingIds(productIds);
+    Set<Long> knownStores = findExistingStoreIds(storeIds);
+
+    // Hold every involved store and warehouse so no concurrent change can invalidate the counters
+    return associationLocks.callWithLocks(
+        storeIds,
+        warehouseCodes,
+        () ->
+            associateKnown(
+                associations,
+                knownWarehouses,
+                knownProducts,
+                knownStores,
+                associationRepository.loadCounters(warehouseCodes, productIds, storeIds)));
+  }
+
+  private List<AssociationBatchResult> associateKnown(
+      List<WarehouseProductStoreAssociation> associations,
+      Set<String> knownWarehouses,
+      Set<Long> knownProducts,
+      Set<Long> knownStores,
+      AssociationCounters counters) {
+
+    List<AssociationBatchResult> results = new ArrayList<>(associations.size());
+    List<WarehouseProductStoreAssociation> accepted = new ArrayList<>();
+    List<AssociationBatchResult> acceptedResults = new ArrayList<>();
+    for (int i = 0; i < associations.size(); i++) {
+      var association = associations.get(i);
+      String error;
+      if (association.warehouseBusinessUnitCode == null
+          || association.productId == null
+          || association.storeId == null) {
+        error = "Warehouse business unit code, product id and store id are required";
+      } else if (!knownWarehouses.contains(association.warehouseBusinessUnitCode)) {
+        error = "Warehouse not found: " + association.warehouseBusinessUnitCode;
+      } else if (!knownProducts.contains(association.productId)) {
+        error = "Product not found: " + association.productId;
+      } else if (!knownStores.contains(association.storeId)) {
+        error = "Store not found: " + association.storeId;
+      } else {
+        error =
+            counters.violation(
+                association.warehouseBusinessUnitCode, association.productId, association.storeId);
+      }
+
+      if (error != null) {
+        results.add(AssociationBatchResult.rejected(i, association, error));
+        continue;
+      }
+
+      counters.record(
+          association.warehouseBusinessUnitCode, association.productId, association.storeId);
+      var result = AssociationBatchResult.created(i, association);
+      accepted.add(association);
+      acceptedResults.add(result);
+      results.add(result);
+    }
+
+    if (!accepted.isEmpty()) {
+      var created = associationRepository.createAll(accepted);
+      topology.recordCreated(created);
+      for (int i = 0; i < created.size(); i++) {
+        acceptedResults.get(i).id = created.get(i).id;
+      }
+    }
+    return results;
+  }
+
+  // Store is an active record, so its lookup goes through the entity; overridable in tests
+  Set<Long> findExistingStoreIds(Set<Long> storeIds) {
+    return Store.findExistingIds(storeIds);
+  }
+
+  private static <T> Set<T> collect(
+      List<WarehouseProductStoreAssociation> associations,
+      Function<WarehouseProductStoreAssociation, T> field) {
+    return associations.stream().map(field).filter(Objects::nonNull).collect(Collectors.toSet());
+  }
+}
@@ -1,34 +1,231 @@
 package com.fulfilment.application.monolith.location;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+/**
+ * Resolves locations from an immutable catalog indexed by identifier.
+ * The catalog defaults to the built-in locations and can be loaded from an external CSV or JSON
+ * file configured with {@code location.catalog.path}. A reload builds a complete new catalog and
+ * swaps it in atomically, so readers never block and never see a partially loaded catalog.
+ */
 @ApplicationScoped
 public class LocationGateway implements LocationResolver {
 
-  private static final List<Location> locations = new ArrayList<>();
+  private static final Logger LOGGER = Logger.getLogger(LocationGateway.class.getName());
 
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
+  private static final List<Location> DEFAULT_LOCATIONS =
+      List.of(
+          new Location("ZWOLLE-001", 1, 40),
+          new Location("ZWOLLE-002", 2, 50),
+          new Location("AMSTERDAM-001", 5, 100),
+          new Location("AMSTERDAM-002", 3, 75),
+          new Location("TILBURG-001", 1, 40),
+          new Location("HELMOND-001", 1, 45),
+          new Location("EINDHOVEN-001", 2, 70),
+          new Location("VETSBY-001", 1, 90));
+
+  private static final String BUILT_IN_SOURCE = "built-in";
+
+  @ConfigProperty(name = "location.catalog.path")
+  Optional<String> catalogPath = Optional.empty();
+
+  private volatile Catalog catalog;
+
+  private volatile long catalogFileLastModified = -1;
+
+  public LocationGateway() {
+    this.catalog = Catalog.of(DEFAULT_LOCATIONS, BUILT_IN_SOURCE, System.nanoTime());
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    reload();
   }
 
   @Override
   public Location resolveByIdentifier(String identifier) {
-    return locations.stream()
-            .filter(location -> location.identification.equals(identifier))
-            .findFirst()
-            .orElseThrow(() ->
-                    new IllegalArgumentException("Location not found: " + identifier)
-            );
+    var location = identifier == null ? null : catalog.locations.get(identifier);
+    if (location == null) {
+      throw new IllegalArgumentException("Location not found: " + identifier);
+    }
+    return location;
+  }
+
+  /**
+   * Reloads the catalog from the configured file, or from the built-in locations if no file is
+   * configured. If the file cannot be read the current catalog is kept.
+   */
+  public void reload() {
+    if (catalogPath.isEmpty()) {
+      catalog = Catalog.of(DEFAULT_LOCATIONS, BUILT_IN_SOURCE, System.nanoTime());
+      return;
+    }
+
+    var path = Path.of(catalogPath.get());
+    long start = System.nanoTime();
+    try {
+      long lastModified = Files.getLastModifiedTime(path).toMillis();
+      var locations = readLocations(path);
+      catalog = Catalog.of(locations, path.toString(), start);
+      catalogFileLastModified = lastModified;
+      LOGGER.info("Location catalog loaded from " + path + " with " + locations.size() + " locations");
+    } catch (IOException | RuntimeException e) {
+      LOGGER.error("Failed to load location catalog from " + path + ", keeping current catalog", e);
+    }
+  }
+
+  /**
+   * Reloads the catalog when the configured file has changed since it was last loaded.
+   */
+  @Scheduled(
+      every = "${location.catalog.reload-interval:30s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void reloadIfChanged() {
+    if (catalogPath.isEmpty()) {
+      return;
+    }
+    try {
+      long lastModified = Files.getLastModifiedTime(Path.of(catalogPath.get())).toMillis();
+      if (lastModified != catalogFileLastModified) {
+        reload();
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Could not check location catalog file: " + e.getMessage());
+    }
+  }
+
+  public int getCatalogSize() {
+    return catalog.locations.size();
+  }
+
+  public String getCatalogSource() {
+    return catalog.source;
+  }
+
+  public LocalDateTime getCatalogLoadedAt() {
+    return catalog.loadedAt;
+  }
+
+  public long getCatalogLoadTimeMillis() {
+    return catalog.loadTimeMillis;
+  }
+
+  private List<Location> readLocations(Path path) throws IOException {
+    if (path.toString().toLowerCase().endsWith(".json")) {
+      return readJson(path);
+    }
+    return readCsv(path);
+  }
+
+  /**
+   * Reads a JSON array of objects with identification, maxNumberOfWarehouses and maxCapacity.
+   * An entry with a missing or mistyped field rejects the file, as a malformed CSV line does.
+   */
+  private List<Location> readJson(Path path) throws IOException {
+    JsonNode root = new ObjectMapper().readTree(path.toFile());
+    if (!root.isArray()) {
+      throw new IllegalArgumentException("Location catalog JSON must be an array");
+    }
+    List<Location> locations = new ArrayList<>(root.size());
+    for (JsonNode node : root) {
+      locations.add(
+          new Location(
+              textField(node, "identification"),
+              intField(node, "maxNumberOfWarehouses"),
+              intField(node, "maxCapacity")));
+    }
+    return locations;
+  }
+
+  private static String textField(JsonNode entry, String field) {
+    JsonNode value = entry.get(field);
+    if (value == null || !value.isTextual() || value.asText().isBlank()) {
+      throw new IllegalArgumentException(
+          "Invalid location catalog entry, " + field + " must be a non-empty string: " + entry);
+    }
+    return value.asText().trim();
+  }
+
+  private static int intField(JsonNode entry, String field) {
+    JsonNode value = entry.get(field);
+    if (value == null || !value.isIntegralNumber() || !value.canConvertToInt()) {
+      throw new IllegalArgumentException(
+          "Invalid location catalog entry, " + field + " must be an integer: " + entry);
+    }
+    return value.intValue();
+  }
+
+  /**
+   * Reads lines of {@code identification,maxNumberOfWarehouses,maxCapacity}. Blank lines, lines
+   * starting with '#' and a header line are skipped.
+   */
+  private List<Location> readCsv(Path path) throws IOException {
+    List<Location> locations = new ArrayList<>();
+    for (String line : Files.readAllLines(path)) {
+      var trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      var columns = trimmed.split(",");
+      if (columns.length != 3) {
+        throw new IllegalArgumentException("Invalid location catalog line: " + line);
+      }
+      if (columns[0].trim().equalsIgnoreCase("identification")) {
+        continue;
+      }
+      locations.add(
+          new Location(
+              columns[0].trim(),
+              Integer.parseInt(columns[1].trim()),
+              Integer.parseInt(columns[2].trim())));
+    }
+    return locations;
+  }
+
+  private static final class Catalog {
+    final Map<String, Location> locations;
+    final String source;
+    final LocalDateTime loadedAt;
+    final long loadTimeMillis;
+
+    private Catalog(
+        Map<String, Location> locations, String source, LocalDateTime loadedAt, long loadTimeMillis) {
+      this.locations = locations;
+      this.source = source;
+      this.loadedAt = loadedAt;
+      this.loadTimeMillis = loadTimeMillis;
+    }
+
+    static Catalog of(List<Location> locations, String source, long startNanos) {
+      Map<String, Location> index = new HashMap<>(locations.size() * 2);
+      for (var location : locations) {
+        if (index.putIfAbsent(location.identification, location) != null) {
+          throw new IllegalArgumentException(
+              "Duplicate location in catalog: " + location.identification);
+        }
+      }
+      return new Catalog(
+          Map.copyOf(index),
+          source,
+          LocalDateTime.now(),
+          (System.nanoTime() - startNanos) / 1_000_000);
+    }
   }
 }
@@ -0,0 +1,273 @@
+package com.fulfilment.application.monolith.monitoring;
+
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.stores.LegacyStoreSyncPipeline;
+import com.fulfilment.application.monolith.stores.ResilientLegacyStoreGateway;
+import com.fulfilment.application.monolith.stores.StoreOutboxDispatcher;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseLookupCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Publishes the application's own counters in the meter registry, next to the JVM, HTTP and
+ * connection pool meters, so that /q/metrics and /monitoring/metrics report the same values. The
+ * meters read the components when scraped; nothing is copied in between.
+ */
+@ApplicationScoped
+public class ApplicationMeterBinder implements MeterBinder {
+
+  static final String HIT = "hit";
+
+  static final String MISS = "miss";
+
+  private final LocationGateway locationGateway;
+
+  private final WarehouseLookupCache warehouseLookupCache;
+
+  private final SessionFactory sessionFactory;
+
+  private final FulfillmentTopology fulfillmentTopology;
+
+  private final LegacyStoreSyncPipeline legacyStoreSyncPipeline;
+
+  private final StoreOutboxDispatcher storeOutboxDispatcher;
+
+  private final ResilientLegacyStoreGateway legacyGateway;
+
+  @Inject
+  public ApplicationMeterBinder(
+      LocationGateway locationGateway,
+      WarehouseLookupCache warehouseLookupCache,
+      SessionFactory sessionFactory,
+      FulfillmentTopology fulfillmentTopology,
+      LegacyStoreSyncPipeline legacyStoreSyncPipeline,
+      StoreOutboxDispatcher storeOutboxDispatcher,
+      ResilientLegacyStoreGateway legacyGateway) {
+    this.locationGateway = locationGateway;
+    this.warehouseLookupCache = warehouseLookupCache;
+    this.sessionFactory = sessionFactory;
+    this.fulfillmentTopology = fulfillmentTopology;
+    this.legacyStoreSyncPipeline = legacyStoreSyncPipeline;
+    this.storeOutboxDispatcher = storeOutboxDispatcher;
+    this.legacyGateway = legacyGateway;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bindLocationCatalog(registry);
+    bindWarehouseLookupCache(registry);
+    bindSecondLevelCache(registry, sessionFactory.getStatistics());
+    bindFulfillmentTopology(registry);
+    bindLegacyStoreSync(registry);
+    bindStoreOutbox(registry);
+    bindLegacyGateway(registry);
+  }
+
+  private void bindLocationCatalog(MeterRegistry registry) {
+    var catalog = locationGateway;
+    gauge(registry, "location.catalog.size", "Locations in the catalog", catalog,
+        LocationGateway::getCatalogSize);
+    millis(registry, "location.catalog.load.time", "Time the last catalog load took", catalog,
+        LocationGateway::getCatalogLoadTimeMillis);
+  }
+
+  private void bindWarehouseLookupCache(MeterRegistry registry) {
+    var cache = warehouseLookupCache;
+    gauge(registry, "warehouse.lookup.cache.size", "Cached warehouse lookups", cache,
+        WarehouseLookupCache::getSize);
+    counter(registry, "warehouse.lookup.cache.requests", "Warehouse lookups by cache outcome",
+        cache, lookups -> lookups.getStats().hitCount(), "result", HIT);
+    counter(registry, "warehouse.lookup.cache.requests", "Warehouse lookups by cache outcome",
+        cache, lookups -> lookups.getStats().missCount(), "result", MISS);
+    counter(registry, "warehouse.lookup.cache.evictions", "Warehouse lookups evicted", cache,
+        lookups -> lookups.getStats().evictionCount());
+    counter(registry, "warehouse.lookup.cache.invalidations", "Warehouse lookups invalidated",
+        cache, WarehouseLookupCache::getInvalidationCount);
+  }
+
+  private void bindSecondLevelCache(MeterRegistry registry, Statistics statistics) {
+    counter(registry, "orm.second.level.cache.requests", "Second-level cache lookups",
+        statistics, Statistics::getSecondLevelCacheHitCount, "result", HIT);
+    counter(registry, "orm.second.level.cache.requests", "Second-level cache lookups",
+        statistics, Statistics::getSecondLevelCacheMissCount, "result", MISS);
+    counter(registry, "orm.second.level.cache.puts", "Second-level cache puts", statistics,
+        Statistics::getSecondLevelCachePutCount);
+    counter(registry, "orm.query.cache.requests", "Query cache lookups", statistics,
+        Statistics::getQueryCacheHitCount, "result", HIT);
+    counter(registry, "orm.query.cache.requests", "Query cache lookups", statistics,
+        Statistics::getQueryCacheMissCount, "result", MISS);
+    counter(registry, "orm.query.cache.puts", "Query cache puts", statistics,
+        Statistics::getQueryCachePutCount);
+    counter(registry, "orm.entity.loads", "Entities loaded", statistics,
+        Statistics::getEntityLoadCount);
+    counter(registry, "orm.statements.prepared", "JDBC statements prepared", statistics,
+        Statistics::getPrepareStatementCount);
+
+    // The regions are fixed once the session factory is built
+    for (String region : statistics.getSecondLevelCacheRegionNames()) {
+      if (statistics.getCacheRegionStatistics(region) == null) {
+        continue;
+      }
+      counter(registry, "orm.cache.region.requests", "Second-level cache lookups per region",
+          statistics, stats -> stats.getCacheRegionStatistics(region).getHitCount(),
+          "region", region, "result", HIT);
+      counter(registry, "orm.cache.region.requests", "Second-level cache lookups per region",
+          statistics, stats -> stats.getCacheRegionStatistics(region).getMissCount(),
+          "region", region, "result", MISS);
+      counter(registry, "orm.cache.region.puts", "Second-level cache puts per region",
+          statistics, stats -> stats.getCacheRegionStatistics(region).getPutCount(),
+          "region", region);
+      gauge(registry, "orm.cache.region.elements", "Entries held per region", statistics,
+          stats -> stats.getCacheRegionStatistics(region).getElementCountInMemory(),
+          "region", region);
+    }
+  }
+
+  private void bindFulfillmentTopology(MeterRegistry registry) {
+    var topology = fulfillmentTopology;
+    gauge(registry, "fulfillment.topology.associations", "Associations in the topology",
+        topology, FulfillmentTopology::getSize);
+    gauge(registry, "fulfillment.topology.stores", "Stores in the topology", topology,
+        FulfillmentTopology::getStoreCount);
+    gauge(registry, "fulfillment.topology.warehouses", "Warehouses in the topology", topology,
+        FulfillmentTopology::getWarehouseCount);
+    Gauge.builder("fulfillment.topology.memory", topology,
+            FulfillmentTopology::getEstimatedMemoryBytes)
+        .description("Estimated heap held by the topology")
+        .baseUnit("bytes")
+        .register(registry);
+  }
+
+  private void bindLegacyStoreSync(MeterRegistry registry) {
+    var pipeline = legacyStoreSyncPipeline;
+    gauge(registry, "legacy.sync.queue.depth", "Stores queued for the legacy sync", pipeline,
+        LegacyStoreSyncPipeline::getQueueDepth);
+    gauge(registry, "legacy.sync.queue.capacity", "Capacity of the legacy sync queue", pipeline,
+        LegacyStoreSyncPipeline::getCapacity);
+    gauge(registry, "legacy.sync.workers", "Legacy sync workers", pipeline,
+        LegacyStoreSyncPipeline::getWorkerCount);
+    gauge(registry, "legacy.sync.in.flight.stores", "Stores being delivered", pipeline,
+        LegacyStoreSyncPipeline::getInFlightStoreCount);
+    millis(registry, "legacy.sync.lag", "Age of the oldest queued store", pipeline,
+        LegacyStoreSyncPipeline::getLagMillis);
+    counter(registry, "legacy.sync.enqueued", "Store changes queued", pipeline,
+        LegacyStoreSyncPipeline::getEnqueuedCount);
+    counter(registry, "legacy.sync.coalesced", "Store changes folded into a queued one",
+        pipeline, LegacyStoreSyncPipeline::getCoalescedCount);
+    counter(registry, "legacy.sync.rejected", "Store changes the full queue turned away",
+        pipeline, LegacyStoreSyncPipeline::getRejectedCount);
+    counter(registry, "legacy.sync.delivered", "Stores delivered", pipeline,
+        LegacyStoreSyncPipeline::getDeliveredCount);
+    counter(registry, "legacy.sync.failed", "Stores that failed delivery", pipeline,
+        LegacyStoreSyncPipeline::getFailedCount);
+    counter(registry, "legacy.sync.batches", "Delivery batches", pipeline,
+        LegacyStoreSyncPipeline::getBatchCount);
+    gauge(registry, "legacy.sync.last.batch.size", "Stores in the last batch", pipeline,
+        LegacyStoreSyncPipeline::getLastBatchSize);
+    millis(registry, "legacy.sync.last.batch.lag", "Queueing time of the last batch", pipeline,
+        LegacyStoreSyncPipeline::getLastBatchLagMillis);
+  }
+
+  private void bindStoreOutbox(MeterRegistry registry) {
+    var outbox = storeOutboxDispatcher;
+    gauge(registry, "store.outbox.pending", "Outbox entries waiting for delivery", outbox,
+        StoreOutboxDispatcher::getPendingCount);
+    millis(registry, "store.outbox.lag", "Age of the oldest pending entry", outbox,
+        StoreOutboxDispatcher::getLagMillis);
+    counter(registry, "store.outbox.delivered", "Outbox entries delivered", outbox,
+        StoreOutboxDispatcher::getDeliveredCount);
+    gauge(registry, "store.outbox.throughput", "Entries delivered per second, last minute",
+        outbox, StoreOutboxDispatcher::getThroughputPerSecond);
+    counter(registry, "store.outbox.failed.attempts", "Failed delivery attempts", outbox,
+        StoreOutboxDispatcher::getFailedAttemptCount);
+    counter(registry, "store.outbox.dead.lettered", "Entries out of attempts", outbox,
+        StoreOutboxDispatcher::getDeadLetterCount);
+    counter(registry, "store.outbox.parked", "Entries parked while the gateway was closed",
+        outbox, StoreOutboxDispatcher::getParkedCount);
+    counter(registry, "store.outbox.batches", "Delivery batches", outbox,
+        StoreOutboxDispatcher::getBatchCount);
+    gauge(registry, "store.outbox.last.batch.size", "Entries in the last batch", outbox,
+        StoreOutboxDispatcher::getLastBatchSize);
+    millis(registry, "store.outbox.last.delivery.lag", "Commit to delivery of the last batch",
+        outbox, StoreOutboxDispatcher::getLastDeliveryLagMillis);
+  }
+
+  private void bindLegacyGateway(MeterRegistry registry) {
+    var gateway = legacyGateway;
+    gauge(registry, "legacy.gateway.failure.rate", "Failed calls in the window, in percent",
+        gateway, ResilientLegacyStoreGateway::getFailureRatePercent);
+    counter(registry, "legacy.gateway.circuit.opened", "Times the circuit opened", gateway,
+        ResilientLegacyStoreGateway::getCircuitOpenCount);
+    counter(registry, "legacy.gateway.circuit.rejected", "Calls refused by the open circuit",
+        gateway, ResilientLegacyStoreGateway::getCircuitRejectedCount);
+    gauge(registry, "legacy.gateway.in.flight", "Calls in flight", gateway,
+        ResilientLegacyStoreGateway::getInFlightCount);
+    gauge(registry, "legacy.gateway.max.concurrent", "Bulkhead size", gateway,
+        ResilientLegacyStoreGateway::getMaxConcurrentCalls);
+    counter(registry, "legacy.gateway.bulkhead.rejected", "Calls refused by the bulkhead",
+        gateway, ResilientLegacyStoreGateway::getBulkheadRejectedCount);
+    counter(registry, "legacy.gateway.calls", "Calls made", gateway,
+        ResilientLegacyStoreGateway::getCallCount);
+    counter(registry, "legacy.gateway.succeeded", "Calls that succeeded", gateway,
+        ResilientLegacyStoreGateway::getSucceededCount);
+    counter(registry, "legacy.gateway.failed.attempts", "Attempts that failed", gateway,
+        ResilientLegacyStoreGateway::getFailedAttemptCount);
+    counter(registry, "legacy.gateway.timeouts", "Attempts that timed out", gateway,
+        ResilientLegacyStoreGateway::getTimeoutCount);
+    counter(registry, "legacy.gateway.retries", "Retried attempts", gateway,
+        ResilientLegacyStoreGateway::getRetryCount);
+    gauge(registry, "legacy.gateway.retry.budget", "Retries left in the budget", gateway,
+        ResilientLegacyStoreGateway::getRetryBudgetBalance);
+    counter(registry, "legacy.gateway.retry.budget.exhausted",
+        "Retries skipped for want of budget", gateway,
+        ResilientLegacyStoreGateway::getRetryBudgetExhaustedCount);
+    millis(registry, "legacy.gateway.last.latency", "Latency of the last call", gateway,
+        ResilientLegacyStoreGateway::getLastLatencyMillis);
+    millis(registry, "legacy.gateway.average.latency", "Average call latency", gateway,
+        ResilientLegacyStoreGateway::getAverageLatencyMillis);
+  }
+
+  private static <T> void gauge(
+      MeterRegistry registry,
+      String name,
+      String description,
+      T source,
+      ToDoubleFunction<T> value,
+      String... tags) {
+    Gauge.builder(name, source, value).description(description).tags(tags).register(registry);
+  }
+
+  private static <T> void millis(
+      MeterRegistry registry,
+      String name,
+      String description,
+      T source,
+      ToDoubleFunction<T> value) {
+    TimeGauge.builder(name, source, TimeUnit.MILLISECONDS, value)
+        .description(description)
+        .register(registry);
+  }
+
+  private static <T> void counter(
+      MeterRegistry registry,
+      String name,
+      String description,
+      T source,
+      ToDoubleFunction<T> value,
+      String... tags) {
+    FunctionCounter.builder(name, source, value)
+        .description(description)
+        .tags(tags)
+        .register(registry);
+  }
+}
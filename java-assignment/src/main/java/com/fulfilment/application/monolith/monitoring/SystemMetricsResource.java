@@ -2,19 +2,39 @@ package com.fulfilment.application.monolith.monitoring;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.common.persistence.AdaptivePoolSizeController;
+import com.fulfilment.application.monolith.common.persistence.JdbcPoolMonitor;
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.stores.ResilientLegacyStoreGateway;
 import com.sun.management.OperatingSystemMXBean;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import org.hibernate.SessionFactory;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import org.jboss.logging.Logger;
 
+/**
+ * JSON view of the meter registry for the monitoring page. The numbers are the values of the
+ * meters that /q/metrics exposes to Prometheus, read when requested; only descriptive values, such
+ * as the circuit state or the catalog source, come from the components themselves. Sizes are in
+ * bytes, durations in milliseconds and rates in percent.
+ */
 @Path("monitoring")
 @ApplicationScoped
 @Produces("application/json")
@@ -25,83 +45,119 @@ public class SystemMetricsResource {
 
   @Inject ObjectMapper objectMapper;
 
+  @Inject MeterRegistry registry;
+
+  @Inject LocationGateway locationGateway;
+
+  @Inject SessionFactory sessionFactory;
+
+  @Inject ResilientLegacyStoreGateway legacyGateway;
+
+
+  @Inject JdbcPoolMonitor poolMonitor;
+
+  @Inject AdaptivePoolSizeController poolSizeController;
+
   @GET
   @Path("metrics")
   public ObjectNode getSystemMetrics() {
     try {
       ObjectNode response = objectMapper.createObjectNode();
 
-      // Get CPU metrics
-      OperatingSystemMXBean osBean =
-          (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
-      double cpuUsage = osBean.getProcessCpuLoad() * 100;
-      double systemCpuUsage = osBean.getSystemCpuLoad() * 100;
-      int availableProcessors = osBean.getAvailableProcessors();
+      ObjectNode cpuNode = objectMapper.createObjectNode();
+      putNumber(cpuNode, "processUsage", value("process.cpu.usage") * 100);
+      putNumber(cpuNode, "systemUsage", value("system.cpu.usage") * 100);
+      put(cpuNode, "availableProcessors", "system.cpu.count");
+      response.set("cpu", cpuNode);
 
-      // Get Memory metrics
-      MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
-      long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
-      long heapMax = memoryBean.getHeapMemoryUsage().getMax();
-      long heapCommitted = memoryBean.getHeapMemoryUsage().getCommitted();
+      response.set("heapMemory", memoryNode("heap"));
+      response.set("nonHeapMemory", memoryNode("nonheap"));
+
+      ObjectNode threadNode = objectMapper.createObjectNode();
+      put(threadNode, "active", "jvm.threads.live");
+      put(threadNode, "peak", "jvm.threads.peak");
+      put(threadNode, "daemon", "jvm.threads.daemon");
+      put(threadNode, "totalStarted", "jvm.threads.started");
+      response.set("threads", threadNode);
 
-      long nonHeapUsed = memoryBean.getNonHeapMemoryUsage().getUsed();
-      long nonHeapMax = memoryBean.getNonHeapMemoryUsage().getMax();
+      response.set("gc", gcNode());
+      response.set("endpoints", endpointsNode());
 
-      // Runtime info
-      Runtime runtime = Runtime.getRuntime();
-      long totalMemory = runtime.totalMemory();
-      long freeMemory = runtime.freeMemory();
-      long maxMemory = runtime.maxMemory();
+      ObjectNode locationCatalogNode = objectMapper.createObjectNode();
+      put(locationCatalogNode, "size", "location.catalog.size");
+      locationCatalogNode.put("source", locationGateway.getCatalogSource());
+      locationCatalogNode.put(
+          "loadedAt", locationGateway.getCatalogLoadedAt().format(DateTimeFormatter.ISO_DATE_TIME));
+      putNumber(locationCatalogNode, "loadTimeMillis", millis("location.catalog.load.time"));
+      response.set("locationCatalog", locationCatalogNode);
 
-      // Thread metrics
-      int threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
-      int peakThreadCount = ManagementFactory.getThreadMXBean().getPeakThreadCount();
-      long totalStartedThreads = ManagementFactory.getThreadMXBean().getTotalStartedThreadCount();
+      ObjectNode lookupCacheNode = objectMapper.createObjectNode();
+      put(lookupCacheNode, "size", "warehouse.lookup.cache.size");
+      putRequests(lookupCacheNode, "warehouse.lookup.cache.requests");
+      put(lookupCacheNode, "evictions", "warehouse.lookup.cache.evictions");
+      put(lookupCacheNode, "invalidations", "warehouse.lookup.cache.invalidations");
+      response.set("warehouseLookupCache", lookupCacheNode);
 
-      // Build response
-      ObjectNode cpuNode = objectMapper.createObjectNode();
-      cpuNode.put("processUsage", String.format("%.2f%%", cpuUsage));
-      cpuNode.put("systemUsage", String.format("%.2f%%", systemCpuUsage));
-      cpuNode.put("availableProcessors", availableProcessors);
-      response.set("cpu", cpuNode);
+      response.set("secondLevelCache", secondLevelCacheNode());
+      response.set("connectionPool", connectionPoolNode());
 
-      ObjectNode heapNode = objectMapper.createObjectNode();
-      heapNode.put("used", formatBytes(heapUsed));
-      heapNode.put("usedBytes", heapUsed);
-      heapNode.put("max", formatBytes(heapMax));
-      heapNode.put("maxBytes", heapMax);
-      heapNode.put("committed", formatBytes(heapCommitted));
-      heapNode.put("committedBytes", heapCommitted);
-      heapNode.put("usagePercent", String.format("%.2f%%", (heapUsed * 100.0) / heapMax));
-      response.set("heapMemory", heapNode);
-
-      ObjectNode nonHeapNode = objectMapper.createObjectNode();
-      nonHeapNode.put("used", formatBytes(nonHeapUsed));
-      nonHeapNode.put("usedBytes", nonHeapUsed);
-      nonHeapNode.put("max", formatBytes(nonHeapMax));
-      nonHeapNode.put("maxBytes", nonHeapMax);
-      response.set("nonHeapMemory", nonHeapNode);
-
-      ObjectNode runtimeNode = objectMapper.createObjectNode();
-      runtimeNode.put("totalMemory", formatBytes(totalMemory));
-      runtimeNode.put("totalMemoryBytes", totalMemory);
-      runtimeNode.put("freeMemory", formatBytes(freeMemory));
-      runtimeNode.put("freeMemoryBytes", freeMemory);
-      runtimeNode.put("maxMemory", formatBytes(maxMemory));
-      runtimeNode.put("maxMemoryBytes", maxMemory);
-      runtimeNode.put("usedMemory", formatBytes(totalMemory - freeMemory));
-      runtimeNode.put("usedMemoryBytes", totalMemory - freeMemory);
-      response.set("runtime", runtimeNode);
+      ObjectNode topologyNode = objectMapper.createObjectNode();
+      put(topologyNode, "associations", "fulfillment.topology.associations");
+      put(topologyNode, "stores", "fulfillment.topology.stores");
+      put(topologyNode, "warehouses", "fulfillment.topology.warehouses");
+      put(topologyNode, "estimatedMemoryBytes", "fulfillment.topology.memory");
+      response.set("fulfillmentTopology", topologyNode);
 
-      ObjectNode threadNode = objectMapper.createObjectNode();
-      threadNode.put("active", threadCount);
-      threadNode.put("peak", peakThreadCount);
-      threadNode.put("totalStarted", totalStartedThreads);
-      response.set("threads", threadNode);
+      ObjectNode legacySyncNode = objectMapper.createObjectNode();
+      put(legacySyncNode, "queueDepth", "legacy.sync.queue.depth");
+      put(legacySyncNode, "capacity", "legacy.sync.queue.capacity");
+      put(legacySyncNode, "workers", "legacy.sync.workers");
+      put(legacySyncNode, "inFlightStores", "legacy.sync.in.flight.stores");
+      putNumber(legacySyncNode, "lagMillis", millis("legacy.sync.lag"));
+      put(legacySyncNode, "enqueued", "legacy.sync.enqueued");
+      put(legacySyncNode, "coalesced", "legacy.sync.coalesced");
+      put(legacySyncNode, "rejected", "legacy.sync.rejected");
+      put(legacySyncNode, "delivered", "legacy.sync.delivered");
+      put(legacySyncNode, "failed", "legacy.sync.failed");
+      put(legacySyncNode, "batches", "legacy.sync.batches");
+      put(legacySyncNode, "lastBatchSize", "legacy.sync.last.batch.size");
+      putNumber(legacySyncNode, "lastBatchLagMillis", millis("legacy.sync.last.batch.lag"));
+      response.set("legacyStoreSync", legacySyncNode);
 
-      response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+      ObjectNode outboxNode = objectMapper.createObjectNode();
+      put(outboxNode, "pending", "store.outbox.pending");
+      putNumber(outboxNode, "lagMillis", millis("store.outbox.lag"));
+      put(outboxNode, "delivered", "store.outbox.delivered");
+      put(outboxNode, "throughputPerSecond", "store.outbox.throughput");
+      put(outboxNode, "failedAttempts", "store.outbox.failed.attempts");
+      put(outboxNode, "deadLettered", "store.outbox.dead.lettered");
+      put(outboxNode, "parked", "store.outbox.parked");
+      put(outboxNode, "batches", "store.outbox.batches");
+      put(outboxNode, "lastBatchSize", "store.outbox.last.batch.size");
+      putNumber(outboxNode, "lastDeliveryLagMillis", millis("store.outbox.last.delivery.lag"));
+      response.set("storeOutbox", outboxNode);
+
+      ObjectNode legacyGatewayNode = objectMapper.createObjectNode();
+      legacyGatewayNode.put("circuitState", legacyGateway.getCircuitState());
+      put(legacyGatewayNode, "failureRate", "legacy.gateway.failure.rate");
+      put(legacyGatewayNode, "circuitOpened", "legacy.gateway.circuit.opened");
+      put(legacyGatewayNode, "circuitRejected", "legacy.gateway.circuit.rejected");
+      put(legacyGatewayNode, "inFlight", "legacy.gateway.in.flight");
+      put(legacyGatewayNode, "maxConcurrent", "legacy.gateway.max.concurrent");
+      put(legacyGatewayNode, "bulkheadRejected", "legacy.gateway.bulkhead.rejected");
+      put(legacyGatewayNode, "calls", "legacy.gateway.calls");
+      put(legacyGatewayNode, "succeeded", "legacy.gateway.succeeded");
+      put(legacyGatewayNode, "failedAttempts", "legacy.gateway.failed.attempts");
+      put(legacyGatewayNode, "timeouts", "legacy.gateway.timeouts");
+      put(legacyGatewayNode, "retries", "legacy.gateway.retries");
+      put(legacyGatewayNode, "retryBudget", "legacy.gateway.retry.budget");
+      put(legacyGatewayNode, "retryBudgetExhausted", "legacy.gateway.retry.budget.exhausted");
+      putNumber(legacyGatewayNode, "lastLatencyMillis", millis("legacy.gateway.last.latency"));
+      putNumber(
+          legacyGatewayNode, "averageLatencyMillis", millis("legacy.gateway.average.latency"));
+      response.set("legacyGateway", legacyGatewayNode);
 
-      LOGGER.info("System metrics retrieved successfully");
+      response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
       return response;
     } catch (Exception e) {
       LOGGER.error("Error retrieving system metrics", e);
@@ -146,11 +202,176 @@ public class SystemMetricsResource {
     return response;
   }
 
-  private String formatBytes(long bytes) {
-    if (bytes <= 0) return "0 B";
-    final String[] units = new String[]{"B", "KB", "MB", "GB", "TB"};
-    int digitGroups = (int) (Math.log10(bytes) / Math.log10(1024));
-    return String.format("%.2f %s", bytes / Math.pow(1024, digitGroups), units[digitGroups]);
+  private ObjectNode memoryNode(String area) {
+    ObjectNode memoryNode = objectMapper.createObjectNode();
+    double used = sum("jvm.memory.used", "area", area);
+    double max = sum("jvm.memory.max", "area", area);
+    putNumber(memoryNode, "used", used);
+    putNumber(memoryNode, "committed", sum("jvm.memory.committed", "area", area));
+    putNumber(memoryNode, "max", max);
+    putNumber(memoryNode, "usagePercent", max > 0 ? used * 100 / max : 0);
+    return memoryNode;
+  }
+
+  private ObjectNode gcNode() {
+    long pauses = 0;
+    double pauseMillis = 0;
+    double maxPauseMillis = 0;
+    for (Timer pause : registry.find("jvm.gc.pause").timers()) {
+      pauses += pause.count();
+      pauseMillis += pause.totalTime(TimeUnit.MILLISECONDS);
+      maxPauseMillis = Math.max(maxPauseMillis, pause.max(TimeUnit.MILLISECONDS));
+    }
+    ObjectNode gcNode = objectMapper.createObjectNode();
+    gcNode.put("pauses", pauses);
+    putNumber(gcNode, "pauseTotalMillis", pauseMillis);
+    putNumber(gcNode, "pauseMaxMillis", maxPauseMillis);
+    put(gcNode, "allocatedBytes", "jvm.gc.memory.allocated");
+    put(gcNode, "promotedBytes", "jvm.gc.memory.promoted");
+    put(gcNode, "liveDataBytes", "jvm.gc.live.data.size");
+    put(gcNode, "maxDataBytes", "jvm.gc.max.data.size");
+    return gcNode;
+  }
+
+  // One entry per method and path, over all response statuses
+  private ObjectNode endpointsNode() {
+    Map<String, double[]> endpoints = new TreeMap<>();
+    for (Timer requests : registry.find("http.server.requests").timers()) {
+      String endpoint = requests.getId().getTag("method") + " " + requests.getId().getTag("uri");
+      double[] totals = endpoints.computeIfAbsent(endpoint, key -> new double[3]);
+      totals[0] += requests.count();
+      totals[1] += requests.totalTime(TimeUnit.MILLISECONDS);
+      totals[2] = Math.max(totals[2], requests.max(TimeUnit.MILLISECONDS));
+    }
+    ObjectNode endpointsNode = objectMapper.createObjectNode();
+    endpoints.forEach(
+        (endpoint, totals) -> {
+          ObjectNode endpointNode = objectMapper.createObjectNode();
+          putNumber(endpointNode, "count", totals[0]);
+          putNumber(endpointNode, "meanMillis", totals[0] == 0 ? 0 : totals[1] / totals[0]);
+          putNumber(endpointNode, "maxMillis", totals[2]);
+          endpointsNode.set(endpoint, endpointNode);
+        });
+    return endpointsNode;
+  }
+
+  private ObjectNode secondLevelCacheNode() {
+    ObjectNode cacheNode = objectMapper.createObjectNode();
+    cacheNode.put("statisticsEnabled", sessionFactory.getStatistics().isStatisticsEnabled());
+    putRequests(cacheNode, "orm.second.level.cache.requests");
+    put(cacheNode, "puts", "orm.second.level.cache.puts");
+    put(cacheNode, "entityLoads", "orm.entity.loads");
+    put(cacheNode, "preparedStatements", "orm.statements.prepared");
+
+    ObjectNode queryCacheNode = objectMapper.createObjectNode();
+    putRequests(queryCacheNode, "orm.query.cache.requests");
+    put(queryCacheNode, "puts", "orm.query.cache.puts");
+    cacheNode.set("queryCache", queryCacheNode);
+
+    ObjectNode regionsNode = objectMapper.createObjectNode();
+    for (Meter puts : registry.find("orm.cache.region.puts").meters()) {
+      String region = puts.getId().getTag("region");
+      ObjectNode regionNode = objectMapper.createObjectNode();
+      putRequests(regionNode, "orm.cache.region.requests", "region", region);
+      putNumber(regionNode, "puts", first(puts));
+      put(regionNode, "elements", "orm.cache.region.elements", "region", region);
+      regionsNode.set(region, regionNode);
+    }
+    cacheNode.set("regions", regionsNode);
+    return cacheNode;
+  }
+
+  private ObjectNode connectionPoolNode() {
+    ObjectNode poolNode = objectMapper.createObjectNode();
+    put(poolNode, "active", "jdbc.pool.connections", "state", "active");
+    put(poolNode, "idle", "jdbc.pool.connections", "state", "idle");
+    put(poolNode, "pending", "jdbc.pool.connections", "state", "pending");
+    poolNode.put("minSize", poolMonitor.getMinSize());
+    put(poolNode, "maxSize", "jdbc.pool.max.size");
+    put(poolNode, "maxUsed", "jdbc.pool.max.used");
+    put(poolNode, "acquired", "jdbc.pool.acquires");
+    put(poolNode, "leaks", "jdbc.pool.leaks");
+
+    ObjectNode waitNode = objectMapper.createObjectNode();
+    Timer waits = registry.find(JdbcPoolMonitor.ACQUIRE_WAIT).timer();
+    if (waits != null) {
+      waitNode.put("count", waits.count());
+      putNumber(waitNode, "meanMillis", waits.mean(TimeUnit.MILLISECONDS));
+      putNumber(waitNode, "maxMillis", waits.max(TimeUnit.MILLISECONDS));
+    }
+    poolMonitor
+        .getWaitPercentilesMillis()
+        .forEach((percentile, millis) -> putNumber(waitNode, percentile, millis));
+    ObjectNode histogramNode = objectMapper.createObjectNode();
+    poolMonitor.getWaitHistogram().forEach(histogramNode::put);
+    waitNode.set("histogram", histogramNode);
+    poolNode.set("acquireWait", waitNode);
+
+    ObjectNode adaptiveNode = objectMapper.createObjectNode();
+    adaptiveNode.put("enabled", poolSizeController.isEnabled());
+    adaptiveNode.put("minSize", poolSizeController.getMinSize());
+    adaptiveNode.put("maxSize", poolSizeController.getMaxSize());
+    adaptiveNode.put("resizes", poolSizeController.getResizeCount());
+    putNumber(adaptiveNode, "lastLatencyMillis", poolSizeController.getLastLatencyMillis());
+    poolNode.set("adaptiveSizing", adaptiveNode);
+    return poolNode;
+  }
+
+  // Hits and misses of a counter tagged result=hit|miss, and the hit ratio
+  private void putRequests(ObjectNode node, String name, String... tags) {
+    double hits = value(name, withTag(tags, "result", ApplicationMeterBinder.HIT));
+    double misses = value(name, withTag(tags, "result", ApplicationMeterBinder.MISS));
+    putNumber(node, "hits", hits);
+    putNumber(node, "misses", misses);
+    double requests = hits + misses;
+    putNumber(node, "hitRatio", requests == 0 ? 0 : hits * 100 / requests);
+  }
+
+  private void put(ObjectNode node, String key, String name, String... tags) {
+    putNumber(node, key, value(name, tags));
   }
-}
 
+  // Whole numbers as integers, the rest to two decimals
+  private static void putNumber(ObjectNode node, String key, double value) {
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      node.put(key, (long) value);
+    } else {
+      node.put(key, Math.round(value * 100) / 100.0);
+    }
+  }
+
+  /** The value of a gauge or the count of a counter; zero when there is no such meter. */
+  private double value(String name, String... tags) {
+    Meter meter = registry.find(name).tags(tags).meter();
+    return meter == null ? 0 : first(meter);
+  }
+
+  // e.g. over the memory pools of an area; pools without a maximum report -1 and count as 0
+  private double sum(String name, String... tags) {
+    double total = 0;
+    for (Meter meter : registry.find(name).tags(tags).meters()) {
+      total += Math.max(0, first(meter));
+    }
+    return total;
+  }
+
+  private double millis(String name) {
+    TimeGauge gauge = registry.find(name).timeGauge();
+    return gauge == null ? 0 : gauge.value(TimeUnit.MILLISECONDS);
+  }
+
+  private static double first(Meter meter) {
+    for (Measurement measurement : meter.measure()) {
+      double value = measurement.getValue();
+      return Double.isNaN(value) ? 0 : value;
+    }
+    return 0;
+  }
+
+  private static String[] withTag(String[] tags, String key, String value) {
+    String[] all = Arrays.copyOf(tags, tags.length + 2);
+    all[tags.length] = key;
+    all[tags.length + 1] = value;
+    return all;
+  }
+}
@@ -2,8 +2,23 @@ package com.fulfilment.application.monolith.products;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 @ApplicationScoped
 public class ProductRepository implements PanacheRepository<Product> {
     public ProductRepository() {}
+
+    /** Returns those of the given ids that belong to a product. */
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(
+            getEntityManager()
+                .createQuery("select p.id from Product p where p.id in ?1", Long.class)
+                .setParameter(1, ids)
+                .getResultList());
+    }
 }
@@ -3,6 +3,8 @@ package com.fulfilment.application.monolith.products;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -28,11 +30,24 @@ public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
+  @Inject ReactiveProductRepository reactiveProducts;
+
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
+  // Keeps the listing in the Hibernate query cache until a product is written
+  private static final String QUERY_CACHEABLE_HINT = "org.hibernate.cacheable";
+
+  // Blocking, as the jdbc read mode queries through Hibernate on the calling thread
   @GET
-  public List<Product> get() {
-    return productRepository.listAll(Sort.by("name"));
+  @Blocking
+  public Uni<List<Product>> get() {
+    if (reactiveProducts.isEnabled()) {
+      // the worker thread is released while the query runs
+      return reactiveProducts.listAllByName();
+    }
+    return Uni.createFrom()
+        .item(
+            productRepository.findAll(Sort.by("name")).withHint(QUERY_CACHEABLE_HINT, true).list());
   }
 
   @GET
@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.common.persistence.ReactiveReadPool;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads products on the reactive SQL client. The products are not managed by Hibernate, so they
+ * must not be modified and persisted.
+ */
+@ApplicationScoped
+public class ReactiveProductRepository {
+
+  private static final String COLUMNS = "select id, name, description, price, stock from product";
+
+  private final ReactiveReadPool readPool;
+
+  @Inject
+  public ReactiveProductRepository(ReactiveReadPool readPool) {
+    this.readPool = readPool;
+  }
+
+  /** Whether the read endpoints should use this repository rather than Panache. */
+  public boolean isEnabled() {
+    return readPool.isEnabled();
+  }
+
+  public Uni<List<Product>> listAllByName() {
+    return list(COLUMNS + " order by name", Tuple.tuple());
+  }
+
+  private Uni<List<Product>> list(String sql, Tuple parameters) {
+    return readPool.pool().preparedQuery(sql).execute(parameters).map(this::toProducts);
+  }
+
+  private List<Product> toProducts(RowSet<Row> rows) {
+    List<Product> products = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      var product = new Product(row.getString(1));
+      product.id = row.getLong(0);
+      product.description = row.getString(2);
+      product.price = row.getBigDecimal(3);
+      product.stock = row.getInteger(4);
+      products.add(product);
+    }
+    return products;
+  }
+}
@@ -0,0 +1,168 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Failure-rate circuit breaker over the outcomes of the last {@code windowSize} legacy calls.
+ * Once at least {@code minimumCalls} outcomes are recorded and {@code failureRatePercent} of them
+ * failed, the breaker opens and rejects calls for {@code openNanos}. It then lets a single trial
+ * call through: success closes it, failure opens it again.
+ */
+final class LegacyCircuitBreaker {
+
+  enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final int windowSize;
+
+  private final int minimumCalls;
+
+  private final int failureRatePercent;
+
+  private final long openNanos;
+
+  private final LongSupplier clock;
+
+  // outcome ring: true for a failure
+  private final boolean[] outcomes;
+
+  private final AtomicLong openings = new AtomicLong();
+
+  private final AtomicLong rejections = new AtomicLong();
+
+  // guarded by this
+  private State state = State.CLOSED;
+  private int recorded;
+  private int next;
+  private int failures;
+  private long openedAt;
+  private boolean trialInFlight;
+
+  LegacyCircuitBreaker(
+      int windowSize,
+      int minimumCalls,
+      int failureRatePercent,
+      long openNanos,
+      LongSupplier clock) {
+    if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+      throw new IllegalArgumentException("Circuit breaker needs 1 <= minimum calls <= window size");
+    }
+    this.windowSize = windowSize;
+    this.minimumCalls = minimumCalls;
+    this.failureRatePercent = failureRatePercent;
+    this.openNanos = openNanos;
+    this.clock = clock;
+    this.outcomes = new boolean[windowSize];
+  }
+
+  /**
+   * Asks to make a call. A caller that gets true must report the outcome with
+   * {@link #onSuccess()} or {@link #onFailure()}, or {@link #onAbandoned()} if it did not call.
+   */
+  synchronized boolean tryAcquire() {
+    if (state == State.OPEN) {
+      if (clock.getAsLong() - openedAt < openNanos) {
+        rejections.incrementAndGet();
+        return false;
+      }
+      state = State.HALF_OPEN;
+      trialInFlight = false;
+    }
+    if (state == State.HALF_OPEN) {
+      if (trialInFlight) {
+        rejections.incrementAndGet();
+        return false;
+      }
+      trialInFlight = true;
+    }
+    return true;
+  }
+
+  synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      close();
+      return;
+    }
+    record(false);
+  }
+
+  synchronized void onFailure() {
+    if (state == State.HALF_OPEN) {
+      open();
+      return;
+    }
+    record(true);
+    if (state == State.CLOSED
+        && recorded >= minimumCalls
+        && failures * 100 >= failureRatePercent * recorded) {
+      open();
+    }
+  }
+
+  /** Gives back a permission that did not lead to a call. */
+  synchronized void onAbandoned() {
+    if (state == State.HALF_OPEN) {
+      trialInFlight = false;
+    }
+  }
+
+  /** Whether a call would currently be let through, without asking for it. */
+  synchronized boolean isCallPermitted() {
+    return switch (state) {
+      case CLOSED -> true;
+      case OPEN -> clock.getAsLong() - openedAt >= openNanos;
+      case HALF_OPEN -> !trialInFlight;
+    };
+  }
+
+  synchronized State getState() {
+    return state;
+  }
+
+  /** Failure rate of the recorded window, in percent. */
+  synchronized double getFailureRatePercent() {
+    return recorded == 0 ? 0 : failures * 100.0 / recorded;
+  }
+
+  long getOpenCount() {
+    return openings.get();
+  }
+
+  long getRejectedCount() {
+    return rejections.get();
+  }
+
+  private void record(boolean failure) {
+    if (recorded == windowSize) {
+      if (outcomes[next]) {
+        failures--;
+      }
+    } else {
+      recorded++;
+    }
+    outcomes[next] = failure;
+    if (failure) {
+      failures++;
+    }
+    next = (next + 1) % windowSize;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = clock.getAsLong();
+    trialInFlight = false;
+    openings.incrementAndGet();
+  }
+
+  private void close() {
+    state = State.CLOSED;
+    trialInFlight = false;
+    recorded = 0;
+    next = 0;
+    failures = 0;
+  }
+}
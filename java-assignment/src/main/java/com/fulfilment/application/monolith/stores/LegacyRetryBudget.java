@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries across all legacy calls to a share of the first attempts. Every first attempt
+ * deposits {@code ratio} of a retry and every retry withdraws a whole one, so during an outage
+ * retries add at most {@code ratio} to the load on the legacy system instead of multiplying it.
+ * The balance starts at, and never exceeds, {@code maxBalance} retries.
+ */
+final class LegacyRetryBudget {
+
+  private final double ratio;
+
+  private final double maxBalance;
+
+  private final AtomicLong exhausted = new AtomicLong();
+
+  // guarded by this
+  private double balance;
+
+  LegacyRetryBudget(double ratio, int maxBalance) {
+    this.ratio = ratio;
+    this.maxBalance = maxBalance;
+    this.balance = maxBalance;
+  }
+
+  synchronized void onFirstAttempt() {
+    balance = Math.min(maxBalance, balance + ratio);
+  }
+
+  /** Withdraws one retry, or returns false when the budget is used up. */
+  synchronized boolean tryWithdraw() {
+    if (balance < 1) {
+      exhausted.incrementAndGet();
+      return false;
+    }
+    balance -= 1;
+    return true;
+  }
+
+  synchronized double getBalance() {
+    return balance;
+  }
+
+  long getExhaustedCount() {
+    return exhausted.get();
+  }
+}
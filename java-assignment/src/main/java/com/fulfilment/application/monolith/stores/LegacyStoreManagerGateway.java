@@ -1,16 +1,63 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.stores.legacy.LegacyExportLog;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+/**
+ * Hands store changes to the legacy store manager. In the default {@code temp-file} mode every
+ * exchange is emulated with a temp file; in {@code segment-log} mode changes are appended to the
+ * {@link LegacyExportLog}, which the legacy bridge tails; in {@code http} mode they are posted as
+ * JSON lines to {@code store.legacy-export.url}.
+ */
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreManagerGateway.class.getName());
+
+  static final String SEGMENT_LOG_MODE = "segment-log";
+
+  static final String HTTP_MODE = "http";
+
+  @Inject LegacyExportLog exportLog;
+
+  @Inject ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "store.legacy-export.mode", defaultValue = "temp-file")
+  String exportMode = "temp-file";
+
+  @ConfigProperty(name = "store.legacy-export.url")
+  Optional<String> legacyUrl = Optional.empty();
+
+  @ConfigProperty(name = "store.legacy-export.http-timeout", defaultValue = "5s")
+  Duration httpTimeout = Duration.ofSeconds(5);
+
+  private HttpClient httpClient;
+
   public void createStoreOnLegacySystem(Store store) {
     if (store == null) {
       throw new IllegalArgumentException("Store cannot be null");
     }
+    if (isExporting()) {
+      export(List.of(new StoreEvent(store, StoreEvent.EventType.CREATED)));
+      return;
+    }
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
     writeToFile(store);
   }
@@ -19,39 +66,127 @@ public class LegacyStoreManagerGateway {
     if (store == null) {
       throw new IllegalArgumentException("Store cannot be null");
     }
+    if (isExporting()) {
+      export(List.of(new StoreEvent(store, StoreEvent.EventType.UPDATED)));
+      return;
+    }
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
     writeToFile(store);
   }
 
-  protected void writeToFile(Store store) {
+  /**
+   * Sends several store changes to the legacy system in one exchange.
+   *
+   * @param events the committed changes, at most one per store
+   */
+  public void syncStoresOnLegacySystem(List<StoreEvent> events) {
+    if (events == null || events.isEmpty()) {
+      throw new IllegalArgumentException("Events cannot be empty");
+    }
+    if (isExporting()) {
+      export(events);
+      return;
+    }
+    // emulated like the single-store calls, with one line per store in a single temp file
+    var content = new StringBuilder();
+    for (StoreEvent event : events) {
+      boolean created = event.getEventType() == StoreEvent.EventType.CREATED;
+      content
+          .append(created ? "Store created." : "Store updated.")
+          .append(describe(event.getSnapshot()))
+          .append('\n');
+    }
+    writeToFile("stores-batch", content.toString());
+  }
+
+  private boolean isExporting() {
+    return SEGMENT_LOG_MODE.equals(exportMode) || HTTP_MODE.equals(exportMode);
+  }
+
+  private void export(List<StoreEvent> events) {
+    if (SEGMENT_LOG_MODE.equals(exportMode)) {
+      exportLog.append(events);
+    } else {
+      post(events);
+    }
+  }
+
+  // One JSON object per line; anything but a 2xx answer is a failed exchange
+  private void post(List<StoreEvent> events) {
+    var url =
+        legacyUrl.orElseThrow(
+            () -> new IllegalStateException("store.legacy-export.url is not configured"));
+    var body = new StringBuilder();
     try {
-      // Step 1: Create a temporary file
-      Path tempFile;
+      for (StoreEvent event : events) {
+        StoreSnapshot store = event.getSnapshot();
+        var line = objectMapper.createObjectNode();
+        line.put("type", event.getEventType().name());
+        line.put("id", store.id());
+        line.put("version", store.version());
+        line.put("name", store.name());
+        line.put("quantityProductsInStock", store.quantityProductsInStock());
+        body.append(objectMapper.writeValueAsString(line)).append('\n');
+      }
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to encode store changes", e);
+    }
+    var request =
+        HttpRequest.newBuilder(URI.create(url))
+            .timeout(httpTimeout)
+            .header("Content-Type", "application/x-ndjson")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+            .build();
+    HttpResponse<Void> response;
+    try {
+      response = httpClient().send(request, HttpResponse.BodyHandlers.discarding());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while posting to the legacy store manager");
+    }
+    if (response.statusCode() / 100 != 2) {
+      throw new IllegalStateException(
+          "Legacy store manager answered " + response.statusCode() + " to " + url);
+    }
+  }
 
-      tempFile = Files.createTempFile(store.name, ".txt");
+  private synchronized HttpClient httpClient() {
+    if (httpClient == null) {
+      httpClient = HttpClient.newBuilder().connectTimeout(httpTimeout).build();
+    }
+    return httpClient;
+  }
 
-      System.out.println("Temporary file created at: " + tempFile.toString());
+  protected void writeToFile(Store store) {
+    writeToFile(store.name, "Store created." + describe(StoreSnapshot.of(store)));
+  }
+
+  private void writeToFile(String prefix, String content) {
+    try {
+      // Step 1: Create a temporary file
+      Path tempFile = Files.createTempFile(prefix, ".txt");
+      LOGGER.debug("Temporary file created at: " + tempFile);
 
       // Step 2: Write data to the temporary file
-      String content =
-          "Store created. [ name ="
-              + store.name
-              + " ] [ items on stock ="
-              + store.quantityProductsInStock
-              + "]";
-      Files.write(tempFile, content.getBytes());
-      System.out.println("Data written to temporary file.");
+      Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
 
       // Step 3: Optionally, read the data back to verify
-      String readContent = new String(Files.readAllBytes(tempFile));
-      System.out.println("Data read from temporary file: " + readContent);
+      String readContent = Files.readString(tempFile, StandardCharsets.UTF_8);
+      LOGGER.debug("Data read from temporary file: " + readContent);
 
       // Step 4: Delete the temporary file when done
       Files.delete(tempFile);
-      System.out.println("Temporary file deleted.");
 
-    } catch (Exception e) {
-      e.printStackTrace();
+    } catch (IOException e) {
+      // rethrown, so the outbox keeps the entries for another attempt
+      throw new UncheckedIOException("Failed to write legacy store file", e);
     }
   }
+
+  private static String describe(StoreSnapshot store) {
+    return " [ name =" + store.name() + " ] [ items on stock =" + store.quantityProductsInStock()
+        + "]";
+  }
 }
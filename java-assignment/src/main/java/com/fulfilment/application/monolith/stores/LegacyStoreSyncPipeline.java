@@ -0,0 +1,386 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Bounded, coalescing bus between committed store changes and the legacy store manager. Changes
+ * are queued per store and held for a coalescing {@code window}: a newer snapshot of a store
+ * replaces the queued one, and an older one is dropped, so a burst of updates to one store ends up
+ * as a single delivery. Once its window has passed, a store is handed to one of {@code workers}
+ * workers, which have {@link StoreOutboxDispatcher} deliver its outbox entries in batches. A store
+ * is never with two workers at once, so its changes reach the legacy system in order, while
+ * different stores are delivered in parallel. Request threads only enqueue, so their latency no
+ * longer includes legacy I/O.
+ *
+ * <p>When the queue holds {@code capacity} stores, producers wait up to {@code offer-timeout} for
+ * the workers to make room; a change that still does not fit is left to the outbox poll and
+ * counted as rejected.
+ */
+@ApplicationScoped
+public class LegacyStoreSyncPipeline {
+
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreSyncPipeline.class.getName());
+
+  private final StoreOutboxDispatcher outboxDispatcher;
+
+  private final int capacity;
+
+  private final int batchSize;
+
+  private final long windowNanos;
+
+  private final long offerTimeoutNanos;
+
+  private final int workerCount;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // signalled when a store is queued or a worker hands its stores back
+  private final Condition changed = lock.newCondition();
+
+  private final Condition notFull = lock.newCondition();
+
+  // latest queued snapshot of each store, in the order the stores were first queued
+  private final LinkedHashMap<Long, QueuedStore> pending = new LinkedHashMap<>();
+
+  // stores a worker is delivering; their newer changes wait in pending until it is done
+  private final Set<Long> inFlight = new HashSet<>();
+
+  private final AtomicLong enqueued = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private volatile int lastBatchSize;
+  private volatile long lastBatchLagMillis;
+
+  private volatile boolean running;
+
+  private final List<Thread> workers = new ArrayList<>();
+
+  private static final class QueuedStore {
+    final long queuedAt;
+    StoreSnapshot snapshot;
+
+    QueuedStore(long queuedAt, StoreSnapshot snapshot) {
+      this.queuedAt = queuedAt;
+      this.snapshot = snapshot;
+    }
+  }
+
+  @Inject
+  public LegacyStoreSyncPipeline(
+      StoreOutboxDispatcher outboxDispatcher,
+      @ConfigProperty(name = "store.legacy-sync.capacity", defaultValue = "10000") int capacity,
+      @ConfigProperty(name = "store.legacy-sync.batch-size", defaultValue = "100") int batchSize,
+      @ConfigProperty(name = "store.legacy-sync.window", defaultValue = "50ms") Duration window,
+      @ConfigProperty(name = "store.legacy-sync.offer-timeout", defaultValue = "5s")
+          Duration offerTimeout,
+      @ConfigProperty(name = "store.legacy-sync.workers", defaultValue = "4") int workerCount) {
+    this.outboxDispatcher = outboxDispatcher;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.windowNanos = window.toNanos();
+    this.offerTimeoutNanos = offerTimeout.toNanos();
+    this.workerCount = workerCount;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    start();
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    stop();
+  }
+
+  /** Starts the workers that send queued changes to the legacy system. */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    for (int i = 1; i <= workerCount; i++) {
+      var worker = new Thread(this::run, "legacy-store-sync-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+  }
+
+  /** Stops the workers and sends whatever is still queued. */
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    lock.lock();
+    try {
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    for (Thread worker : workers) {
+      try {
+        worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    workers.clear();
+    while (flushBatch() > 0) {
+      // drain the rest on the stopping thread
+    }
+  }
+
+  /**
+   * Queues the delivery of a committed store change. The change itself is read from the outbox
+   * when delivered, so a store already queued needs no second entry; its snapshot is only kept to
+   * tell newer changes from stale ones.
+   *
+   * @param event the committed change
+   */
+  public void enqueue(StoreEvent event) {
+    Long storeId = event.getStoreId();
+    long now = System.nanoTime();
+    lock.lock();
+    try {
+      var queued = pending.get(storeId);
+      if (queued != null) {
+        if (event.getSnapshot().supersedes(queued.snapshot)) {
+          queued.snapshot = event.getSnapshot();
+        }
+        coalesced.incrementAndGet();
+        return;
+      }
+
+      long remaining = offerTimeoutNanos;
+      while (pending.size() >= capacity) {
+        if (remaining <= 0) {
+          rejected.incrementAndGet();
+          LOGGER.warn(
+              "Legacy store sync queue is full, leaving store " + storeId + " to the outbox poll");
+          return;
+        }
+        remaining = notFull.awaitNanos(remaining);
+      }
+      pending.put(storeId, new QueuedStore(now, event.getSnapshot()));
+      enqueued.incrementAndGet();
+      changed.signal();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      rejected.incrementAndGet();
+      LOGGER.warn("Interrupted while queueing the legacy sync of store " + storeId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Delivers the outbox entries of up to one batch of queued stores, whether or not their window
+   * has passed.
+   *
+   * @return the number of stores taken from the queue
+   */
+  int flushBatch() {
+    List<Long> batch;
+    long oldestQueuedAt;
+    lock.lock();
+    try {
+      oldestQueuedAt = oldestQueuedAt();
+      batch = takeBatch(0);
+    } finally {
+      lock.unlock();
+    }
+    deliver(batch, oldestQueuedAt);
+    return batch.size();
+  }
+
+  public int getQueueDepth() {
+    lock.lock();
+    try {
+      return pending.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Age in milliseconds of the oldest change still queued, 0 when the queue is empty. */
+  public long getLagMillis() {
+    lock.lock();
+    try {
+      if (pending.isEmpty()) {
+        return 0;
+      }
+      return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestQueuedAt());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getEnqueuedCount() {
+    return enqueued.get();
+  }
+
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  public long getDeliveredCount() {
+    return delivered.get();
+  }
+
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  public long getBatchCount() {
+    return batches.get();
+  }
+
+  public int getLastBatchSize() {
+    return lastBatchSize;
+  }
+
+  public long getLastBatchLagMillis() {
+    return lastBatchLagMillis;
+  }
+
+  public int getWorkerCount() {
+    return workerCount;
+  }
+
+  public int getInFlightStoreCount() {
+    lock.lock();
+    try {
+      return inFlight.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        List<Long> batch;
+        long oldestQueuedAt;
+        lock.lock();
+        try {
+          oldestQueuedAt = awaitReadyStores();
+          batch = takeBatch(windowNanos);
+        } finally {
+          lock.unlock();
+        }
+        deliver(batch, oldestQueuedAt);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        LOGGER.error("Legacy store sync worker failed", e);
+      }
+    }
+  }
+
+  // Waits until a store that no worker holds has been queued for a whole window
+  private long awaitReadyStores() throws InterruptedException {
+    while (running) {
+      long wait = Long.MAX_VALUE;
+      long now = System.nanoTime();
+      for (var entry : pending.entrySet()) {
+        if (inFlight.contains(entry.getKey())) {
+          continue;
+        }
+        long age = now - entry.getValue().queuedAt;
+        if (age >= windowNanos) {
+          return entry.getValue().queuedAt;
+        }
+        // stores are in queueing order, so this is the next one to come of age
+        wait = windowNanos - age;
+        break;
+      }
+      if (wait == Long.MAX_VALUE) {
+        changed.await();
+      } else {
+        changed.awaitNanos(wait);
+      }
+    }
+    return 0;
+  }
+
+  // Takes up to a batch of the stores queued at least minAgeNanos ago that no worker holds
+  private List<Long> takeBatch(long minAgeNanos) {
+    List<Long> batch = new ArrayList<>(batchSize);
+    long now = System.nanoTime();
+    var entries = pending.entrySet().iterator();
+    while (entries.hasNext() && batch.size() < batchSize) {
+      var entry = entries.next();
+      if (now - entry.getValue().queuedAt < minAgeNanos) {
+        break;
+      }
+      if (inFlight.contains(entry.getKey())) {
+        continue;
+      }
+      batch.add(entry.getKey());
+      inFlight.add(entry.getKey());
+      entries.remove();
+    }
+    if (!batch.isEmpty()) {
+      notFull.signalAll();
+    }
+    return batch;
+  }
+
+  private long oldestQueuedAt() {
+    return pending.isEmpty() ? 0 : pending.values().iterator().next().queuedAt;
+  }
+
+  private void deliver(List<Long> batch, long oldestQueuedAt) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    lastBatchLagMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestQueuedAt);
+    lastBatchSize = batch.size();
+    batches.incrementAndGet();
+    try {
+      delivered.addAndGet(outboxDispatcher.dispatchStores(batch));
+    } catch (Exception e) {
+      // The outbox entries stay pending and the next poll retries them
+      failed.addAndGet(batch.size());
+      LOGGER.error("Failed to sync " + batch.size() + " stores to the legacy system", e);
+    } finally {
+      lock.lock();
+      try {
+        batch.forEach(inFlight::remove);
+        changed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
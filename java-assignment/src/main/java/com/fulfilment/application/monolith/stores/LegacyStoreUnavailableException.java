@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.stores;
+
+/**
+ * Thrown when a legacy call is not attempted at all, because the circuit breaker is open or the
+ * bulkhead is full. The changes were not sent and can be offered again later as they are.
+ */
+public class LegacyStoreUnavailableException extends RuntimeException {
+
+  public LegacyStoreUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,53 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.common.persistence.ReactiveReadPool;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads stores on the reactive SQL client. The stores are not managed by Hibernate, so they must
+ * not be modified and persisted.
+ */
+@ApplicationScoped
+public class ReactiveStoreRepository {
+
+  private static final String COLUMNS =
+      "select id, name, quantityProductsInStock, version from store";
+
+  private final ReactiveReadPool readPool;
+
+  @Inject
+  public ReactiveStoreRepository(ReactiveReadPool readPool) {
+    this.readPool = readPool;
+  }
+
+  /** Whether the read endpoints should use this repository rather than Panache. */
+  public boolean isEnabled() {
+    return readPool.isEnabled();
+  }
+
+  public Uni<List<Store>> listAllByName() {
+    return list(COLUMNS + " order by name", Tuple.tuple());
+  }
+
+  private Uni<List<Store>> list(String sql, Tuple parameters) {
+    return readPool.pool().preparedQuery(sql).execute(parameters).map(this::toStores);
+  }
+
+  private List<Store> toStores(RowSet<Row> rows) {
+    List<Store> stores = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      var store = new Store(row.getString(1), row.getInteger(2));
+      store.id = row.getLong(0);
+      store.version = row.getLong(3);
+      stores.add(store);
+    }
+    return stores;
+  }
+}
@@ -0,0 +1,329 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Guards the calls to {@link LegacyStoreManagerGateway} so that a slow or failing legacy store
+ * manager cannot hold up the application:
+ *
+ * <ul>
+ *   <li>a bulkhead caps the calls in flight; a caller waits at most {@code bulkhead.max-wait} for
+ *       a slot,
+ *   <li>every call runs on a legacy call thread and is abandoned after {@code timeout},
+ *   <li>failed calls are retried with exponential backoff and jitter, as long as the shared
+ *       {@link LegacyRetryBudget} allows,
+ *   <li>a {@link LegacyCircuitBreaker} stops calling once too many calls fail.
+ * </ul>
+ *
+ * <p>A change that is not attempted because the breaker is open or the bulkhead is full fails with
+ * {@link LegacyStoreUnavailableException}; {@link StoreOutboxDispatcher} then leaves it pending in
+ * the outbox, which serves as the durable retry queue.
+ */
+@ApplicationScoped
+public class ResilientLegacyStoreGateway {
+
+  private static final Logger LOGGER =
+      Logger.getLogger(ResilientLegacyStoreGateway.class.getName());
+
+  private final LegacyStoreManagerGateway legacyStoreManagerGateway;
+
+  private final int maxConcurrentCalls;
+
+  private final long bulkheadMaxWaitNanos;
+
+  private final long timeoutNanos;
+
+  private final int maxAttempts;
+
+  private final long initialBackoffNanos;
+
+  private final long maxBackoffNanos;
+
+  private final Semaphore bulkhead;
+
+  private final LegacyRetryBudget retryBudget;
+
+  private final LegacyCircuitBreaker circuitBreaker;
+
+  private final ExecutorService callExecutor;
+
+  private final AtomicInteger threadCount = new AtomicInteger();
+
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong succeeded = new AtomicLong();
+  private final AtomicLong failedAttempts = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong bulkheadRejections = new AtomicLong();
+  private final AtomicLong totalLatencyMillis = new AtomicLong();
+  private volatile long lastLatencyMillis;
+
+  @Inject
+  public ResilientLegacyStoreGateway(
+      LegacyStoreManagerGateway legacyStoreManagerGateway,
+      @ConfigProperty(name = "store.legacy-gateway.bulkhead.max-concurrent", defaultValue = "4")
+          int maxConcurrentCalls,
+      @ConfigProperty(name = "store.legacy-gateway.bulkhead.max-wait", defaultValue = "100ms")
+          Duration bulkheadMaxWait,
+      @ConfigProperty(name = "store.legacy-gateway.timeout", defaultValue = "2s") Duration timeout,
+      @ConfigProperty(name = "store.legacy-gateway.retry.max-attempts", defaultValue = "3")
+          int maxAttempts,
+      @ConfigProperty(name = "store.legacy-gateway.retry.initial-backoff", defaultValue = "100ms")
+          Duration initialBackoff,
+      @ConfigProperty(name = "store.legacy-gateway.retry.max-backoff", defaultValue = "2s")
+          Duration maxBackoff,
+      @ConfigProperty(name = "store.legacy-gateway.retry.budget-ratio", defaultValue = "0.2")
+          double retryBudgetRatio,
+      @ConfigProperty(name = "store.legacy-gateway.retry.budget-max", defaultValue = "10")
+          int retryBudgetMax,
+      @ConfigProperty(
+              name = "store.legacy-gateway.circuit-breaker.window-size",
+              defaultValue = "20")
+          int breakerWindowSize,
+      @ConfigProperty(
+              name = "store.legacy-gateway.circuit-breaker.minimum-calls",
+              defaultValue = "10")
+          int breakerMinimumCalls,
+      @ConfigProperty(
+              name = "store.legacy-gateway.circuit-breaker.failure-rate",
+              defaultValue = "50")
+          int breakerFailureRatePercent,
+      @ConfigProperty(
+              name = "store.legacy-gateway.circuit-breaker.open-duration",
+              defaultValue = "30s")
+          Duration breakerOpenDuration) {
+    this.legacyStoreManagerGateway = legacyStoreManagerGateway;
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.bulkheadMaxWaitNanos = bulkheadMaxWait.toNanos();
+    this.timeoutNanos = timeout.toNanos();
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffNanos = initialBackoff.toNanos();
+    this.maxBackoffNanos = maxBackoff.toNanos();
+    this.bulkhead = new Semaphore(maxConcurrentCalls);
+    this.retryBudget = new LegacyRetryBudget(retryBudgetRatio, retryBudgetMax);
+    this.circuitBreaker =
+        new LegacyCircuitBreaker(
+            breakerWindowSize,
+            breakerMinimumCalls,
+            breakerFailureRatePercent,
+            breakerOpenDuration.toNanos(),
+            System::nanoTime);
+    this.callExecutor =
+        Executors.newCachedThreadPool(
+            runnable -> {
+              var thread =
+                  new Thread(runnable, "legacy-store-call-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Sends store changes to the legacy system, retrying failed attempts.
+   *
+   * @param events the changes, at most one per store
+   * @throws LegacyStoreUnavailableException if the changes were not sent because the breaker is
+   *     open or the bulkhead is full
+   * @throws RuntimeException the failure of the last attempt when every attempt failed
+   */
+  public void syncStores(List<StoreEvent> events) {
+    calls.incrementAndGet();
+    retryBudget.onFirstAttempt();
+    RuntimeException lastFailure = null;
+    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+      if (attempt > 1) {
+        if (!retryBudget.tryWithdraw()) {
+          LOGGER.warn("Legacy retry budget is used up, not retrying");
+          break;
+        }
+        retries.incrementAndGet();
+        backoff(attempt);
+      }
+      try {
+        attempt(events);
+        return;
+      } catch (LegacyStoreUnavailableException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        lastFailure = e;
+        LOGGER.warn("Legacy store call attempt " + attempt + " failed: " + e.getMessage());
+      }
+    }
+    throw lastFailure;
+  }
+
+  /** Whether the breaker would let a call through right now. */
+  public boolean isCallPermitted() {
+    return circuitBreaker.isCallPermitted();
+  }
+
+  public String getCircuitState() {
+    return circuitBreaker.getState().name();
+  }
+
+  public double getFailureRatePercent() {
+    return circuitBreaker.getFailureRatePercent();
+  }
+
+  public long getCircuitOpenCount() {
+    return circuitBreaker.getOpenCount();
+  }
+
+  public long getCircuitRejectedCount() {
+    return circuitBreaker.getRejectedCount();
+  }
+
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  public int getInFlightCount() {
+    return maxConcurrentCalls - bulkhead.availablePermits();
+  }
+
+  public long getBulkheadRejectedCount() {
+    return bulkheadRejections.get();
+  }
+
+  public long getCallCount() {
+    return calls.get();
+  }
+
+  public long getSucceededCount() {
+    return succeeded.get();
+  }
+
+  public long getFailedAttemptCount() {
+    return failedAttempts.get();
+  }
+
+  public long getTimeoutCount() {
+    return timeouts.get();
+  }
+
+  public long getRetryCount() {
+    return retries.get();
+  }
+
+  public double getRetryBudgetBalance() {
+    return retryBudget.getBalance();
+  }
+
+  public long getRetryBudgetExhaustedCount() {
+    return retryBudget.getExhaustedCount();
+  }
+
+  public long getLastLatencyMillis() {
+    return lastLatencyMillis;
+  }
+
+  /** Average latency of the successful attempts, in milliseconds. */
+  public double getAverageLatencyMillis() {
+    long count = succeeded.get();
+    return count == 0 ? 0 : (double) totalLatencyMillis.get() / count;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    callExecutor.shutdownNow();
+  }
+
+  private void attempt(List<StoreEvent> events) {
+    if (!circuitBreaker.tryAcquire()) {
+      throw new LegacyStoreUnavailableException("Legacy store manager circuit is open");
+    }
+    boolean acquired;
+    try {
+      acquired = bulkhead.tryAcquire(bulkheadMaxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      // not a verdict on the legacy system, so the breaker gets no outcome
+      circuitBreaker.onAbandoned();
+      bulkheadRejections.incrementAndGet();
+      throw new LegacyStoreUnavailableException(
+          "Legacy store manager bulkhead is full (" + maxConcurrentCalls + " calls in flight)");
+    }
+
+    long start = System.nanoTime();
+    Future<?> call;
+    try {
+      // The slot is given back when the call really ends, so abandoned calls still count
+      call =
+          callExecutor.submit(
+              () -> {
+                try {
+                  legacyStoreManagerGateway.syncStoresOnLegacySystem(events);
+                } finally {
+                  bulkhead.release();
+                }
+              });
+    } catch (RuntimeException e) {
+      bulkhead.release();
+      circuitBreaker.onFailure();
+      failedAttempts.incrementAndGet();
+      throw e;
+    }
+    try {
+      call.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      call.cancel(true);
+      timeouts.incrementAndGet();
+      failed();
+      throw new IllegalStateException(
+          "Legacy store call timed out after "
+              + TimeUnit.NANOSECONDS.toMillis(timeoutNanos)
+              + "ms");
+    } catch (ExecutionException e) {
+      failed();
+      throw e.getCause() instanceof RuntimeException runtime
+          ? runtime
+          : new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      call.cancel(true);
+      failed();
+      throw new IllegalStateException("Interrupted while calling the legacy store manager");
+    }
+    long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    circuitBreaker.onSuccess();
+    succeeded.incrementAndGet();
+    lastLatencyMillis = latencyMillis;
+    totalLatencyMillis.addAndGet(latencyMillis);
+  }
+
+  private void failed() {
+    circuitBreaker.onFailure();
+    failedAttempts.incrementAndGet();
+  }
+
+  // Exponential backoff with equal jitter: half the delay fixed, half random
+  private void backoff(int attempt) {
+    long delay = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 2, 30));
+    long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    try {
+      TimeUnit.NANOSECONDS.sleep(jittered);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LegacyStoreUnavailableException("Interrupted while backing off");
+    }
+  }
+}
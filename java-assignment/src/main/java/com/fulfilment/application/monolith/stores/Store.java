@@ -4,6 +4,10 @@ import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Version;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Cacheable
@@ -14,6 +18,9 @@ public class Store extends PanacheEntity {
 
   public int quantityProductsInStock;
 
+  // Bumped by every update, so snapshots of a store can be ordered and stale ones dropped
+  @Version public long version;
+
   public Store() {}
 
   public Store(String name) {
@@ -25,6 +32,18 @@ public class Store extends PanacheEntity {
     this.quantityProductsInStock = quantityProductsInStock;
   }
 
+  /** Returns those of the given ids that belong to a store. */
+  public static Set<Long> findExistingIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery("select s.id from Store s where s.id in ?1", Long.class)
+            .setParameter(1, ids)
+            .getResultList());
+  }
+
   @Override
   public String toString() {
     return "Store{" +
@@ -2,20 +2,27 @@ package com.fulfilment.application.monolith.stores;
 /**
  * Event fired after a Store operation is successfully committed to the database.
  * This ensures that downstream systems are notified only after data is persisted.
+ * The event carries a snapshot of the store, so later changes to the entity do not leak into it.
  */
 public class StoreEvent {
   public enum EventType {
     CREATED,
     UPDATED
   }
-  private final Store store;
+  private final StoreSnapshot snapshot;
   private final EventType eventType;
-  public StoreEvent(Store store, EventType eventType) {
-    this.store = store;
+  public StoreEvent(StoreSnapshot snapshot, EventType eventType) {
+    this.snapshot = snapshot;
     this.eventType = eventType;
   }
-  public Store getStore() {
-    return store;
+  public StoreEvent(Store store, EventType eventType) {
+    this(StoreSnapshot.of(store), eventType);
+  }
+  public StoreSnapshot getSnapshot() {
+    return snapshot;
+  }
+  public Long getStoreId() {
+    return snapshot.id();
   }
   public EventType getEventType() {
     return eventType;
@@ -8,37 +8,29 @@ import org.jboss.logging.Logger;
  * Listener for Store events that triggers legacy system updates.
  * This listener observes events AFTER the transaction successfully commits,
  * ensuring that the legacy system is only notified when data is safely persisted.
+ * The update itself is queued and sent by {@link LegacyStoreSyncPipeline}, off the request thread.
  */
 @ApplicationScoped
 public class StoreEventListener {
   private static final Logger LOGGER = Logger.getLogger(StoreEventListener.class.getName());
   @Inject
-  LegacyStoreManagerGateway legacyStoreManagerGateway;
+  LegacyStoreSyncPipeline legacyStoreSyncPipeline;
   /**
    * Handles store events after successful transaction commit.
    * This ensures the legacy system is only updated when the database transaction succeeds.
-   * 
+   *
    * @param event the store event containing operation details
    */
   public void onStoreEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreEvent event) {
     try {
-      Store store = event.getStore();
-      LOGGER.info("Processing store event: " + event.getEventType() + " for store: " + store.name);
-      switch (event.getEventType()) {
-        case CREATED:
-          legacyStoreManagerGateway.createStoreOnLegacySystem(store);
-          LOGGER.info("Successfully notified legacy system of store creation: " + store.name);
-          break;
-        case UPDATED:
-          legacyStoreManagerGateway.updateStoreOnLegacySystem(store);
-          LOGGER.info("Successfully notified legacy system of store update: " + store.name);
-          break;
-        default:
-          LOGGER.warn("Unknown event type: " + event.getEventType());
-      }
+      StoreSnapshot store = event.getSnapshot();
+      LOGGER.debug(
+          "Queueing store event: " + event.getEventType() + " for store: " + store.name()
+              + " version " + store.version());
+      legacyStoreSyncPipeline.enqueue(event);
     } catch (Exception e) {
       // Log the error but don't fail the request since DB transaction already committed
-      LOGGER.error("Failed to notify legacy system: " + e.getMessage(), e);
+      LOGGER.error("Failed to queue legacy system update: " + e.getMessage(), e);
     }
   }
 }
@@ -0,0 +1,249 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Sends store outbox entries to the legacy store manager. Each batch is leased in a short
+ * transaction, sent with no transaction or connection held, and its outcome is written back in a
+ * second short transaction. Leases are taken per store, so instances can dispatch in parallel
+ * while each store's changes are sent by one of them at a time, in order. Entries left behind by a
+ * crash are picked up by a poll once their lease runs out. The lease must outlast the slowest
+ * legacy call, retries included.
+ *
+ * <p>Entries reach the dispatcher two ways: {@link LegacyStoreSyncPipeline} asks for the stores it
+ * has just seen committed, and a periodic poll sweeps up whatever is still pending.
+ *
+ * <p>Calls go through {@link ResilientLegacyStoreGateway}. While it refuses calls, claimed entries
+ * are parked: they stay pending without using up an attempt, and the poll holds off until the
+ * circuit lets calls through again.
+ */
+@ApplicationScoped
+public class StoreOutboxDispatcher {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreOutboxDispatcher.class.getName());
+
+  private static final int MAX_ERROR_LENGTH = 255;
+
+  private static final int THROUGHPUT_WINDOW_SECONDS = 60;
+
+  private final StoreOutboxRepository outboxRepository;
+
+  private final ResilientLegacyStoreGateway legacyGateway;
+
+  private final int batchSize;
+
+  private final int maxAttempts;
+
+  private final Duration lease;
+
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong failedAttempts = new AtomicLong();
+  private final AtomicLong deadLettered = new AtomicLong();
+  private final AtomicLong parked = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private volatile int lastBatchSize;
+  private volatile long lastDeliveryLagMillis;
+
+  // entries delivered per second over the last minute, indexed by epoch second
+  private final long[] deliveredBySecond = new long[THROUGHPUT_WINDOW_SECONDS];
+  private final long[] bucketSeconds = new long[THROUGHPUT_WINDOW_SECONDS];
+
+  @Inject
+  public StoreOutboxDispatcher(
+      StoreOutboxRepository outboxRepository,
+      ResilientLegacyStoreGateway legacyGateway,
+      @ConfigProperty(name = "store.outbox.batch-size", defaultValue = "100") int batchSize,
+      @ConfigProperty(name = "store.outbox.max-attempts", defaultValue = "10") int maxAttempts,
+      @ConfigProperty(name = "store.outbox.lease", defaultValue = "1m") Duration lease) {
+    this.outboxRepository = outboxRepository;
+    this.legacyGateway = legacyGateway;
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.lease = lease;
+  }
+
+  /** Delivers pending entries batch by batch until none is left or a delivery fails. */
+  @Scheduled(
+      every = "${store.outbox.poll-interval:10s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @ActivateRequestContext
+  public void poll() {
+    if (!legacyGateway.isCallPermitted()) {
+      return;
+    }
+    int sent;
+    do {
+      sent = deliver(outboxRepository.claimPending(batchSize, lease));
+    } while (sent > 0);
+  }
+
+  /**
+   * Delivers the pending entries of the given stores now. Stores another dispatcher is delivering
+   * are skipped; their new entries are left for the poll.
+   *
+   * @return the number of entries delivered
+   */
+  @ActivateRequestContext
+  public int dispatchStores(Collection<Long> storeIds) {
+    if (storeIds.isEmpty()) {
+      return 0;
+    }
+    return deliver(outboxRepository.claimPendingForStores(storeIds, lease));
+  }
+
+  /**
+   * Sends claimed entries in one legacy call, outside any transaction, then records the outcome on
+   * each of them and releases them. On failure the entries stay pending for the next poll, until
+   * they run out of attempts; entries the gateway did not even try to send are left as they were.
+   *
+   * @param entries claimed entries, in id order
+   * @return the number of entries delivered
+   */
+  int deliver(List<StoreOutboxEntry> entries) {
+    if (entries.isEmpty()) {
+      return 0;
+    }
+    // Only the latest version of a store is sent; a create stays a create
+    var latest = new LinkedHashMap<Long, StoreEvent>();
+    for (StoreOutboxEntry entry : entries) {
+      var event = entry.toStoreEvent();
+      var previous = latest.get(entry.storeId);
+      if (previous != null) {
+        var snapshot =
+            event.getSnapshot().supersedes(previous.getSnapshot())
+                ? event.getSnapshot()
+                : previous.getSnapshot();
+        boolean created =
+            previous.getEventType() == StoreEvent.EventType.CREATED
+                || event.getEventType() == StoreEvent.EventType.CREATED;
+        event =
+            new StoreEvent(
+                snapshot, created ? StoreEvent.EventType.CREATED : StoreEvent.EventType.UPDATED);
+      }
+      latest.put(entry.storeId, event);
+    }
+
+    var now = LocalDateTime.now();
+    try {
+      legacyGateway.syncStores(new ArrayList<>(latest.values()));
+    } catch (LegacyStoreUnavailableException e) {
+      LOGGER.warn("Parking " + entries.size() + " store outbox entries: " + e.getMessage());
+      parked.addAndGet(entries.size());
+      outboxRepository.release(entries);
+      return 0;
+    } catch (Exception e) {
+      LOGGER.error("Failed to deliver " + entries.size() + " store outbox entries", e);
+      failedAttempts.addAndGet(entries.size());
+      for (StoreOutboxEntry entry : entries) {
+        entry.attempts++;
+        entry.lastError = truncate(String.valueOf(e.getMessage()));
+        if (entry.attempts >= maxAttempts) {
+          entry.status = StoreOutboxEntry.Status.FAILED;
+          entry.processedAt = now;
+          deadLettered.incrementAndGet();
+          LOGGER.error(
+              "Giving up on store outbox entry " + entry.id + " of store " + entry.storeId);
+        }
+      }
+      outboxRepository.release(entries);
+      return 0;
+    }
+
+    for (StoreOutboxEntry entry : entries) {
+      entry.attempts++;
+      entry.status = StoreOutboxEntry.Status.DELIVERED;
+      entry.processedAt = now;
+      entry.lastError = null;
+    }
+    outboxRepository.release(entries);
+    delivered.addAndGet(entries.size());
+    batches.incrementAndGet();
+    lastBatchSize = entries.size();
+    if (entries.get(0).createdAt != null) {
+      lastDeliveryLagMillis = Duration.between(entries.get(0).createdAt, now).toMillis();
+    }
+    recordThroughput(entries.size());
+    return entries.size();
+  }
+
+  @ActivateRequestContext
+  public long getPendingCount() {
+    return outboxRepository.countPending();
+  }
+
+  /** Age in milliseconds of the oldest pending entry, 0 when nothing is pending. */
+  @ActivateRequestContext
+  public long getLagMillis() {
+    var oldest = outboxRepository.oldestPendingCreatedAt();
+    if (oldest == null) {
+      return 0;
+    }
+    return Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+  }
+
+  public long getDeliveredCount() {
+    return delivered.get();
+  }
+
+  public long getFailedAttemptCount() {
+    return failedAttempts.get();
+  }
+
+  public long getDeadLetterCount() {
+    return deadLettered.get();
+  }
+
+  public long getParkedCount() {
+    return parked.get();
+  }
+
+  public long getBatchCount() {
+    return batches.get();
+  }
+
+  public int getLastBatchSize() {
+    return lastBatchSize;
+  }
+
+  public long getLastDeliveryLagMillis() {
+    return lastDeliveryLagMillis;
+  }
+
+  /** Entries delivered per second, averaged over the last minute. */
+  public synchronized double getThroughputPerSecond() {
+    long second = System.currentTimeMillis() / 1000;
+    long total = 0;
+    for (int i = 0; i < THROUGHPUT_WINDOW_SECONDS; i++) {
+      if (second - bucketSeconds[i] < THROUGHPUT_WINDOW_SECONDS) {
+        total += deliveredBySecond[i];
+      }
+    }
+    return (double) total / THROUGHPUT_WINDOW_SECONDS;
+  }
+
+  private synchronized void recordThroughput(int count) {
+    long second = System.currentTimeMillis() / 1000;
+    int bucket = (int) (second % THROUGHPUT_WINDOW_SECONDS);
+    if (bucketSeconds[bucket] != second) {
+      bucketSeconds[bucket] = second;
+      deliveredBySecond[bucket] = 0;
+    }
+    deliveredBySecond[bucket] += count;
+  }
+
+  private static String truncate(String message) {
+    return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+  }
+}
@@ -0,0 +1,68 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * A committed store change waiting to be sent to the legacy store manager. It is written in the
+ * same transaction as the change itself and carries a copy of the store state, so it survives a
+ * restart and can be delivered by any instance.
+ */
+@Entity
+@Table(
+    name = "store_outbox",
+    indexes = {
+      @Index(name = "idx_store_outbox_status_id", columnList = "status, id"),
+      @Index(name = "idx_store_outbox_store_status", columnList = "storeId, status")
+    })
+public class StoreOutboxEntry extends PanacheEntity {
+
+  public enum Status {
+    PENDING,
+    DELIVERED,
+    FAILED
+  }
+
+  public Long storeId;
+
+  public long storeVersion;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  public StoreEvent.EventType eventType;
+
+  @Column(length = 40)
+  public String name;
+
+  public int quantityProductsInStock;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  public Status status;
+
+  public int attempts;
+
+  public LocalDateTime createdAt;
+
+  public LocalDateTime processedAt;
+
+  // set while a dispatcher is delivering the entry; other dispatchers leave it alone until then
+  public LocalDateTime claimedUntil;
+
+  @Column(length = 255)
+  public String lastError;
+
+  public StoreOutboxEntry() {}
+
+  /** Returns the change as an event holding the recorded snapshot of the store. */
+  public StoreEvent toStoreEvent() {
+    return new StoreEvent(
+        new StoreSnapshot(storeId, storeVersion, name, quantityProductsInStock), eventType);
+  }
+}
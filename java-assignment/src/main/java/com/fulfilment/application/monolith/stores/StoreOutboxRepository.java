@@ -0,0 +1,132 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+@ApplicationScoped
+public class StoreOutboxRepository implements PanacheRepository<StoreOutboxEntry> {
+
+  /**
+   * Records a store change in the outbox. Must run inside the transaction that makes the change,
+   * so the entry commits or rolls back with it.
+   */
+  @Transactional(Transactional.TxType.MANDATORY)
+  public void append(StoreEvent event) {
+    var store = event.getSnapshot();
+    var entry = new StoreOutboxEntry();
+    entry.storeId = store.id();
+    entry.storeVersion = store.version();
+    entry.eventType = event.getEventType();
+    entry.name = store.name();
+    entry.quantityProductsInStock = store.quantityProductsInStock();
+    entry.status = StoreOutboxEntry.Status.PENDING;
+    entry.createdAt = LocalDateTime.now();
+    this.persist(entry);
+  }
+
+  /**
+   * Leases the pending entries of up to {@code limit} stores, those with the oldest entries first,
+   * until {@code lease} from now, in a transaction of its own. A store is claimed with all of its
+   * pending entries, and never while another dispatcher holds a lease on any of them, so the
+   * changes of one store reach the legacy system from one dispatcher at a time and in order.
+   * Entries whose lease ran out, e.g. after a crash mid-delivery, are claimed again.
+   *
+   * @return the leased entries, detached, in id order
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public List<StoreOutboxEntry> claimPending(int limit, Duration lease) {
+    var now = LocalDateTime.now();
+    var storeIds =
+        getEntityManager()
+            .createQuery(
+                "select e.storeId from StoreOutboxEntry e"
+                    + " where e.status = ?1 and (e.claimedUntil is null or e.claimedUntil < ?2)"
+                    + " and not exists (select 1 from StoreOutboxEntry o"
+                    + " where o.storeId = e.storeId and o.claimedUntil >= ?2)"
+                    + " group by e.storeId order by min(e.id)",
+                Long.class)
+            .setParameter(1, StoreOutboxEntry.Status.PENDING)
+            .setParameter(2, now)
+            .setMaxResults(limit)
+            .getResultList();
+    return claimStores(storeIds, now, lease);
+  }
+
+  /**
+   * Like {@link #claimPending(int, Duration)}, limited to the given stores. Stores another
+   * dispatcher holds a lease on are left out.
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public List<StoreOutboxEntry> claimPendingForStores(Collection<Long> storeIds, Duration lease) {
+    return claimStores(storeIds, LocalDateTime.now(), lease);
+  }
+
+  /**
+   * Locks the pending entries of the given stores, waiting for concurrent claims of the same
+   * stores to commit, then leases the entries of every store none of whose entries is leased.
+   * Entries are locked in id order, so concurrent claims cannot deadlock.
+   */
+  private List<StoreOutboxEntry> claimStores(
+      Collection<Long> storeIds, LocalDateTime now, Duration lease) {
+    if (storeIds.isEmpty()) {
+      return List.of();
+    }
+    var entries =
+        this.find(
+                "status = ?1 and storeId in ?2",
+                Sort.by("id"),
+                StoreOutboxEntry.Status.PENDING,
+                storeIds)
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .list();
+    var leasedStores = new HashSet<Long>();
+    for (StoreOutboxEntry entry : entries) {
+      if (entry.claimedUntil != null && !entry.claimedUntil.isBefore(now)) {
+        leasedStores.add(entry.storeId);
+      }
+    }
+    var claimed = new ArrayList<StoreOutboxEntry>(entries.size());
+    for (StoreOutboxEntry entry : entries) {
+      if (!leasedStores.contains(entry.storeId)) {
+        entry.claimedUntil = now.plus(lease);
+        claimed.add(entry);
+      }
+    }
+    return claimed;
+  }
+
+  /**
+   * Writes back the outcome recorded on claimed entries and ends their lease, in a transaction of
+   * its own. Entries left pending can be claimed again straight away.
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void release(List<StoreOutboxEntry> entries) {
+    for (StoreOutboxEntry entry : entries) {
+      entry.claimedUntil = null;
+      getEntityManager().merge(entry);
+    }
+  }
+
+  public long countPending() {
+    return this.count("status", StoreOutboxEntry.Status.PENDING);
+  }
+
+  /** Creation time of the oldest pending entry, or null when nothing is pending. */
+  public LocalDateTime oldestPendingCreatedAt() {
+    return getEntityManager()
+        .createQuery(
+            "select min(o.createdAt) from StoreOutboxEntry o where o.status = ?1",
+            LocalDateTime.class)
+        .setParameter(1, StoreOutboxEntry.Status.PENDING)
+        .getSingleResult();
+  }
+}
@@ -3,9 +3,12 @@ package com.fulfilment.application.monolith.stores;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -30,11 +33,25 @@ public class StoreResource {
 
   @Inject Event<StoreEvent> storeEvent;
 
+  @Inject StoreOutboxRepository storeOutbox;
+
+  @Inject ReactiveStoreRepository reactiveStores;
+
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
+  // Keeps the listing in the Hibernate query cache until a store is written
+  private static final String QUERY_CACHEABLE_HINT = "org.hibernate.cacheable";
+
+  // Blocking, as the jdbc read mode queries through Hibernate on the calling thread
   @GET
-  public List<Store> get() {
-    return Store.listAll(Sort.by("name"));
+  @Blocking
+  public Uni<List<Store>> get() {
+    if (reactiveStores.isEnabled()) {
+      // the worker thread is released while the query runs
+      return reactiveStores.listAllByName();
+    }
+    return Uni.createFrom()
+        .item(Store.<Store>findAll(Sort.by("name")).withHint(QUERY_CACHEABLE_HINT, true).list());
   }
 
   @GET
@@ -59,10 +76,9 @@ public class StoreResource {
     if (store.quantityProductsInStock < 0) {
       throw new WebApplicationException("Stock cannot be negative.", 422);
     }
-    store.persist();
+    store.persistAndFlush();
 
-    // Fire event to notify legacy system AFTER transaction commits
-    storeEvent.fire(new StoreEvent(store, StoreEvent.EventType.CREATED));
+    publish(new StoreEvent(store, StoreEvent.EventType.CREATED));
 
     return Response.ok(store).status(201).build();
   }
@@ -93,10 +109,10 @@ public class StoreResource {
     if (updatedStore.quantityProductsInStock != 0) {
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
-    entity.persist();
+    // Flushed so that the event snapshot carries the bumped version
+    entity.persistAndFlush();
 
-    // Fire event to notify legacy system AFTER transaction commits
-    storeEvent.fire(new StoreEvent(entity, StoreEvent.EventType.UPDATED));
+    publish(new StoreEvent(entity, StoreEvent.EventType.UPDATED));
 
     return entity;
   }
@@ -131,10 +147,9 @@ public class StoreResource {
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
 
-    entity.persist();
+    entity.persistAndFlush();
 
-    // Fire event to notify legacy system AFTER transaction commits
-    storeEvent.fire(new StoreEvent(entity, StoreEvent.EventType.UPDATED));
+    publish(new StoreEvent(entity, StoreEvent.EventType.UPDATED));
 
     return entity;
   }
@@ -151,6 +166,12 @@ public class StoreResource {
     return Response.status(204).build();
   }
 
+  // The outbox entry commits with the change; the event prompts its delivery once committed
+  private void publish(StoreEvent event) {
+    storeOutbox.append(event);
+    storeEvent.fire(event);
+  }
+
   @Provider
   public static class ErrorMapper implements ExceptionMapper<Exception> {
 
@@ -163,6 +184,9 @@ public class StoreResource {
       int code = 500;
       if (exception instanceof WebApplicationException) {
         code = ((WebApplicationException) exception).getResponse().getStatus();
+      } else if (isOptimisticLockFailure(exception)) {
+        // the store was changed by a concurrent request since it was read
+        code = 409;
       }
 
       ObjectNode exceptionJson = objectMapper.createObjectNode();
@@ -175,5 +199,14 @@ public class StoreResource {
 
       return Response.status(code).entity(exceptionJson).build();
     }
+
+    private static boolean isOptimisticLockFailure(Throwable exception) {
+      for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+        if (cause instanceof OptimisticLockException) {
+          return true;
+        }
+      }
+      return false;
+    }
   }
 }
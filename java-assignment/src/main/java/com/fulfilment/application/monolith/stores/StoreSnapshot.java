@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.stores;
+
+/**
+ * Immutable copy of a store as committed by one change. Snapshots of the same store are ordered by
+ * {@code version}.
+ */
+public record StoreSnapshot(Long id, long version, String name, int quantityProductsInStock) {
+
+  public static StoreSnapshot of(Store store) {
+    return new StoreSnapshot(store.id, store.version, store.name, store.quantityProductsInStock);
+  }
+
+  /** Whether this snapshot is a later state of the same store than {@code other}. */
+  public boolean supersedes(StoreSnapshot other) {
+    return version > other.version;
+  }
+}
@@ -0,0 +1,422 @@
+package com.fulfilment.application.monolith.stores.legacy;
+
+import com.fulfilment.application.monolith.stores.StoreEvent;
+import com.fulfilment.application.monolith.stores.StoreSnapshot;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Append-only log of store changes for the legacy store manager to tail. Records are appended to
+ * segment files through a {@link FileChannel}, a whole batch in one write from a direct buffer, and
+ * a segment is rolled over once it reaches {@code segment-bytes}.
+ *
+ * <p>Durability is group-committed. With an {@code fsync-interval} of zero every append waits for
+ * an fsync covering it, and appenders that arrive while one is running share the next one. A
+ * positive interval fsyncs in the background instead, so up to one interval of appends can be
+ * lost in a crash.
+ *
+ * <p>Each record is {@code [int length][int crc32c][payload]}; the payload holds the event type,
+ * store id, store version, stock and name. Positions are global byte offsets: segment files are
+ * named after the position of their first record. On open, a torn record at the end of the last
+ * segment is cut off.
+ */
+@ApplicationScoped
+public class LegacyExportLog implements AutoCloseable {
+
+  private static final Logger LOGGER = Logger.getLogger(LegacyExportLog.class.getName());
+
+  static final String SEGMENT_SUFFIX = ".seg";
+
+  static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+  private static final int FIXED_PAYLOAD_BYTES =
+      1 + 2 * Long.BYTES + Integer.BYTES + Short.BYTES;
+
+  private static final StoreEvent.EventType[] EVENT_TYPES = StoreEvent.EventType.values();
+
+  private final Path directory;
+
+  private final long segmentBytes;
+
+  private final long fsyncIntervalMillis;
+
+  private final int retainedSegments;
+
+  private final Object writeLock = new Object();
+
+  private final Object syncLock = new Object();
+
+  private final AtomicLong durablePosition = new AtomicLong();
+
+  private final AtomicLong appendedRecords = new AtomicLong();
+
+  private final AtomicLong syncs = new AtomicLong();
+
+  private final AtomicLong rotations = new AtomicLong();
+
+  // guarded by writeLock
+  private FileChannel channel;
+  private long segmentBase;
+  private long segmentSize;
+  private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+  private ScheduledExecutorService flusher;
+  private boolean closed;
+
+  private volatile long position;
+
+  @Inject
+  public LegacyExportLog(
+      @ConfigProperty(
+              name = "store.legacy-export.directory",
+              defaultValue = "${java.io.tmpdir}/legacy-store-export")
+          String directory,
+      @ConfigProperty(name = "store.legacy-export.segment-bytes", defaultValue = "67108864")
+          long segmentBytes,
+      @ConfigProperty(name = "store.legacy-export.fsync-interval", defaultValue = "0s")
+          Duration fsyncInterval,
+      @ConfigProperty(name = "store.legacy-export.retained-segments", defaultValue = "16")
+          int retainedSegments) {
+    this.directory = Path.of(directory);
+    this.segmentBytes = segmentBytes;
+    this.fsyncIntervalMillis = fsyncInterval.toMillis();
+    this.retainedSegments = retainedSegments;
+  }
+
+  /**
+   * Appends one record per event, in order, and returns once they are written and, without a
+   * background fsync interval, durable.
+   *
+   * @return the log position after the last appended record
+   */
+  public long append(List<StoreEvent> events) {
+    long end;
+    synchronized (writeLock) {
+      ensureOpen();
+      encode(events);
+      try {
+        if (segmentSize > 0 && segmentSize + buffer.remaining() > segmentBytes) {
+          rotate();
+        }
+        while (buffer.hasRemaining()) {
+          int written = channel.write(buffer);
+          segmentSize += written;
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      position = segmentBase + segmentSize;
+      end = position;
+      appendedRecords.addAndGet(events.size());
+    }
+    if (fsyncIntervalMillis == 0) {
+      syncUpTo(end);
+    }
+    return end;
+  }
+
+  /**
+   * Opens a reader positioned at {@code fromPosition}, typically 0 or the
+   * {@link LegacyExportRecord#nextPosition()} of the last record a consumer handled.
+   */
+  public LegacyExportLogReader openReader(long fromPosition) {
+    return new LegacyExportLogReader(directory, fromPosition);
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  public long getPosition() {
+    return position;
+  }
+
+  public long getDurablePosition() {
+    return durablePosition.get();
+  }
+
+  public long getAppendedRecordCount() {
+    return appendedRecords.get();
+  }
+
+  public long getSyncCount() {
+    return syncs.get();
+  }
+
+  public long getRotationCount() {
+    return rotations.get();
+  }
+
+  /** Makes everything appended so far durable. */
+  public void sync() {
+    syncUpTo(position);
+  }
+
+  @Override
+  @PreDestroy
+  public void close() {
+    synchronized (writeLock) {
+      if (channel == null || closed) {
+        closed = true;
+        return;
+      }
+      closed = true;
+      if (flusher != null) {
+        flusher.shutdownNow();
+      }
+    }
+    sync();
+    synchronized (writeLock) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.warn("Failed to close legacy export segment", e);
+      }
+    }
+  }
+
+  // Group commit: the first caller fsyncs everything written so far, callers queued behind it
+  // find their records already covered and return without an fsync of their own
+  private void syncUpTo(long end) {
+    synchronized (syncLock) {
+      while (durablePosition.get() < end) {
+        long target;
+        FileChannel current;
+        synchronized (writeLock) {
+          target = position;
+          current = channel;
+        }
+        try {
+          current.force(false);
+        } catch (ClosedChannelException e) {
+          // rotated meanwhile; the old segment was forced before it was closed
+          continue;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        syncs.incrementAndGet();
+        durablePosition.accumulateAndGet(target, Math::max);
+      }
+    }
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new IllegalStateException("Legacy export log is closed");
+    }
+    if (channel != null) {
+      return;
+    }
+    try {
+      Files.createDirectories(directory);
+      NavigableMap<Long, Path> segments = listSegments(directory);
+      if (segments.isEmpty()) {
+        openSegment(0);
+      } else {
+        var last = segments.lastEntry();
+        segmentBase = last.getKey();
+        channel =
+            FileChannel.open(last.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmentSize = validLength(channel);
+        if (segmentSize < channel.size()) {
+          LOGGER.warn(
+              "Cutting a torn record off legacy export segment " + last.getValue() + " at "
+                  + segmentSize);
+          channel.truncate(segmentSize);
+        }
+        channel.position(segmentSize);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    position = segmentBase + segmentSize;
+    durablePosition.set(position);
+    if (fsyncIntervalMillis > 0) {
+      flusher =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                var thread = new Thread(runnable, "legacy-export-fsync");
+                thread.setDaemon(true);
+                return thread;
+              });
+      flusher.scheduleWithFixedDelay(
+          this::backgroundSync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    LOGGER.info("Legacy export log opened in " + directory + " at position " + position);
+  }
+
+  private void backgroundSync() {
+    try {
+      if (durablePosition.get() < position) {
+        sync();
+      }
+    } catch (RuntimeException e) {
+      LOGGER.error("Legacy export fsync failed", e);
+    }
+  }
+
+  private void rotate() throws IOException {
+    channel.force(false);
+    syncs.incrementAndGet();
+    long end = segmentBase + segmentSize;
+    durablePosition.accumulateAndGet(end, Math::max);
+    channel.close();
+    openSegment(end);
+    rotations.incrementAndGet();
+
+    var segments = listSegments(directory);
+    while (segments.size() > retainedSegments) {
+      Files.deleteIfExists(segments.pollFirstEntry().getValue());
+    }
+  }
+
+  private void openSegment(long base) throws IOException {
+    segmentBase = base;
+    segmentSize = 0;
+    channel =
+        FileChannel.open(
+            segmentPath(directory, base),
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+  }
+
+  private void encode(List<StoreEvent> events) {
+    buffer.clear();
+    for (StoreEvent event : events) {
+      StoreSnapshot store = event.getSnapshot();
+      byte[] name =
+          store.name() == null ? new byte[0] : store.name().getBytes(StandardCharsets.UTF_8);
+      int payloadLength = FIXED_PAYLOAD_BYTES + name.length;
+      if (buffer.remaining() < HEADER_BYTES + payloadLength) {
+        var larger =
+            ByteBuffer.allocateDirect(
+                Math.max(buffer.capacity() * 2, buffer.position() + HEADER_BYTES + payloadLength));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+      }
+      int start = buffer.position();
+      buffer.putInt(payloadLength).putInt(0);
+      buffer.put((byte) event.getEventType().ordinal());
+      buffer.putLong(store.id() == null ? -1L : store.id());
+      buffer.putLong(store.version());
+      buffer.putInt(store.quantityProductsInStock());
+      buffer.putShort((short) name.length);
+      buffer.put(name);
+      buffer.putInt(start + Integer.BYTES, crc(buffer, start + HEADER_BYTES, payloadLength));
+    }
+    buffer.flip();
+  }
+
+  static NavigableMap<Long, Path> listSegments(Path directory) throws IOException {
+    NavigableMap<Long, Path> segments = new TreeMap<>();
+    if (!Files.isDirectory(directory)) {
+      return segments;
+    }
+    try (var files = Files.list(directory)) {
+      files
+          .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .forEach(
+              file -> {
+                String name = file.getFileName().toString();
+                segments.put(
+                    Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+                    file);
+              });
+    }
+    return segments;
+  }
+
+  static Path segmentPath(Path directory, long base) {
+    return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+  }
+
+  /**
+   * Reads the record at an offset of a segment.
+   *
+   * @return the record, or null when no complete, intact record starts there
+   */
+  static LegacyExportRecord readRecord(FileChannel segment, long offset, long position)
+      throws IOException {
+    var header = ByteBuffer.allocate(HEADER_BYTES);
+    if (!readFully(segment, header, offset)) {
+      return null;
+    }
+    int payloadLength = header.getInt(0);
+    int checksum = header.getInt(Integer.BYTES);
+    if (payloadLength < FIXED_PAYLOAD_BYTES || payloadLength > segment.size() - offset) {
+      return null;
+    }
+    var payload = ByteBuffer.allocate(payloadLength);
+    if (!readFully(segment, payload, offset + HEADER_BYTES)
+        || crc(payload, 0, payloadLength) != checksum) {
+      return null;
+    }
+    var eventType = EVENT_TYPES[payload.get(0)];
+    long storeId = payload.getLong(1);
+    long version = payload.getLong(1 + Long.BYTES);
+    int stock = payload.getInt(1 + 2 * Long.BYTES);
+    int nameLength = payload.getShort(1 + 2 * Long.BYTES + Integer.BYTES);
+    var name = new byte[nameLength];
+    payload.get(FIXED_PAYLOAD_BYTES, name);
+    return new LegacyExportRecord(
+        position,
+        HEADER_BYTES + payloadLength,
+        eventType,
+        storeId < 0 ? null : storeId,
+        version,
+        new String(name, StandardCharsets.UTF_8),
+        stock);
+  }
+
+  private static long validLength(FileChannel segment) throws IOException {
+    long offset = 0;
+    LegacyExportRecord record;
+    while ((record = readRecord(segment, offset, offset)) != null) {
+      offset += record.size();
+    }
+    return offset;
+  }
+
+  private static boolean readFully(FileChannel segment, ByteBuffer target, long offset)
+      throws IOException {
+    while (target.hasRemaining()) {
+      int read = segment.read(target, offset + target.position());
+      if (read < 0) {
+        return false;
+      }
+      if (read == 0 && offset + target.position() >= segment.size()) {
+        return false;
+      }
+    }
+    target.flip();
+    return true;
+  }
+
+  private static int crc(ByteBuffer source, int from, int length) {
+    var crc = new CRC32C();
+    crc.update(source.duplicate().limit(from + length).position(from));
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,86 @@
+package com.fulfilment.application.monolith.stores.legacy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tails a {@link LegacyExportLog} from a position, following it across segments. A reader sees
+ * only complete records, so it can poll while the log is being appended to. Not thread-safe.
+ */
+public final class LegacyExportLogReader implements Closeable {
+
+  private final Path directory;
+
+  private long position;
+
+  private FileChannel segment;
+
+  private long segmentBase;
+
+  LegacyExportLogReader(Path directory, long position) {
+    this.directory = directory;
+    this.position = position;
+  }
+
+  /**
+   * Reads the records appended since the last poll.
+   *
+   * @param maxRecords the most records to return
+   * @return the records, in log order; empty when the reader is at the end of the log
+   * @throws IOException if the position is no longer retained or a segment cannot be read
+   */
+  public List<LegacyExportRecord> poll(int maxRecords) throws IOException {
+    List<LegacyExportRecord> records = new ArrayList<>();
+    while (records.size() < maxRecords) {
+      if (segment == null && !openSegmentAt(position)) {
+        break;
+      }
+      var record = LegacyExportLog.readRecord(segment, position - segmentBase, position);
+      if (record != null) {
+        records.add(record);
+        position = record.nextPosition();
+        continue;
+      }
+      // Nothing complete here; move on only if the writer has rolled over to a later segment
+      var next = LegacyExportLog.listSegments(directory).higherEntry(segmentBase);
+      if (next == null || next.getKey() != position) {
+        break;
+      }
+      segment.close();
+      segment = null;
+    }
+    return records;
+  }
+
+  /** Position of the next record to read. */
+  public long position() {
+    return position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (segment != null) {
+      segment.close();
+      segment = null;
+    }
+  }
+
+  private boolean openSegmentAt(long target) throws IOException {
+    var segments = LegacyExportLog.listSegments(directory);
+    var containing = segments.floorEntry(target);
+    if (containing == null) {
+      if (!segments.isEmpty()) {
+        throw new IOException("Legacy export position " + target + " is no longer retained");
+      }
+      return false;
+    }
+    segmentBase = containing.getKey();
+    segment = FileChannel.open(containing.getValue(), StandardOpenOption.READ);
+    return true;
+  }
+}
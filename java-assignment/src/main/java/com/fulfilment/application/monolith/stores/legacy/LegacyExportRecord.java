@@ -0,0 +1,23 @@
+package com.fulfilment.application.monolith.stores.legacy;
+
+import com.fulfilment.application.monolith.stores.StoreEvent;
+
+/**
+ * One store change as read back from the legacy export log.
+ *
+ * @param position log position of the record, usable to resume reading at it
+ * @param size bytes the record takes in the log, so the next record starts at position + size
+ */
+public record LegacyExportRecord(
+    long position,
+    int size,
+    StoreEvent.EventType eventType,
+    Long storeId,
+    long version,
+    String name,
+    int quantityProductsInStock) {
+
+  public long nextPosition() {
+    return position + size;
+  }
+}
@@ -4,16 +4,33 @@ import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "warehouse")
+@Table(
+    name = "warehouse",
+    indexes = {
+      @Index(name = "idx_warehouse_location_archived_at", columnList = "location, archivedAt"),
+      @Index(name = "idx_warehouse_business_unit_code", columnList = "businessUnitCode")
+    })
 @Cacheable
 public class DbWarehouse {
 
-  @Id @GeneratedValue public Long id;
+  // Ids are allocated in blocks as large as a JDBC insert batch, so a batch needs one sequence call
+  static final int ID_ALLOCATION_SIZE = 50;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouse_seq")
+  @SequenceGenerator(
+      name = "warehouse_seq",
+      sequenceName = "warehouse_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
+  public Long id;
 
   public String businessUnitCode;
 
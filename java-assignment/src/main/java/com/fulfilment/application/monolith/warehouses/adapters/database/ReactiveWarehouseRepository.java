@@ -0,0 +1,145 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.common.persistence.ReactiveReadPool;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link ReactiveWarehouseStore} on the reactive SQL client, plus the id-ordered pages that
+ * {@link WarehouseRepository} offers next to its port. Rows are read straight into
+ * {@link DbWarehouse}, detached from any persistence context.
+ */
+@ApplicationScoped
+public class ReactiveWarehouseRepository implements ReactiveWarehouseStore {
+
+  private static final String COLUMNS =
+      "select id, businessUnitCode, location, capacity, stock, createdAt, archivedAt"
+          + " from warehouse";
+
+  private final ReactiveReadPool readPool;
+
+  @Inject
+  public ReactiveWarehouseRepository(ReactiveReadPool readPool) {
+    this.readPool = readPool;
+  }
+
+  /** Whether {@code persistence.read-mode} selects the reactive client. */
+  public boolean isEnabled() {
+    return readPool.isEnabled();
+  }
+
+  @Override
+  public Uni<List<Warehouse>> getAll() {
+    return toWarehouses(list(COLUMNS + " order by id", Tuple.tuple()));
+  }
+
+  @Override
+  public Uni<List<Warehouse>> getActive() {
+    return toWarehouses(list(COLUMNS + " where archivedAt is null order by id", Tuple.tuple()));
+  }
+
+  @Override
+  public Uni<List<Warehouse>> getActiveByLocation(String location) {
+    return toWarehouses(
+        list(
+            COLUMNS + " where location = " + readPool.parameter(1)
+                + " and archivedAt is null order by id",
+            Tuple.of(location)));
+  }
+
+  @Override
+  public Uni<List<Warehouse>> getArchived(LocalDateTime since) {
+    var archived =
+        since == null
+            ? list(COLUMNS + " where archivedAt is not null order by id", Tuple.tuple())
+            : list(
+                COLUMNS + " where archivedAt >= " + readPool.parameter(1) + " order by id",
+                Tuple.of(since));
+    return toWarehouses(archived);
+  }
+
+  @Override
+  public Uni<Optional<Warehouse>> findOptionalByBusinessUnitCode(String buCode) {
+    return list(
+            COLUMNS + " where businessUnitCode = " + readPool.parameter(1) + " order by id"
+                + " limit 1",
+            Tuple.of(buCode))
+        .map(rows -> rows.stream().findFirst().map(DbWarehouse::toWarehouse));
+  }
+
+  /**
+   * Returns up to {@code limit} warehouses with an id greater than {@code afterId}, in id order.
+   */
+  public Uni<List<DbWarehouse>> listAfter(Long afterId, int limit) {
+    return list(
+        COLUMNS + " where id > " + readPool.parameter(1) + " order by id limit "
+            + readPool.parameter(2),
+        Tuple.of(cursor(afterId), limit));
+  }
+
+  /**
+   * Returns up to {@code limit} active warehouses with an id greater than {@code afterId}, in id
+   * order.
+   */
+  public Uni<List<DbWarehouse>> listActiveAfter(Long afterId, int limit) {
+    return list(
+        COLUMNS + " where id > " + readPool.parameter(1)
+            + " and archivedAt is null order by id limit " + readPool.parameter(2),
+        Tuple.of(cursor(afterId), limit));
+  }
+
+  /**
+   * Returns up to {@code limit} archived warehouses with an id greater than {@code afterId}, in id
+   * order, limited to those archived at or after {@code since} when it is not null.
+   */
+  public Uni<List<DbWarehouse>> listArchivedAfter(LocalDateTime since, Long afterId, int limit) {
+    if (since == null) {
+      return list(
+          COLUMNS + " where id > " + readPool.parameter(1)
+              + " and archivedAt is not null order by id limit " + readPool.parameter(2),
+          Tuple.of(cursor(afterId), limit));
+    }
+    return list(
+        COLUMNS + " where id > " + readPool.parameter(1) + " and archivedAt >= "
+            + readPool.parameter(2) + " order by id limit " + readPool.parameter(3),
+        Tuple.of(cursor(afterId), since, limit));
+  }
+
+  private Uni<List<DbWarehouse>> list(String sql, Tuple parameters) {
+    return readPool.pool().preparedQuery(sql).execute(parameters).map(this::toDbWarehouses);
+  }
+
+  private List<DbWarehouse> toDbWarehouses(RowSet<Row> rows) {
+    List<DbWarehouse> warehouses = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      var warehouse = new DbWarehouse();
+      warehouse.id = row.getLong(0);
+      warehouse.businessUnitCode = row.getString(1);
+      warehouse.location = row.getString(2);
+      warehouse.capacity = row.getInteger(3);
+      warehouse.stock = row.getInteger(4);
+      warehouse.createdAt = row.getLocalDateTime(5);
+      warehouse.archivedAt = row.getLocalDateTime(6);
+      warehouses.add(warehouse);
+    }
+    return warehouses;
+  }
+
+  private static Uni<List<Warehouse>> toWarehouses(Uni<List<DbWarehouse>> rows) {
+    return rows.map(warehouses -> warehouses.stream().map(DbWarehouse::toWarehouse).toList());
+  }
+
+  private static long cursor(Long afterId) {
+    return afterId == null ? 0L : afterId;
+  }
+}
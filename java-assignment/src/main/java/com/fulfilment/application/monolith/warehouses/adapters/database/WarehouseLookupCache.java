@@ -0,0 +1,169 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Bounded read-through cache of warehouse lookups by business unit code.
+ * Codes without a warehouse are cached too, with a shorter time to live. Writers invalidate the
+ * codes they touch immediately and again when their transaction completes, so a value read by a
+ * concurrent lookup while the transaction was open cannot outlive it.
+ * Callers get a copy of the cached warehouse, so they may modify it.
+ */
+@ApplicationScoped
+public class WarehouseLookupCache {
+
+  private final Cache<String, Optional<Warehouse>> cache;
+
+  private final TransactionSynchronizationRegistry transactionRegistry;
+
+  private final AtomicLong invalidations = new AtomicLong();
+
+  @Inject
+  public WarehouseLookupCache(
+      @ConfigProperty(name = "warehouse.lookup-cache.maximum-size", defaultValue = "10000")
+          long maximumSize,
+      @ConfigProperty(name = "warehouse.lookup-cache.ttl", defaultValue = "10m") Duration ttl,
+      @ConfigProperty(name = "warehouse.lookup-cache.negative-ttl", defaultValue = "5s")
+          Duration negativeTtl,
+      TransactionSynchronizationRegistry transactionRegistry) {
+    this(maximumSize, ttl, negativeTtl, transactionRegistry, Ticker.systemTicker());
+  }
+
+  WarehouseLookupCache(
+      long maximumSize,
+      Duration ttl,
+      Duration negativeTtl,
+      TransactionSynchronizationRegistry transactionRegistry,
+      Ticker ticker) {
+    this.transactionRegistry = transactionRegistry;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .ticker(ticker)
+            .recordStats()
+            .expireAfter(new LookupExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+            .build();
+  }
+
+  /**
+   * Returns the cached lookup for a business unit code, loading and caching it on a miss.
+   *
+   * @param businessUnitCode the business unit code
+   * @param loader loads the warehouse from the database
+   * @return the warehouse, or empty if no warehouse has the code
+   */
+  public Optional<Warehouse> get(
+      String businessUnitCode, Function<String, Optional<Warehouse>> loader) {
+    if (businessUnitCode == null) {
+      return Optional.empty();
+    }
+    return cache.get(businessUnitCode, loader).map(this::copy);
+  }
+
+  /**
+   * Drops the cached lookup of a business unit code now and when the current transaction, if
+   * any, completes.
+   *
+   * @param businessUnitCode the business unit code that is being written
+   */
+  public void invalidate(String businessUnitCode) {
+    invalidateAll(Collections.singletonList(businessUnitCode));
+  }
+
+  /**
+   * Drops the cached lookups of several business unit codes now and when the current
+   * transaction, if any, completes.
+   *
+   * @param businessUnitCodes the business unit codes that are being written
+   */
+  public void invalidateAll(Collection<String> businessUnitCodes) {
+    var codes = businessUnitCodes.stream().filter(Objects::nonNull).toList();
+    cache.invalidateAll(codes);
+    invalidations.addAndGet(codes.size());
+
+    if (transactionRegistry != null
+        && transactionRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+      transactionRegistry.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              cache.invalidateAll(codes);
+            }
+          });
+    }
+  }
+
+  public long getSize() {
+    return cache.estimatedSize();
+  }
+
+  public long getInvalidationCount() {
+    return invalidations.get();
+  }
+
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  private Warehouse copy(Warehouse warehouse) {
+    var copy = new Warehouse();
+    copy.businessUnitCode = warehouse.businessUnitCode;
+    copy.location = warehouse.location;
+    copy.capacity = warehouse.capacity;
+    copy.stock = warehouse.stock;
+    copy.createdAt = warehouse.createdAt;
+    copy.archivedAt = warehouse.archivedAt;
+    return copy;
+  }
+
+  /** Found warehouses live for the time to live, missing codes for the negative time to live. */
+  private static final class LookupExpiry implements Expiry<String, Optional<Warehouse>> {
+
+    private final long ttlNanos;
+
+    private final long negativeTtlNanos;
+
+    LookupExpiry(long ttlNanos, long negativeTtlNanos) {
+      this.ttlNanos = ttlNanos;
+      this.negativeTtlNanos = negativeTtlNanos;
+    }
+
+    @Override
+    public long expireAfterCreate(String key, Optional<Warehouse> value, long currentTime) {
+      return value.isPresent() ? ttlNanos : negativeTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, Optional<Warehouse> value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, Optional<Warehouse> value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,31 +1,139 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  // Matches quarkus.hibernate-orm.jdbc.statement-batch-size and the id allocation size
+  static final int BATCH_SIZE = DbWarehouse.ID_ALLOCATION_SIZE;
+
+  // Rows fetched per JDBC round trip when streaming
+  static final int STREAM_FETCH_SIZE = 500;
+
+  @Inject WarehouseLookupCache lookupCache;
+
+  public void setLookupCache(WarehouseLookupCache lookupCache) {
+    this.lookupCache = lookupCache;
+  }
+
   @Override
   public List<Warehouse> getAll() {
     return this.listAll().stream().map(DbWarehouse::toWarehouse).toList();
   }
 
+  @Override
+  public List<Warehouse> getActive() {
+    return this.list("archivedAt is null", Sort.by("id")).stream()
+        .map(DbWarehouse::toWarehouse)
+        .toList();
+  }
+
+  @Override
+  public List<Warehouse> getActiveByLocation(String location) {
+    return this.list("location = ?1 and archivedAt is null", Sort.by("id"), location).stream()
+        .map(DbWarehouse::toWarehouse)
+        .toList();
+  }
+
+  @Override
+  public List<Warehouse> getArchived(LocalDateTime since) {
+    var archived =
+        since == null
+            ? this.list("archivedAt is not null", Sort.by("id"))
+            : this.list("archivedAt >= ?1", Sort.by("id"), since);
+    return archived.stream().map(DbWarehouse::toWarehouse).toList();
+  }
+
+  /**
+   * Returns up to {@code limit} warehouses with an id greater than {@code afterId}, ordered by id.
+   *
+   * @param afterId the id to start after, or null to start from the first warehouse
+   * @param limit the maximum number of warehouses to return
+   */
+  public List<DbWarehouse> listAfter(Long afterId, int limit) {
+    return this.find("id > ?1", Sort.by("id"), cursor(afterId)).page(0, limit).list();
+  }
+
+  /**
+   * Like {@link #listAfter(Long, int)}, limited to warehouses that are not archived.
+   */
+  public List<DbWarehouse> listActiveAfter(Long afterId, int limit) {
+    return this.find("id > ?1 and archivedAt is null", Sort.by("id"), cursor(afterId))
+        .page(0, limit)
+        .list();
+  }
+
+  /**
+   * Like {@link #listAfter(Long, int)}, limited to archived warehouses and, when {@code since} is
+   * not null, to those archived at or after it.
+   */
+  public List<DbWarehouse> listArchivedAfter(LocalDateTime since, Long afterId, int limit) {
+    var query =
+        since == null
+            ? this.find("id > ?1 and archivedAt is not null", Sort.by("id"), cursor(afterId))
+            : this.find("id > ?1 and archivedAt >= ?2", Sort.by("id"), cursor(afterId), since);
+    return query.page(0, limit).list();
+  }
+
+  /**
+   * Passes every warehouse with an id greater than {@code afterId} to an action, in id order.
+   * Rows are read through a cursor and detached once handled, so memory use does not grow with
+   * the size of the table.
+   *
+   * @param afterId the id to start after, or null to start from the first warehouse
+   * @param action the action to run for each warehouse
+   */
+  @Transactional
+  public void streamAfter(Long afterId, Consumer<DbWarehouse> action) {
+    var entityManager = getEntityManager();
+    try (var warehouses =
+        this.find("id > ?1", Sort.by("id"), cursor(afterId))
+            .withHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+            .withHint("org.hibernate.readOnly", true)
+            .stream()) {
+      warehouses.forEach(
+          warehouse -> {
+            action.accept(warehouse);
+            entityManager.detach(warehouse);
+          });
+    }
+  }
+
   @Override
   @Transactional
   public void create(Warehouse warehouse) {
-    var dbWarehouse = new DbWarehouse();
-    dbWarehouse.businessUnitCode = warehouse.businessUnitCode;
-    dbWarehouse.location = warehouse.location;
-    dbWarehouse.capacity = warehouse.capacity;
-    dbWarehouse.stock = warehouse.stock;
-    dbWarehouse.createdAt = warehouse.createdAt;
-    dbWarehouse.archivedAt = warehouse.archivedAt;
-    this.persist(dbWarehouse);
+    this.persist(toDbWarehouse(warehouse));
+    lookupCache.invalidate(warehouse.businessUnitCode);
+  }
+
+  @Override
+  @Transactional
+  public void createAll(List<Warehouse> warehouses) {
+    var entityManager = getEntityManager();
+    for (int i = 0; i < warehouses.size(); i++) {
+      entityManager.persist(toDbWarehouse(warehouses.get(i)));
+      // Flush each full JDBC batch and detach it so the persistence context stays small
+      if ((i + 1) % BATCH_SIZE == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    lookupCache.invalidateAll(warehouses.stream().map(w -> w.businessUnitCode).toList());
   }
 
   @Override
@@ -39,6 +147,7 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     dbWarehouse.stock = warehouse.stock;
     dbWarehouse.archivedAt = warehouse.archivedAt;
     this.persist(dbWarehouse);
+    lookupCache.invalidate(warehouse.businessUnitCode);
   }
 
   @Override
@@ -49,12 +158,83 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
       throw new IllegalArgumentException("Warehouse not found: " + warehouse.businessUnitCode);
     }
     this.delete(dbWarehouse);
+    lookupCache.invalidate(warehouse.businessUnitCode);
   }
 
   @Override
   public Warehouse findByBusinessUnitCode(String buCode) {
-    return this.find("businessUnitCode", buCode).firstResultOptional()
-        .map(DbWarehouse::toWarehouse)
+    return findOptionalByBusinessUnitCode(buCode)
         .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + buCode));
   }
+
+  @Override
+  public Optional<Warehouse> findOptionalByBusinessUnitCode(String buCode) {
+    return lookupCache.get(buCode, this::loadByBusinessUnitCode);
+  }
+
+  @Override
+  public boolean existsByBusinessUnitCode(String buCode) {
+    // Served by the lookup cache, which also remembers codes that do not exist
+    return findOptionalByBusinessUnitCode(buCode).isPresent();
+  }
+
+  @Override
+  public Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes) {
+    if (buCodes.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery(
+                "select distinct w.businessUnitCode from DbWarehouse w"
+                    + " where w.businessUnitCode in ?1",
+                String.class)
+            .setParameter(1, buCodes)
+            .getResultList());
+  }
+
+  @Override
+  public LocationOccupancy getActiveOccupancy(String location) {
+    return getEntityManager()
+        .createQuery(
+            "select new " + LocationOccupancy.class.getName()
+                + "(w.location, count(w), sum(w.capacity)) from DbWarehouse w"
+                + " where w.location = ?1 and w.archivedAt is null group by w.location",
+            LocationOccupancy.class)
+        .setParameter(1, location)
+        .getResultStream()
+        .findFirst()
+        .orElseGet(() -> LocationOccupancy.empty(location));
+  }
+
+  @Override
+  public List<LocationOccupancy> getActiveOccupancyByLocation() {
+    return getEntityManager()
+        .createQuery(
+            "select new " + LocationOccupancy.class.getName()
+                + "(w.location, count(w), sum(w.capacity)) from DbWarehouse w"
+                + " where w.archivedAt is null group by w.location",
+            LocationOccupancy.class)
+        .getResultList();
+  }
+
+  private Optional<Warehouse> loadByBusinessUnitCode(String buCode) {
+    return this.find("businessUnitCode", buCode).firstResultOptional()
+        .map(DbWarehouse::toWarehouse);
+  }
+
+  private static long cursor(Long afterId) {
+    return afterId == null ? 0L : afterId;
+  }
+
+  private DbWarehouse toDbWarehouse(Warehouse warehouse) {
+    var dbWarehouse = new DbWarehouse();
+    dbWarehouse.businessUnitCode = warehouse.businessUnitCode;
+    dbWarehouse.location = warehouse.location;
+    dbWarehouse.capacity = warehouse.capacity;
+    dbWarehouse.stock = warehouse.stock;
+    dbWarehouse.createdAt = warehouse.createdAt;
+    dbWarehouse.archivedAt = warehouse.archivedAt;
+    return dbWarehouse;
+  }
 }
@@ -0,0 +1,133 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.common.rest.Ndjson;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.BulkCreateWarehouseUseCase;
+import com.warehouse.api.beans.Warehouse;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Bulk import of warehouses, accepting either a JSON array or newline-delimited JSON with one
+ * warehouse per line. The response reports the outcome of every item.
+ */
+@Path("warehouse/bulk")
+@RequestScoped
+@Produces(MediaType.APPLICATION_JSON)
+public class WarehouseBulkResource {
+
+  @Inject private BulkCreateWarehouseUseCase bulkCreateWarehouseUseCase;
+  @Inject private ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "warehouse.bulk.max-items", defaultValue = "1000")
+  int maxItems = 1000;
+
+  public WarehouseBulkResource() {}
+
+  // Setters for testing
+  public void setBulkCreateWarehouseUseCase(BulkCreateWarehouseUseCase useCase) {
+    this.bulkCreateWarehouseUseCase = useCase;
+  }
+
+  public void setObjectMapper(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public void setMaxItems(int maxItems) {
+    this.maxItems = maxItems;
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  public ObjectNode importWarehouses(List<Warehouse> data) {
+    if (data == null || data.isEmpty()) {
+      throw new WebApplicationException("Request body must contain at least one warehouse", 400);
+    }
+    checkBatchSize(data.size());
+    return importAll(data);
+  }
+
+  @POST
+  @Consumes(Ndjson.APPLICATION_NDJSON)
+  public ObjectNode importWarehousesStream(InputStream body) {
+    List<Warehouse> data = new ArrayList<>();
+    try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        checkBatchSize(data.size() + 1);
+        try {
+          data.add(objectMapper.readValue(line, Warehouse.class));
+        } catch (JsonProcessingException e) {
+          throw new WebApplicationException("Invalid JSON on line " + lineNumber, 400);
+        }
+      }
+    } catch (IOException e) {
+      throw new WebApplicationException("Could not read request body", 400);
+    }
+
+    if (data.isEmpty()) {
+      throw new WebApplicationException("Request body must contain at least one warehouse", 400);
+    }
+    return importAll(data);
+  }
+
+  private void checkBatchSize(int size) {
+    if (size > maxItems) {
+      throw new WebApplicationException(
+          "A bulk import accepts at most " + maxItems + " warehouses", 413);
+    }
+  }
+
+  private ObjectNode importAll(List<Warehouse> data) {
+    var results =
+        bulkCreateWarehouseUseCase.createAll(data.stream().map(this::toDomainWarehouse).toList());
+
+    long created = results.stream().filter(result -> result.created).count();
+    ObjectNode response = objectMapper.createObjectNode();
+    response.put("created", created);
+    response.put("rejected", results.size() - created);
+    var items = response.putArray("results");
+    for (WarehouseImportResult result : results) {
+      var item = items.addObject();
+      item.put("index", result.index);
+      item.put("businessUnitCode", result.businessUnitCode);
+      item.put("created", result.created);
+      if (result.error != null) {
+        item.put("error", result.error);
+      }
+    }
+    return response;
+  }
+
+  private com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toDomainWarehouse(
+      Warehouse warehouse) {
+    var domain = new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
+    domain.businessUnitCode = warehouse.getBusinessUnitCode();
+    domain.location = warehouse.getLocation();
+    domain.capacity = warehouse.getCapacity();
+    domain.stock = warehouse.getStock();
+    return domain;
+  }
+}
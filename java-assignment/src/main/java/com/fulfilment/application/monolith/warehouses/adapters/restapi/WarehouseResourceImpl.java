@@ -1,6 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
 import com.fulfilment.application.monolith.common.validation.RequestValidator;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
@@ -11,11 +12,16 @@ import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.WebApplicationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RequestScoped
 public class WarehouseResourceImpl implements WarehouseResource {
 
+  static final int MAX_PAGE_SIZE = 1000;
+
   @Inject private WarehouseRepository warehouseRepository;
   @Inject private CreateWarehouseUseCase createWarehouseUseCase;
   @Inject private ArchiveWarehouseUseCase archiveWarehouseUseCase;
@@ -47,8 +53,23 @@ public class WarehouseResourceImpl implements WarehouseResource {
   }
 
   @Override
-  public List<Warehouse> listAllWarehousesUnits() {
-    return warehouseRepository.getAll().stream().map(this::toWarehouseResponse).toList();
+  public List<Warehouse> listAllWarehousesUnits(
+      Long after, Integer limit, String status, String archivedSince) {
+    var listed = Listed.parse(status);
+    var since = parseArchivedSince(archivedSince);
+    if (since != null && listed != Listed.ARCHIVED) {
+      throw new WebApplicationException("archivedSince can only be used with status=archived", 400);
+    }
+
+    if (after == null && limit == null) {
+      return list(listed, since).stream().map(this::toWarehouseResponse).toList();
+    }
+
+    int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE, 400);
+    }
+    return page(listed, since, after, pageSize).stream().map(this::toWarehouseResponse).toList();
   }
 
   @Override
@@ -93,6 +114,43 @@ public class WarehouseResourceImpl implements WarehouseResource {
     return data;
   }
 
+  private List<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse> list(
+      Listed listed, LocalDateTime since) {
+    return switch (listed) {
+      case ACTIVE -> warehouseRepository.getActive();
+      case ARCHIVED -> warehouseRepository.getArchived(since);
+      case ALL -> warehouseRepository.getAll();
+    };
+  }
+
+  private List<DbWarehouse> page(Listed listed, LocalDateTime since, Long after, int pageSize) {
+    return switch (listed) {
+      case ACTIVE -> warehouseRepository.listActiveAfter(after, pageSize);
+      case ARCHIVED -> warehouseRepository.listArchivedAfter(since, after, pageSize);
+      case ALL -> warehouseRepository.listAfter(after, pageSize);
+    };
+  }
+
+  private LocalDateTime parseArchivedSince(String archivedSince) {
+    if (archivedSince == null || archivedSince.isBlank()) {
+      return null;
+    }
+    try {
+      return archivedSince.contains("T")
+          ? LocalDateTime.parse(archivedSince)
+          : LocalDate.parse(archivedSince).atStartOfDay();
+    } catch (DateTimeParseException e) {
+      throw new WebApplicationException(
+          "archivedSince must be an ISO-8601 date or date-time: " + archivedSince, 400);
+    }
+  }
+
+  private Warehouse toWarehouseResponse(DbWarehouse dbWarehouse) {
+    var response = toWarehouseResponse(dbWarehouse.toWarehouse());
+    response.setId(String.valueOf(dbWarehouse.id));
+    return response;
+  }
+
   private Warehouse toWarehouseResponse(
       com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
     var response = new Warehouse();
@@ -113,4 +171,23 @@ public class WarehouseResourceImpl implements WarehouseResource {
     domain.stock = warehouse.getStock();
     return domain;
   }
+
+  /** The set of warehouses selected by the {@code status} query parameter. */
+  private enum Listed {
+    ACTIVE,
+    ARCHIVED,
+    ALL;
+
+    static Listed parse(String status) {
+      if (status == null || status.isBlank()) {
+        return ALL;
+      }
+      try {
+        return valueOf(status.trim().toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw new WebApplicationException(
+            "status must be one of active, archived or all: " + status, 400);
+      }
+    }
+  }
 }
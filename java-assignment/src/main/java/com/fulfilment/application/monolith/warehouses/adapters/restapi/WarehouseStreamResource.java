@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.common.rest.Ndjson;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.warehouse.api.beans.Warehouse;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Streams all warehouse units as newline-delimited JSON, one unit per line in id order.
+ * Each row is written as soon as it is read, so heap use stays flat however large the table is.
+ */
+@Path("warehouse/stream")
+@ApplicationScoped
+public class WarehouseStreamResource {
+
+  @Inject private WarehouseRepository warehouseRepository;
+  @Inject private ObjectMapper objectMapper;
+
+  public WarehouseStreamResource() {}
+
+  // Setters for testing
+  public void setWarehouseRepository(WarehouseRepository warehouseRepository) {
+    this.warehouseRepository = warehouseRepository;
+  }
+
+  public void setObjectMapper(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @GET
+  @Produces(Ndjson.APPLICATION_NDJSON)
+  public StreamingOutput streamWarehouses(@QueryParam("after") Long after) {
+    return Ndjson.stream(
+        objectMapper,
+        action ->
+            warehouseRepository.streamAfter(
+                after, warehouse -> action.accept(toWarehouseResponse(warehouse))));
+  }
+
+  private Warehouse toWarehouseResponse(DbWarehouse dbWarehouse) {
+    var response = new Warehouse();
+    response.setId(String.valueOf(dbWarehouse.id));
+    response.setBusinessUnitCode(dbWarehouse.businessUnitCode);
+    response.setLocation(dbWarehouse.location);
+    response.setCapacity(dbWarehouse.capacity);
+    response.setStock(dbWarehouse.stock);
+    return response;
+  }
+}
@@ -0,0 +1,186 @@
+package com.fulfilment.application.monolith.warehouses.domain.ledger;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jboss.logging.Logger;
+
+/**
+ * In-memory ledger of the active warehouse count and total capacity per location.
+ * It lets the location limits be checked without querying the warehouse table, and provides
+ * per-location locks so that concurrent changes to the same location are serialized. Locations map
+ * onto a fixed number of lock stripes, so the locks do not grow with the locations ever seen.
+ * The ledger is built at startup and periodically reconciled against the store.
+ */
+@ApplicationScoped
+public class LocationOccupancyLedger {
+
+  private static final Logger LOGGER = Logger.getLogger(LocationOccupancyLedger.class.getName());
+
+  private static final int LOCK_STRIPES = 256;
+
+  private final WarehouseStore warehouseStore;
+
+  private final Map<String, LocationOccupancy> occupancies = new ConcurrentHashMap<>();
+
+  private final ReentrantLock[] locationLocks = new ReentrantLock[LOCK_STRIPES];
+
+  public LocationOccupancyLedger(WarehouseStore warehouseStore) {
+    this.warehouseStore = warehouseStore;
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locationLocks[i] = new ReentrantLock();
+    }
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    rebuild();
+  }
+
+  /**
+   * Replaces the whole ledger with the occupancy currently stored in the database.
+   */
+  @ActivateRequestContext
+  public void rebuild() {
+    occupancies.clear();
+    for (var occupancy : warehouseStore.getActiveOccupancyByLocation()) {
+      occupancies.put(occupancy.location, occupancy);
+    }
+    LOGGER.info("Location occupancy ledger built for " + occupancies.size() + " locations");
+  }
+
+  /**
+   * Re-reads the occupancy of every known location from the database, one location at a time
+   * while holding that location's lock, so in-flight changes are never overwritten.
+   */
+  @Scheduled(
+      every = "${warehouse.occupancy-ledger.reconcile-interval:5m}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @ActivateRequestContext
+  public void reconcile() {
+    var locations = new HashSet<>(occupancies.keySet());
+    for (var occupancy : warehouseStore.getActiveOccupancyByLocation()) {
+      locations.add(occupancy.location);
+    }
+
+    for (var location : locations) {
+      runWithLocationLock(location, () -> {
+        var stored = warehouseStore.getActiveOccupancy(location);
+        var previous = occupancies.put(location, stored);
+        if (previous != null
+            && (previous.activeWarehouses != stored.activeWarehouses
+                || previous.totalCapacity != stored.totalCapacity)) {
+          LOGGER.warn("Location occupancy ledger drift corrected for location: " + location);
+        }
+      });
+    }
+  }
+
+  /**
+   * Returns the current occupancy of a location, or an empty occupancy if it has no warehouses.
+   *
+   * @param location the location identifier
+   * @return the active warehouse count and total capacity of the location
+   */
+  public LocationOccupancy occupancyOf(String location) {
+    var occupancy = occupancies.get(location);
+    return occupancy != null ? occupancy : LocationOccupancy.empty(location);
+  }
+
+  /**
+   * Runs an action while holding the lock of a location. Checks on the ledger and the changes
+   * they admit must happen inside the same action to be atomic.
+   *
+   * @param location the location identifier, ignored when null
+   * @param action the action to run
+   */
+  public void runWithLocationLock(String location, Runnable action) {
+    if (location == null) {
+      action.run();
+      return;
+    }
+    var lock = locationLocks[stripeOf(location)];
+    lock.lock();
+    try {
+      action.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Runs an action while holding the locks of several locations. The locks are always taken in
+   * stripe order, so two callers locking overlapping sets of locations cannot deadlock.
+   *
+   * @param locations the location identifiers, null entries are ignored
+   * @param action the action to run
+   */
+  public void runWithLocationLocks(Collection<String> locations, Runnable action) {
+    var stripes = new TreeSet<Integer>();
+    locations.stream()
+        .filter(Objects::nonNull)
+        .forEach(location -> stripes.add(stripeOf(location)));
+
+    List<ReentrantLock> acquired = new ArrayList<>(stripes.size());
+    try {
+      for (int stripe : stripes) {
+        var lock = locationLocks[stripe];
+        lock.lock();
+        acquired.add(lock);
+      }
+      action.run();
+    } finally {
+      for (int i = acquired.size() - 1; i >= 0; i--) {
+        acquired.get(i).unlock();
+      }
+    }
+  }
+
+  /**
+   * Records a warehouse that has been persisted as active.
+   *
+   * @param warehouse the created warehouse
+   */
+  public void recordCreated(Warehouse warehouse) {
+    apply(warehouse, 1);
+  }
+
+  /**
+   * Records an active warehouse that has been archived.
+   *
+   * @param warehouse the warehouse as it was before archiving
+   */
+  public void recordArchived(Warehouse warehouse) {
+    apply(warehouse, -1);
+  }
+
+  private static int stripeOf(String location) {
+    return Math.floorMod(location.hashCode(), LOCK_STRIPES);
+  }
+
+  private void apply(Warehouse warehouse, int sign) {
+    long capacity = warehouse.capacity == null ? 0 : warehouse.capacity;
+    occupancies.compute(
+        warehouse.location,
+        (location, current) -> {
+          var base = current != null ? current : LocationOccupancy.empty(location);
+          return new LocationOccupancy(
+              location,
+              Math.max(0, base.activeWarehouses + sign),
+              Math.max(0, base.totalCapacity + sign * capacity));
+        });
+  }
+}
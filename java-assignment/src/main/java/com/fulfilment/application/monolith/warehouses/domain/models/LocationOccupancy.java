@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class LocationOccupancy {
+  public String location;
+
+  // number of active (non-archived) warehouses in this location
+  public long activeWarehouses;
+
+  // sum of the capacities of all active warehouses in this location
+  public long totalCapacity;
+
+  public LocationOccupancy(String location, Long activeWarehouses, Long totalCapacity) {
+    this.location = location;
+    this.activeWarehouses = activeWarehouses == null ? 0 : activeWarehouses;
+    this.totalCapacity = totalCapacity == null ? 0 : totalCapacity;
+  }
+
+  public static LocationOccupancy empty(String location) {
+    return new LocationOccupancy(location, 0L, 0L);
+  }
+}
@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * Outcome of one item of a bulk warehouse import.
+ */
+public class WarehouseImportResult {
+
+  // position of the item in the submitted batch
+  public int index;
+
+  public String businessUnitCode;
+
+  public boolean created;
+
+  // reason the item was rejected, null when created
+  public String error;
+
+  public WarehouseImportResult() {}
+
+  public WarehouseImportResult(int index, String businessUnitCode, boolean created, String error) {
+    this.index = index;
+    this.businessUnitCode = businessUnitCode;
+    this.created = created;
+    this.error = error;
+  }
+
+  public static WarehouseImportResult created(int index, String businessUnitCode) {
+    return new WarehouseImportResult(index, businessUnitCode, true, null);
+  }
+
+  public static WarehouseImportResult rejected(int index, String businessUnitCode, String error) {
+    return new WarehouseImportResult(index, businessUnitCode, false, error);
+  }
+}
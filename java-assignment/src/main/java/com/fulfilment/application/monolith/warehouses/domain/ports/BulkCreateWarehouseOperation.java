@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import java.util.List;
+
+public interface BulkCreateWarehouseOperation {
+  List<WarehouseImportResult> createAll(List<Warehouse> warehouses);
+}
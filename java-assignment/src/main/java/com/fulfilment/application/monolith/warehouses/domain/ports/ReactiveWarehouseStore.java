@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking counterpart of the read side of {@link WarehouseStore}: the same queries, answered
+ * when the database replies instead of on a thread waiting for it.
+ */
+public interface ReactiveWarehouseStore {
+
+  Uni<List<Warehouse>> getAll();
+
+  /**
+   * Returns the warehouses that are not archived.
+   */
+  Uni<List<Warehouse>> getActive();
+
+  /**
+   * Returns the warehouses at a location that are not archived.
+   */
+  Uni<List<Warehouse>> getActiveByLocation(String location);
+
+  /**
+   * Returns the archived warehouses, limited to those archived at or after {@code since} when it
+   * is not null.
+   */
+  Uni<List<Warehouse>> getArchived(LocalDateTime since);
+
+  Uni<Optional<Warehouse>> findOptionalByBusinessUnitCode(String buCode);
+}
@@ -1,17 +1,63 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface WarehouseStore {
 
   List<Warehouse> getAll();
 
+  /**
+   * Returns the warehouses that are not archived.
+   */
+  List<Warehouse> getActive();
+
+  /**
+   * Returns the warehouses at a location that are not archived.
+   */
+  List<Warehouse> getActiveByLocation(String location);
+
+  /**
+   * Returns the archived warehouses, limited to those archived at or after {@code since} when it
+   * is not null.
+   */
+  List<Warehouse> getArchived(LocalDateTime since);
+
   void create(Warehouse warehouse);
 
+  /**
+   * Persists all warehouses in a single transaction, using batched inserts.
+   */
+  void createAll(List<Warehouse> warehouses);
+
   void update(Warehouse warehouse);
 
   void remove(Warehouse warehouse);
 
   Warehouse findByBusinessUnitCode(String buCode);
+
+  Optional<Warehouse> findOptionalByBusinessUnitCode(String buCode);
+
+  boolean existsByBusinessUnitCode(String buCode);
+
+  /**
+   * Returns those of the given business unit codes that are already used by a warehouse.
+   */
+  Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes);
+
+  /**
+   * Returns the number of active warehouses and the sum of their capacities for a location,
+   * computed by the store instead of loading every warehouse.
+   */
+  LocationOccupancy getActiveOccupancy(String location);
+
+  /**
+   * Returns the active occupancy of every location that has at least one active warehouse.
+   */
+  List<LocationOccupancy> getActiveOccupancyByLocation();
 }
@@ -1,9 +1,11 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import java.time.LocalDateTime;
 
 @ApplicationScoped
@@ -11,16 +13,30 @@ public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
 
+  @Inject private LocationOccupancyLedger occupancyLedger;
+
   public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
     this.warehouseStore = warehouseStore;
   }
 
+  public void setOccupancyLedger(LocationOccupancyLedger occupancyLedger) {
+    this.occupancyLedger = occupancyLedger;
+  }
+
   @Override
   public void archive(Warehouse warehouse) {
     var existingWarehouse = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
 
-    existingWarehouse.archivedAt = LocalDateTime.now();
+    // Hold the location lock so a reconcile cannot interleave with the update and the record
+    occupancyLedger.runWithLocationLock(existingWarehouse.location, () -> {
+      boolean wasActive = existingWarehouse.archivedAt == null;
+
+      existingWarehouse.archivedAt = LocalDateTime.now();
 
-    warehouseStore.update(existingWarehouse);
+      warehouseStore.update(existingWarehouse);
+      if (wasActive) {
+        occupancyLedger.recordArchived(existingWarehouse);
+      }
+    });
   }
 }
@@ -0,0 +1,114 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BulkCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.validators.WarehouseValidator;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates a batch of warehouses at once.
+ * The whole batch is validated against one snapshot of the business unit codes in use and of the
+ * occupancy of the locations involved. Each accepted item is added to the snapshot, so later items
+ * are checked against the earlier ones as well. Accepted items are inserted together and rejected
+ * items are reported without failing the batch.
+ */
+@ApplicationScoped
+public class BulkCreateWarehouseUseCase implements BulkCreateWarehouseOperation {
+
+  private final WarehouseStore warehouseStore;
+
+  @Inject private WarehouseValidator validator;
+
+  @Inject private LocationOccupancyLedger occupancyLedger;
+
+  public BulkCreateWarehouseUseCase(WarehouseStore warehouseStore) {
+    this.warehouseStore = warehouseStore;
+  }
+
+  public void setValidator(WarehouseValidator validator) {
+    this.validator = validator;
+  }
+
+  public void setOccupancyLedger(LocationOccupancyLedger occupancyLedger) {
+    this.occupancyLedger = occupancyLedger;
+  }
+
+  @Override
+  public List<WarehouseImportResult> createAll(List<Warehouse> warehouses) {
+    Set<String> locations =
+        warehouses.stream().map(w -> w.location).filter(Objects::nonNull).collect(Collectors.toSet());
+    Set<String> businessUnitCodes =
+        warehouses.stream()
+            .map(w -> w.businessUnitCode)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+    List<WarehouseImportResult> results = new ArrayList<>(warehouses.size());
+
+    // Hold every involved location so no concurrent change can invalidate the snapshot
+    occupancyLedger.runWithLocationLocks(locations, () -> {
+      Set<String> usedCodes =
+          new HashSet<>(warehouseStore.findExistingBusinessUnitCodes(businessUnitCodes));
+      Map<String, LocationOccupancy> occupancies = new HashMap<>();
+      for (var location : locations) {
+        occupancies.put(location, occupancyLedger.occupancyOf(location));
+      }
+
+      var createdAt = LocalDateTime.now();
+      List<Warehouse> accepted = new ArrayList<>();
+      for (int i = 0; i < warehouses.size(); i++) {
+        var warehouse = warehouses.get(i);
+        try {
+          validateRequiredFields(warehouse);
+          validator.validateForCreate(warehouse, usedCodes::contains, occupancies::get);
+        } catch (IllegalArgumentException e) {
+          results.add(WarehouseImportResult.rejected(i, warehouse.businessUnitCode, e.getMessage()));
+          continue;
+        }
+
+        warehouse.createdAt = createdAt;
+        accepted.add(warehouse);
+        usedCodes.add(warehouse.businessUnitCode);
+        occupancies.computeIfPresent(
+            warehouse.location,
+            (location, occupancy) ->
+                new LocationOccupancy(
+                    location,
+                    occupancy.activeWarehouses + 1,
+                    occupancy.totalCapacity + warehouse.capacity));
+        results.add(WarehouseImportResult.created(i, warehouse.businessUnitCode));
+      }
+
+      if (!accepted.isEmpty()) {
+        warehouseStore.createAll(accepted);
+        accepted.forEach(occupancyLedger::recordCreated);
+      }
+    });
+
+    return results;
+  }
+
+  private void validateRequiredFields(Warehouse warehouse) {
+    if (warehouse.businessUnitCode == null
+        || warehouse.location == null
+        || warehouse.capacity == null
+        || warehouse.stock == null) {
+      throw new IllegalArgumentException(
+          "Business unit code, location, capacity and stock are required");
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
@@ -15,6 +16,8 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   @Inject private WarehouseValidator validator;
 
+  @Inject private LocationOccupancyLedger occupancyLedger;
+
   public CreateWarehouseUseCase(WarehouseStore warehouseStore) {
     this.warehouseStore = warehouseStore;
   }
@@ -23,13 +26,21 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
     this.validator = validator;
   }
 
+  public void setOccupancyLedger(LocationOccupancyLedger occupancyLedger) {
+    this.occupancyLedger = occupancyLedger;
+  }
+
   @Override
   public void create(Warehouse warehouse) {
-    // Validate all constraints for warehouse creation
-    validator.validateForCreate(warehouse);
-
-    // Set creation timestamp and persist
-    warehouse.createdAt = LocalDateTime.now();
-    warehouseStore.create(warehouse);
+    // Hold the location lock so concurrent creates cannot both pass the location limits
+    occupancyLedger.runWithLocationLock(warehouse.location, () -> {
+      // Validate all constraints for warehouse creation
+      validator.validateForCreate(warehouse);
+
+      // Set creation timestamp and persist
+      warehouse.createdAt = LocalDateTime.now();
+      warehouseStore.create(warehouse);
+      occupancyLedger.recordCreated(warehouse);
+    });
   }
 }
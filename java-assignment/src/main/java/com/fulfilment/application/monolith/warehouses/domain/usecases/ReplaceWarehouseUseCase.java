@@ -1,5 +1,6 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
@@ -15,6 +16,8 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   @Inject private WarehouseValidator validator;
 
+  @Inject private LocationOccupancyLedger occupancyLedger;
+
   public ReplaceWarehouseUseCase(WarehouseStore warehouseStore) {
     this.warehouseStore = warehouseStore;
   }
@@ -23,20 +26,34 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
     this.validator = validator;
   }
 
+  public void setOccupancyLedger(LocationOccupancyLedger occupancyLedger) {
+    this.occupancyLedger = occupancyLedger;
+  }
+
   @Override
   public void replace(Warehouse newWarehouse) {
-    // Validate all constraints for replacement
-    validator.validateForReplace(newWarehouse);
-
-    // Retrieve the existing warehouse for archiving
-    var existingWarehouse = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
-
-    // Archive the existing warehouse
-    existingWarehouse.archivedAt = LocalDateTime.now();
-    warehouseStore.update(existingWarehouse);
-
-    // Create the new warehouse
-    newWarehouse.createdAt = LocalDateTime.now();
-    warehouseStore.create(newWarehouse);
+    // Hold the new location's lock so the capacity check and the creation are atomic.
+    // Archiving only frees occupancy, so the existing location does not need to be locked.
+    occupancyLedger.runWithLocationLock(newWarehouse.location, () -> {
+      // Validate all constraints for replacement
+      validator.validateForReplace(newWarehouse);
+
+      // Retrieve the existing warehouse for archiving
+      var existingWarehouse =
+          warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
+      boolean wasActive = existingWarehouse.archivedAt == null;
+
+      // Archive the existing warehouse
+      existingWarehouse.archivedAt = LocalDateTime.now();
+      warehouseStore.update(existingWarehouse);
+      if (wasActive) {
+        occupancyLedger.recordArchived(existingWarehouse);
+      }
+
+      // Create the new warehouse
+      newWarehouse.createdAt = LocalDateTime.now();
+      warehouseStore.create(newWarehouse);
+      occupancyLedger.recordCreated(newWarehouse);
+    });
   }
 }
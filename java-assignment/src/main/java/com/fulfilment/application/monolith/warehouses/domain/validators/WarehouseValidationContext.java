@@ -0,0 +1,85 @@
+package com.fulfilment.application.monolith.warehouses.domain.validators;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * State shared by the rules of one validation run.
+ * The warehouse's location and the location's occupancy are looked up on first use and then
+ * reused by every following rule, so each is resolved at most once per validation.
+ */
+public class WarehouseValidationContext {
+
+  private final Warehouse warehouse;
+
+  private final LocationResolver locationResolver;
+
+  private final Predicate<String> businessUnitCodeExists;
+
+  private final Function<String, LocationOccupancy> occupancyLookup;
+
+  private Location location;
+
+  private LocationOccupancy occupancy;
+
+  private Warehouse existingWarehouse;
+
+  public WarehouseValidationContext(
+      Warehouse warehouse,
+      LocationResolver locationResolver,
+      Predicate<String> businessUnitCodeExists,
+      Function<String, LocationOccupancy> occupancyLookup) {
+    this.warehouse = warehouse;
+    this.locationResolver = locationResolver;
+    this.businessUnitCodeExists = businessUnitCodeExists;
+    this.occupancyLookup = occupancyLookup;
+  }
+
+  public Warehouse getWarehouse() {
+    return warehouse;
+  }
+
+  /**
+   * Returns whether the warehouse's business unit code is already in use.
+   */
+  public boolean businessUnitCodeExists() {
+    return businessUnitCodeExists.test(warehouse.businessUnitCode);
+  }
+
+  /**
+   * Returns the warehouse's location, resolving it on first use.
+   *
+   * @throws IllegalArgumentException if the location doesn't exist
+   */
+  public Location getLocation() {
+    if (location == null) {
+      location = locationResolver.resolveByIdentifier(warehouse.location);
+    }
+    return location;
+  }
+
+  /**
+   * Returns the active occupancy of the warehouse's location, loading it on first use.
+   */
+  public LocationOccupancy getOccupancy() {
+    if (occupancy == null) {
+      occupancy = occupancyLookup.apply(warehouse.location);
+    }
+    return occupancy;
+  }
+
+  /**
+   * Returns the warehouse being replaced, or null when validating a creation.
+   */
+  public Warehouse getExistingWarehouse() {
+    return existingWarehouse;
+  }
+
+  public void setExistingWarehouse(Warehouse existingWarehouse) {
+    this.existingWarehouse = existingWarehouse;
+  }
+}
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.warehouses.domain.validators;
+
+/**
+ * A single warehouse business rule. Rules read everything they need from the shared
+ * {@link WarehouseValidationContext} so that adding a rule does not add lookups.
+ */
+@FunctionalInterface
+public interface WarehouseValidationRule {
+
+  /**
+   * Validates the context's warehouse.
+   *
+   * @param context the validation context
+   * @throws IllegalArgumentException if the rule is violated
+   */
+  void validate(WarehouseValidationContext context);
+}
@@ -1,15 +1,24 @@
 package com.fulfilment.application.monolith.warehouses.domain.validators;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Validator for Warehouse business logic rules.
  * This class centralizes all warehouse validation logic to ensure consistency
  * and maintainability across different warehouse use cases.
+ *
+ * <p>Each operation is an ordered pipeline of {@link WarehouseValidationRule}s evaluated against
+ * a single {@link WarehouseValidationContext}, so the location and its occupancy are looked up
+ * once per validation no matter how many rules use them.
  */
 @ApplicationScoped
 public class WarehouseValidator {
@@ -18,6 +27,29 @@ public class WarehouseValidator {
 
   @Inject protected LocationResolver locationResolver;
 
+  @Inject protected LocationOccupancyLedger occupancyLedger;
+
+  // Business Unit Code uniqueness, Location validity, max warehouses per location,
+  // and capacity/stock validation.
+  private final List<WarehouseValidationRule> createRules =
+      List.of(
+          this::validateBusinessUnitCodeDoesNotExist,
+          this::validateLocationExists,
+          this::validateMaxWarehousesNotExceeded,
+          this::validateCapacityAndStock,
+          this::validateCapacityAgainstLocationMaxCapacity);
+
+  // Existence of the replaced warehouse, create validations for the new warehouse,
+  // capacity accommodation and stock matching.
+  private final List<WarehouseValidationRule> replaceRules =
+      List.of(
+          this::validateWarehouseExists,
+          this::validateLocationExists,
+          this::validateCapacityAndStock,
+          this::validateCapacityAgainstLocationMaxCapacityForReplace,
+          this::validateCapacityAccommodatesExistingStock,
+          this::validateStockMatches);
+
   /**
    * Validates all constraints for creating a warehouse.
    * Includes: Business Unit Code uniqueness, Location validity, max warehouses per location,
@@ -27,11 +59,27 @@ public class WarehouseValidator {
    * @throws IllegalArgumentException if any validation fails
    */
   public void validateForCreate(Warehouse warehouse) {
-    validateBusinessUnitCodeDoesNotExist(warehouse.businessUnitCode);
-    validateLocationExists(warehouse.location);
-    validateMaxWarehousesNotExceeded(warehouse.location);
-    validateCapacityAndStock(warehouse);
-    validateCapacityAgainstLocationMaxCapacity(warehouse);
+    validate(createRules, newContext(warehouse));
+  }
+
+  /**
+   * Validates all constraints for creating a warehouse against caller-provided state instead of
+   * the store and the occupancy ledger. Used by bulk imports, which check a whole batch against
+   * one snapshot that already includes the items accepted before this one.
+   *
+   * @param warehouse the warehouse to validate
+   * @param businessUnitCodeExists tells whether a business unit code is already in use
+   * @param occupancyLookup returns the active occupancy of a location
+   * @throws IllegalArgumentException if any validation fails
+   */
+  public void validateForCreate(
+      Warehouse warehouse,
+      Predicate<String> businessUnitCodeExists,
+      Function<String, LocationOccupancy> occupancyLookup) {
+    validate(
+        createRules,
+        new WarehouseValidationContext(
+            warehouse, locationResolver, businessUnitCodeExists, occupancyLookup));
   }
 
   /**
@@ -42,92 +90,87 @@ public class WarehouseValidator {
    * @throws IllegalArgumentException if any validation fails
    */
   public void validateForReplace(Warehouse newWarehouse) {
-    // Validate that the warehouse being replaced exists
-    var existingWarehouse = validateWarehouseExists(newWarehouse.businessUnitCode);
+    validate(replaceRules, newContext(newWarehouse));
+  }
 
-    // Run all create validations for the new warehouse
-    validateLocationExists(newWarehouse.location);
-    validateCapacityAndStock(newWarehouse);
-    validateCapacityAgainstLocationMaxCapacityForReplace(newWarehouse, existingWarehouse);
+  private WarehouseValidationContext newContext(Warehouse warehouse) {
+    return new WarehouseValidationContext(
+        warehouse,
+        locationResolver,
+        warehouseStore::existsByBusinessUnitCode,
+        occupancyLedger::occupancyOf);
+  }
 
-    // Additional validations specific to replacement
-    validateCapacityAccommodatesExistingStock(newWarehouse, existingWarehouse);
-    validateStockMatches(newWarehouse, existingWarehouse);
+  private void validate(List<WarehouseValidationRule> rules, WarehouseValidationContext context) {
+    for (var rule : rules) {
+      rule.validate(context);
+    }
   }
 
   /**
    * Validates that a business unit code doesn't already exist.
    *
-   * @param businessUnitCode the code to check
+   * @param context the validation context
    * @throws IllegalArgumentException if the code already exists
    */
-  private void validateBusinessUnitCodeDoesNotExist(String businessUnitCode) {
-    try {
-      warehouseStore.findByBusinessUnitCode(businessUnitCode);
+  private void validateBusinessUnitCodeDoesNotExist(WarehouseValidationContext context) {
+    if (context.businessUnitCodeExists()) {
       throw new IllegalArgumentException(
-          "Business Unit Code already exists: " + businessUnitCode);
-    } catch (IllegalArgumentException e) {
-      if (!e.getMessage().contains("not found")) {
-        throw e;
-      }
-      // Warehouse not found is the expected case (code doesn't exist yet)
+          "Business Unit Code already exists: " + context.getWarehouse().businessUnitCode);
     }
   }
 
   /**
-   * Validates that a warehouse with the given business unit code exists.
+   * Validates that a warehouse with the given business unit code exists and stores it in the
+   * context as the warehouse being replaced.
    *
-   * @param businessUnitCode the code to check
-   * @return the existing warehouse
+   * @param context the validation context
    * @throws IllegalArgumentException if the warehouse doesn't exist
    */
-  private Warehouse validateWarehouseExists(String businessUnitCode) {
-    try {
-      return warehouseStore.findByBusinessUnitCode(businessUnitCode);
-    } catch (IllegalArgumentException e) {
-      throw new IllegalArgumentException(
-          "Warehouse not found for replacement: " + businessUnitCode);
-    }
+  private void validateWarehouseExists(WarehouseValidationContext context) {
+    var businessUnitCode = context.getWarehouse().businessUnitCode;
+    var existingWarehouse =
+        warehouseStore
+            .findOptionalByBusinessUnitCode(businessUnitCode)
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "Warehouse not found for replacement: " + businessUnitCode));
+    context.setExistingWarehouse(existingWarehouse);
   }
 
   /**
    * Validates that the specified location exists.
    *
-   * @param locationIdentifier the location identifier
+   * @param context the validation context
    * @throws IllegalArgumentException if the location doesn't exist
    */
-  private void validateLocationExists(String locationIdentifier) {
-    locationResolver.resolveByIdentifier(locationIdentifier);
+  private void validateLocationExists(WarehouseValidationContext context) {
+    context.getLocation();
     // If no exception is thrown, the location is valid
   }
 
   /**
    * Validates that the maximum number of warehouses hasn't been exceeded for a location.
    *
-   * @param locationIdentifier the location identifier
+   * @param context the validation context
    * @throws IllegalArgumentException if max warehouses would be exceeded
    */
-  private void validateMaxWarehousesNotExceeded(String locationIdentifier) {
-    var location = locationResolver.resolveByIdentifier(locationIdentifier);
-
-    var warehousesAtLocation =
-        warehouseStore.getAll().stream()
-            .filter(w -> w.location.equals(locationIdentifier) && w.archivedAt == null)
-            .count();
-
-    if (warehousesAtLocation >= location.maxNumberOfWarehouses) {
+  private void validateMaxWarehousesNotExceeded(WarehouseValidationContext context) {
+    if (context.getOccupancy().activeWarehouses >= context.getLocation().maxNumberOfWarehouses) {
       throw new IllegalArgumentException(
-          "Maximum number of warehouses reached for location: " + locationIdentifier);
+          "Maximum number of warehouses reached for location: " + context.getWarehouse().location);
     }
   }
 
   /**
    * Validates that warehouse stock does not exceed capacity.
    *
-   * @param warehouse the warehouse to validate
+   * @param context the validation context
    * @throws IllegalArgumentException if stock exceeds capacity
    */
-  private void validateCapacityAndStock(Warehouse warehouse) {
+  private void validateCapacityAndStock(WarehouseValidationContext context) {
+    var warehouse = context.getWarehouse();
     if (warehouse.stock > warehouse.capacity) {
       throw new IllegalArgumentException(
           "Stock cannot exceed warehouse capacity");
@@ -137,19 +180,14 @@ public class WarehouseValidator {
   /**
    * Validates that warehouse capacity doesn't exceed location's max capacity.
    *
-   * @param newWarehouse the warehouse to validate
+   * @param context the validation context
    * @throws IllegalArgumentException if capacity would exceed location's max capacity
    */
-  private void validateCapacityAgainstLocationMaxCapacity(Warehouse newWarehouse) {
-    var location = locationResolver.resolveByIdentifier(newWarehouse.location);
+  private void validateCapacityAgainstLocationMaxCapacity(WarehouseValidationContext context) {
+    var newWarehouse = context.getWarehouse();
 
-    var totalCapacityAtLocation =
-        warehouseStore.getAll().stream()
-            .filter(w -> w.location.equals(newWarehouse.location) && w.archivedAt == null)
-            .mapToInt(w -> w.capacity)
-            .sum();
-
-    if (totalCapacityAtLocation + newWarehouse.capacity > location.maxCapacity) {
+    if (context.getOccupancy().totalCapacity + newWarehouse.capacity
+        > context.getLocation().maxCapacity) {
       throw new IllegalArgumentException(
           "Warehouse capacity would exceed maximum capacity for location: " + newWarehouse.location);
     }
@@ -159,24 +197,23 @@ public class WarehouseValidator {
    * Validates that warehouse capacity doesn't exceed location's max capacity during replacement.
    * Excludes the existing warehouse from the total capacity calculation.
    *
-   * @param newWarehouse the new warehouse to validate
-   * @param existingWarehouse the warehouse being replaced
+   * @param context the validation context
    * @throws IllegalArgumentException if capacity would exceed location's max capacity
    */
   private void validateCapacityAgainstLocationMaxCapacityForReplace(
-      Warehouse newWarehouse, Warehouse existingWarehouse) {
-    var location = locationResolver.resolveByIdentifier(newWarehouse.location);
+      WarehouseValidationContext context) {
+    var newWarehouse = context.getWarehouse();
+    var existingWarehouse = context.getExistingWarehouse();
 
     // Calculate total capacity excluding the warehouse being replaced
-    var totalCapacityAtLocation =
-        warehouseStore.getAll().stream()
-            .filter(w -> w.location.equals(newWarehouse.location)
-                && w.archivedAt == null
-                && !w.businessUnitCode.equals(existingWarehouse.businessUnitCode))
-            .mapToInt(w -> w.capacity)
-            .sum();
-
-    if (totalCapacityAtLocation + newWarehouse.capacity > location.maxCapacity) {
+    var totalCapacityAtLocation = context.getOccupancy().totalCapacity;
+    if (newWarehouse.location.equals(existingWarehouse.location)
+        && existingWarehouse.archivedAt == null
+        && existingWarehouse.capacity != null) {
+      totalCapacityAtLocation -= existingWarehouse.capacity;
+    }
+
+    if (totalCapacityAtLocation + newWarehouse.capacity > context.getLocation().maxCapacity) {
       throw new IllegalArgumentException(
           "Warehouse capacity would exceed maximum capacity for location: " + newWarehouse.location);
     }
@@ -185,13 +222,11 @@ public class WarehouseValidator {
   /**
    * Validates that the new warehouse's capacity can accommodate the existing warehouse's stock.
    *
-   * @param newWarehouse the new warehouse
-   * @param existingWarehouse the warehouse being replaced
+   * @param context the validation context
    * @throws IllegalArgumentException if capacity is insufficient
    */
-  private void validateCapacityAccommodatesExistingStock(
-      Warehouse newWarehouse, Warehouse existingWarehouse) {
-    if (newWarehouse.capacity < existingWarehouse.stock) {
+  private void validateCapacityAccommodatesExistingStock(WarehouseValidationContext context) {
+    if (context.getWarehouse().capacity < context.getExistingWarehouse().stock) {
       throw new IllegalArgumentException(
           "New warehouse capacity cannot be less than existing warehouse stock");
     }
@@ -200,15 +235,13 @@ public class WarehouseValidator {
   /**
    * Validates that the new warehouse's stock matches the existing warehouse's stock.
    *
-   * @param newWarehouse the new warehouse
-   * @param existingWarehouse the warehouse being replaced
+   * @param context the validation context
    * @throws IllegalArgumentException if stock doesn't match
    */
-  private void validateStockMatches(Warehouse newWarehouse, Warehouse existingWarehouse) {
-    if (!existingWarehouse.stock.equals(newWarehouse.stock)) {
+  private void validateStockMatches(WarehouseValidationContext context) {
+    if (!context.getExistingWarehouse().stock.equals(context.getWarehouse().stock)) {
       throw new IllegalArgumentException(
           "New warehouse stock must match existing warehouse stock");
     }
   }
 }
-
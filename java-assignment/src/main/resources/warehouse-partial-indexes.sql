@@ -0,0 +1,4 @@
+-- PostgreSQL partial indexes for the active and archived warehouse queries.
+-- Active rows are few and queried often; archived rows grow with every replacement.
+CREATE INDEX IF NOT EXISTS idx_warehouse_active_location ON warehouse(location) WHERE archivedAt IS NULL;
+CREATE INDEX IF NOT EXISTS idx_warehouse_archived_at ON warehouse(archivedAt) WHERE archivedAt IS NOT NULL;
@@ -0,0 +1,120 @@
+package com.fulfilment.application.monolith.common.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.AgroalConnectionPoolConfiguration;
+import io.agroal.api.configuration.AgroalDataSourceConfiguration;
+import java.sql.Connection;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptivePoolSizeControllerTest {
+
+  private static final Duration FAST = Duration.ofMillis(1);
+
+  @Mock private AgroalDataSource dataSource;
+  @Mock private AgroalDataSourceConfiguration configuration;
+  @Mock private AgroalConnectionPoolConfiguration poolConfiguration;
+  @Mock private JdbcPoolMonitor poolMonitor;
+  @Mock private Connection connection;
+
+  @Test
+  void testGrowsByAQuarterWhileCallersWaitTooLong() {
+    var controller = controller(true);
+
+    assertEquals(10, controller.nextMaxSize(8, Duration.ofMillis(20), 0, 8, FAST));
+    assertEquals(5, controller.nextMaxSize(4, Duration.ZERO, 3, 4, FAST));
+  }
+
+  @Test
+  void testShrinksWhenTheDatabaseIsSlowEvenIfCallersWait() {
+    var controller = controller(true);
+
+    assertEquals(7, controller.nextMaxSize(8, Duration.ofMillis(20), 5, 8, Duration.ofMillis(80)));
+  }
+
+  @Test
+  void testShrinksAnUnderusedPoolAndKeepsABusyOne() {
+    var controller = controller(true);
+
+    assertEquals(7, controller.nextMaxSize(8, Duration.ZERO, 0, 3, FAST));
+    assertEquals(8, controller.nextMaxSize(8, Duration.ZERO, 0, 4, FAST));
+  }
+
+  @Test
+  void testStaysWithinTheBounds() {
+    var controller = controller(true);
+
+    assertEquals(16, controller.nextMaxSize(16, Duration.ofMillis(20), 0, 16, FAST));
+    assertEquals(2, controller.nextMaxSize(2, Duration.ZERO, 0, 0, Duration.ofMillis(80)));
+    assertEquals(16, controller.nextMaxSize(40, Duration.ZERO, 0, 40, FAST));
+  }
+
+  @Test
+  void testRejectsInvertedBounds() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new AdaptivePoolSizeController(
+                dataSource, poolMonitor, true, 8, 4, Duration.ofMillis(5), Duration.ofMillis(50)));
+  }
+
+  @Test
+  void testAdjustResizesThePool() throws Exception {
+    // Given
+    var controller = controller(true);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.isValid(anyInt())).thenReturn(true);
+    when(dataSource.getConfiguration()).thenReturn(configuration);
+    when(configuration.connectionPoolConfiguration()).thenReturn(poolConfiguration);
+    when(poolConfiguration.maxSize()).thenReturn(8);
+    when(poolConfiguration.minSize()).thenReturn(2);
+    when(poolMonitor.drainWaitMean()).thenReturn(Duration.ofMillis(30));
+    when(poolMonitor.getPendingCount()).thenReturn(4L);
+    when(poolMonitor.getActiveCount()).thenReturn(8L);
+
+    // When
+    controller.adjust();
+
+    // Then
+    verify(poolConfiguration).setMaxSize(10);
+    verify(connection).close();
+    assertEquals(1, controller.getResizeCount());
+    assertTrue(controller.getLastLatencyMillis() >= 0);
+  }
+
+  @Test
+  void testAdjustLeavesThePoolAloneWhenTheProbeFails() throws Exception {
+    // Given
+    var controller = controller(true);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.isValid(anyInt())).thenReturn(false);
+
+    // When
+    controller.adjust();
+
+    // Then
+    verify(dataSource, never()).getConfiguration();
+    assertEquals(0, controller.getResizeCount());
+  }
+
+  @Test
+  void testAdjustDoesNothingWhenDisabled() {
+    // When
+    controller(false).adjust();
+
+    // Then
+    verifyNoInteractions(dataSource, poolMonitor);
+  }
+
+  private AdaptivePoolSizeController controller(boolean enabled) {
+    return new AdaptivePoolSizeController(
+        dataSource, poolMonitor, enabled, 2, 16, Duration.ofMillis(5), Duration.ofMillis(50));
+  }
+}
@@ -0,0 +1,117 @@
+package com.fulfilment.application.monolith.common.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcPoolMonitorTest {
+
+  @Mock private AgroalDataSource dataSource;
+  @Mock private AgroalDataSourceMetrics metrics;
+
+  private SimpleMeterRegistry registry;
+
+  private JdbcPoolMonitor monitor;
+
+  @BeforeEach
+  void setup() {
+    when(dataSource.getMetrics()).thenReturn(metrics);
+    registry = new SimpleMeterRegistry();
+    monitor = new JdbcPoolMonitor(dataSource);
+    monitor.bindTo(registry);
+  }
+
+  @Test
+  void testSampleRecordsEachAcquisitionAtTheIntervalMeanWait() {
+    // Given 4 acquisitions that waited 40ms in total
+    givenTotals(4, Duration.ofMillis(40));
+
+    // When
+    monitor.sample();
+
+    // Then
+    var waits = registry.get(JdbcPoolMonitor.ACQUIRE_WAIT).timer();
+    assertEquals(4, waits.count());
+    assertEquals(40.0, waits.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    assertEquals(10.0, monitor.getLastWaitMeanMillis(), 0.001);
+    assertEquals(0L, monitor.getWaitHistogram().get("le5"));
+    assertEquals(4L, monitor.getWaitHistogram().get("le10"));
+    assertEquals(4L, monitor.getWaitHistogram().get("count"));
+  }
+
+  @Test
+  void testSampleOnlyRecordsAcquisitionsSinceThePreviousSample() {
+    // Given
+    givenTotals(4, Duration.ofMillis(4));
+    monitor.sample();
+    givenTotals(6, Duration.ofMillis(204));
+
+    // When
+    monitor.sample();
+
+    // Then
+    assertEquals(6, registry.get(JdbcPoolMonitor.ACQUIRE_WAIT).timer().count());
+    assertEquals(100.0, monitor.getLastWaitMeanMillis(), 0.001);
+  }
+
+  @Test
+  void testSampleWithoutAcquisitionsRecordsNothing() {
+    // Given
+    givenTotals(0, Duration.ZERO);
+
+    // When
+    monitor.sample();
+
+    // Then
+    assertEquals(0, registry.get(JdbcPoolMonitor.ACQUIRE_WAIT).timer().count());
+    assertEquals(Duration.ZERO, monitor.drainWaitMean());
+  }
+
+  @Test
+  void testDrainWaitMeanAveragesTheWindowAndStartsANewOne() {
+    // Given
+    givenTotals(2, Duration.ofMillis(2));
+    monitor.sample();
+    givenTotals(4, Duration.ofMillis(22));
+    monitor.sample();
+
+    // When / Then
+    assertEquals(Duration.ofNanos(5_500_000), monitor.drainWaitMean());
+    assertEquals(Duration.ZERO, monitor.drainWaitMean());
+  }
+
+  @Test
+  void testGaugesReadThePool() {
+    // Given
+    when(metrics.activeCount()).thenReturn(3L);
+    when(metrics.availableCount()).thenReturn(5L);
+    when(metrics.awaitingCount()).thenReturn(2L);
+    when(metrics.leakDetectionCount()).thenReturn(1L);
+
+    // When / Then
+    assertEquals(3.0, gauge("active"));
+    assertEquals(5.0, gauge("idle"));
+    assertEquals(2.0, gauge("pending"));
+    assertEquals(1.0, registry.get("jdbc.pool.leaks").functionCounter().count());
+  }
+
+  private void givenTotals(long acquires, Duration blocking) {
+    when(metrics.acquireCount()).thenReturn(acquires);
+    when(metrics.blockingTimeTotal()).thenReturn(blocking);
+  }
+
+  private double gauge(String state) {
+    return registry.get("jdbc.pool.connections").tag("state", state).gauge().value();
+  }
+}
@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith.common.persistence;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import io.vertx.jdbcclient.JDBCConnectOptions;
+import io.vertx.jdbcclient.JDBCPool;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * An in-memory H2 database behind a Vert.x JDBC pool, standing in for the reactive PostgreSQL
+ * client in tests. The database lives as long as this object, which keeps a plain JDBC connection
+ * open for setting up the data.
+ */
+public final class ReactiveTestDatabase implements AutoCloseable {
+
+  private final Connection connection;
+
+  private final Vertx vertx;
+
+  private final Pool pool;
+
+  private ReactiveTestDatabase(String name) throws SQLException {
+    String url = "jdbc:h2:mem:" + name + ";MODE=PostgreSQL";
+    this.connection = DriverManager.getConnection(url, "sa", "");
+    this.vertx = Vertx.vertx();
+    this.pool =
+        Pool.newInstance(
+            JDBCPool.pool(
+                vertx,
+                new JDBCConnectOptions().setJdbcUrl(url).setUser("sa").setPassword(""),
+                new PoolOptions().setMaxSize(4)));
+  }
+
+  /** Opens the database {@code name} and runs the given statements on it. */
+  public static ReactiveTestDatabase open(String name, String... statements) throws SQLException {
+    var database = new ReactiveTestDatabase(name);
+    database.execute(statements);
+    return database;
+  }
+
+  public void execute(String... statements) throws SQLException {
+    try (var statement = connection.createStatement()) {
+      for (String sql : statements) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  /** A read pool on this database, in reactive mode; JDBC takes {@code ?} parameters. */
+  public ReactiveReadPool readPool() {
+    return new ReactiveReadPool(pool, false);
+  }
+
+  /** Waits for a reactive read, at most five seconds. */
+  public static <T> T await(Uni<T> read) {
+    return read.await().atMost(Duration.ofSeconds(5));
+  }
+
+  @Override
+  public void close() throws SQLException {
+    pool.closeAndAwait();
+    vertx.close().toCompletionStage().toCompletableFuture().join();
+    connection.close();
+  }
+}
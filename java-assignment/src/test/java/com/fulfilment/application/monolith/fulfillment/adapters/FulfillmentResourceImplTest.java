@@ -3,15 +3,15 @@ package com.fulfilment.application.monolith.fulfillment.adapters;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.adapters.restapi.AssociationResponse;
 import com.fulfilment.application.monolith.fulfillment.adapters.restapi.FulfillmentResourceImpl;
 import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
 import com.fulfilment.application.monolith.fulfillment.domain.usecases.AssociateWarehouseToProductInStoreUseCase;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,15 +22,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 public class FulfillmentResourceImplTest {
 
   @Mock private AssociateWarehouseToProductInStoreUseCase associateUseCase;
-  @Mock private WarehouseProductStoreAssociationRepository associationRepository;
+  private FulfillmentTopology topology;
 
   private FulfillmentResourceImpl resource;
 
   @BeforeEach
   void setup() {
+    topology = new FulfillmentTopology(null, null);
     resource = new FulfillmentResourceImpl();
     resource.setAssociateUseCase(associateUseCase);
-    resource.setAssociationRepository(associationRepository);
+    resource.setTopology(topology);
   }
 
   @Test
@@ -56,16 +57,12 @@ public class FulfillmentResourceImplTest {
 
   @Test
   void testGetAssociationsByWarehouseEmpty() {
-    // Given
-    when(associationRepository.findByWarehouse("WH-001")).thenReturn(new ArrayList<>());
-
     // When
-    List<Map<String, Object>> result = resource.getAssociationsByWarehouse("WH-001");
+    List<AssociationResponse> result = resource.getAssociationsByWarehouse("WH-001", null, null);
 
     // Then
     assertNotNull(result);
     assertEquals(0, result.size());
-    verify(associationRepository).findByWarehouse("WH-001");
   }
 
   @Test
@@ -85,25 +82,68 @@ public class FulfillmentResourceImplTest {
     a2.storeId = 1L;
     a2.createdAt = LocalDateTime.now();
 
-    when(associationRepository.findByWarehouse("WH-001")).thenReturn(List.of(a1, a2));
+    topology.recordCreated(List.of(a1, a2));
 
     // When
-    List<Map<String, Object>> result = resource.getAssociationsByWarehouse("WH-001");
+    List<AssociationResponse> result = resource.getAssociationsByWarehouse("WH-001", null, null);
 
     // Then
     assertNotNull(result);
     assertEquals(2, result.size());
-    assertEquals(1L, result.get(0).get("id"));
-    assertEquals(2L, result.get(1).get("id"));
+    assertEquals(1L, result.get(0).id());
+    assertEquals(2L, result.get(1).id());
   }
 
   @Test
-  void testGetAssociationsByStoreEmpty() {
+  void testGetAssociationsByWarehousePagesInIdOrder() {
+    // Given - committed out of id order
+    topology.recordCreated(
+        List.of(
+            createAssociation(3L, "WH-001", 3L, 1L),
+            createAssociation(1L, "WH-001", 1L, 2L),
+            createAssociation(2L, "WH-001", 2L, 3L)));
+
+    // When
+    List<AssociationResponse> firstPage = resource.getAssociationsByWarehouse("WH-001", null, 2);
+    List<AssociationResponse> secondPage = resource.getAssociationsByWarehouse("WH-001", 2L, 2);
+
+    // Then
+    assertEquals(List.of(1L, 2L), firstPage.stream().map(AssociationResponse::id).toList());
+    assertEquals(List.of(3L), secondPage.stream().map(AssociationResponse::id).toList());
+  }
+
+  @Test
+  void testGetAssociationsByStorePagesAfterCursor() {
     // Given
-    when(associationRepository.findByStore(1L)).thenReturn(new ArrayList<>());
+    topology.recordCreated(
+        List.of(createAssociation(1L, "WH-001", 1L, 1L), createAssociation(2L, "WH-002", 1L, 1L)));
 
     // When
-    List<Map<String, Object>> result = resource.getAssociationsByStore(1L);
+    List<AssociationResponse> result = resource.getAssociationsByStore(1L, 1L, null);
+
+    // Then
+    assertEquals(1, result.size());
+    assertEquals("WH-002", result.get(0).warehouseBusinessUnitCode());
+  }
+
+  @Test
+  void testGetAssociationsRejectsLimitOutOfRange() {
+    WebApplicationException tooSmall =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.getAssociationsByWarehouse("WH-001", null, 0));
+    assertEquals(400, tooSmall.getResponse().getStatus());
+
+    WebApplicationException tooLarge =
+        assertThrows(
+            WebApplicationException.class, () -> resource.getAssociationsByStore(1L, null, 1001));
+    assertEquals(400, tooLarge.getResponse().getStatus());
+  }
+
+  @Test
+  void testGetAssociationsByStoreEmpty() {
+    // When
+    List<AssociationResponse> result = resource.getAssociationsByStore(1L, null, null);
 
     // Then
     assertNotNull(result);
@@ -120,24 +160,21 @@ public class FulfillmentResourceImplTest {
     a1.storeId = 1L;
     a1.createdAt = LocalDateTime.now();
 
-    when(associationRepository.findByStore(1L)).thenReturn(List.of(a1));
+    topology.recordCreated(List.of(a1));
 
     // When
-    List<Map<String, Object>> result = resource.getAssociationsByStore(1L);
+    List<AssociationResponse> result = resource.getAssociationsByStore(1L, null, null);
 
     // Then
     assertNotNull(result);
     assertEquals(1, result.size());
-    assertEquals("WH-001", result.get(0).get("warehouseBusinessUnitCode"));
+    assertEquals("WH-001", result.get(0).warehouseBusinessUnitCode());
   }
 
   @Test
   void testGetAssociationsByProductStoreEmpty() {
-    // Given
-    when(associationRepository.findByProductAndStore(1L, 1L)).thenReturn(new ArrayList<>());
-
     // When
-    List<Map<String, Object>> result = resource.getAssociationsByProductStore(1L, 1L);
+    List<AssociationResponse> result = resource.getAssociationsByProductStore(1L, 1L);
 
     // Then
     assertNotNull(result);
@@ -154,15 +191,26 @@ public class FulfillmentResourceImplTest {
     a1.storeId = 1L;
     a1.createdAt = LocalDateTime.now();
 
-    when(associationRepository.findByProductAndStore(1L, 1L)).thenReturn(List.of(a1));
+    topology.recordCreated(List.of(a1));
 
     // When
-    List<Map<String, Object>> result = resource.getAssociationsByProductStore(1L, 1L);
+    List<AssociationResponse> result = resource.getAssociationsByProductStore(1L, 1L);
 
     // Then
     assertNotNull(result);
     assertEquals(1, result.size());
-    assertEquals(1L, result.get(0).get("productId"));
-    assertEquals(1L, result.get(0).get("storeId"));
+    assertEquals(1L, result.get(0).productId());
+    assertEquals(1L, result.get(0).storeId());
+  }
+
+  private WarehouseProductStoreAssociation createAssociation(
+      Long id, String warehouseCode, Long productId, Long storeId) {
+    WarehouseProductStoreAssociation association = new WarehouseProductStoreAssociation();
+    association.id = id;
+    association.warehouseBusinessUnitCode = warehouseCode;
+    association.productId = productId;
+    association.storeId = storeId;
+    association.createdAt = LocalDateTime.now();
+    return association;
   }
 }
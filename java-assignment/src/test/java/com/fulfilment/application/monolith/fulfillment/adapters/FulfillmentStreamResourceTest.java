@@ -0,0 +1,78 @@
+package com.fulfilment.application.monolith.fulfillment.adapters;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.adapters.restapi.FulfillmentStreamResource;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class FulfillmentStreamResourceTest {
+
+  @Mock private WarehouseProductStoreAssociationRepository associationRepository;
+
+  private FulfillmentStreamResource resource;
+
+  @BeforeEach
+  void setup() {
+    resource = new FulfillmentStreamResource();
+    resource.setAssociationRepository(associationRepository);
+    resource.setObjectMapper(new ObjectMapper());
+  }
+
+  @Test
+  void testStreamByWarehouseWritesOneLinePerAssociation() throws Exception {
+    // Given
+    doAnswer(invocation -> {
+          Consumer<WarehouseProductStoreAssociation> action = invocation.getArgument(2);
+          action.accept(createAssociation(1L, "MWH.001", 1L, 1L));
+          action.accept(createAssociation(2L, "MWH.001", 2L, 5L));
+          return null;
+        })
+        .when(associationRepository).streamByWarehouseAfter(eq("MWH.001"), eq(null), any());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    // When
+    resource.streamByWarehouse("MWH.001", null).write(output);
+
+    // Then
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    ObjectMapper mapper = new ObjectMapper();
+    assertEquals(1L, mapper.readTree(lines[0]).get("id").asLong());
+    assertEquals(5L, mapper.readTree(lines[1]).get("storeId").asLong());
+  }
+
+  @Test
+  void testStreamByStoreStartsAfterCursor() throws Exception {
+    // Given
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    // When
+    resource.streamByStore(7L, 42L).write(output);
+
+    // Then
+    verify(associationRepository).streamByStoreAfter(eq(7L), eq(42L), any());
+    assertEquals(0, output.size());
+  }
+
+  private WarehouseProductStoreAssociation createAssociation(
+      Long id, String warehouseCode, Long productId, Long storeId) {
+    WarehouseProductStoreAssociation association = new WarehouseProductStoreAssociation();
+    association.id = id;
+    association.warehouseBusinessUnitCode = warehouseCode;
+    association.productId = productId;
+    association.storeId = storeId;
+    return association;
+  }
+}
@@ -1,5 +1,7 @@
 package com.fulfilment.application.monolith.fulfillment.adapters.database;
 
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationConstraintCounts;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationCounters;
 import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -7,7 +9,9 @@ import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,4 +114,112 @@ class WarehouseProductStoreAssociationRepositoryTest {
         int count = repo.countProductsForWarehouse("W7");
         assertTrue(count >= 1);
     }
+
+    @Test
+    @Transactional
+    void testCountsAreDistinct() {
+        create("W8", 30L, 40L);
+        create("W8", 31L, 40L);
+        create("W9", 30L, 40L);
+        create("W8", 30L, 41L);
+        assertEquals(2, repo.countWarehousesForStore(40L));
+        assertEquals(2, repo.countProductsForWarehouse("W8"));
+    }
+
+    @Test
+    @Transactional
+    void testCountConstraintsReadsAllLimitsAtOnce() {
+        create("W11", 70L, 80L);
+        create("W12", 70L, 80L);
+        create("W11", 71L, 81L);
+        create("W13", 72L, 80L);
+
+        AssociationConstraintCounts counts = repo.countConstraints("W11", 70L, 80L);
+
+        assertEquals(2, counts.warehousesForProductStore);
+        assertEquals(3, counts.warehousesForStore);
+        assertEquals(2, counts.productsForWarehouse);
+        assertTrue(counts.warehouseInStore);
+        assertTrue(counts.productInWarehouse);
+    }
+
+    @Test
+    @Transactional
+    void testCountConstraintsWithoutRows() {
+        AssociationConstraintCounts counts = repo.countConstraints("UNKNOWN", 1L, 1L);
+
+        assertEquals(0, counts.warehousesForProductStore);
+        assertEquals(0, counts.warehousesForStore);
+        assertEquals(0, counts.productsForWarehouse);
+        assertFalse(counts.warehouseInStore);
+        assertFalse(counts.productInWarehouse);
+    }
+
+    @Test
+    @Transactional
+    void testCreateAllAssignsIdsAcrossJdbcBatches() {
+        List<WarehouseProductStoreAssociation> associations = new ArrayList<>();
+        for (long i = 0; i < 120; i++) {
+            WarehouseProductStoreAssociation assoc = new WarehouseProductStoreAssociation();
+            assoc.warehouseBusinessUnitCode = "BATCH-" + (i % 10);
+            assoc.productId = 500L + i;
+            assoc.storeId = 600L;
+            associations.add(assoc);
+        }
+
+        List<WarehouseProductStoreAssociation> created = repo.createAll(associations);
+
+        assertEquals(120, created.size());
+        assertTrue(created.stream().allMatch(a -> a.id != null));
+        assertEquals(120, repo.findByStore(600L).size());
+    }
+
+    @Test
+    @Transactional
+    void testLoadCountersSeedsLimitsFromStoredRows() {
+        create("W14", 90L, 95L);
+        create("W15", 90L, 95L);
+        create("W16", 91L, 95L);
+
+        AssociationCounters counters =
+            repo.loadCounters(Set.of("W14"), Set.of(90L), Set.of(95L));
+
+        assertEquals(
+            "Maximum number of warehouses (2) reached for this product in this store",
+            counters.violation("W17", 90L, 95L));
+        assertEquals(
+            "Maximum number of warehouses (3) reached for this store",
+            counters.violation("W17", 92L, 95L));
+        assertNull(counters.violation("W14", 92L, 95L));
+    }
+
+    @Test
+    @Transactional
+    void testStreamByWarehouseAndStoreAfterCursorInIdOrder() {
+        create("W18", 1L, 97L);
+        create("W18", 2L, 98L);
+        create("W19", 3L, 98L);
+        create("W18", 4L, 99L);
+
+        List<Long> warehouseRows = new ArrayList<>();
+        repo.streamByWarehouseAfter("W18", null, a -> warehouseRows.add(a.productId));
+        assertEquals(List.of(1L, 2L, 4L), warehouseRows);
+
+        List<WarehouseProductStoreAssociation> storeRows = new ArrayList<>();
+        repo.streamByStoreAfter(98L, null, storeRows::add);
+        assertEquals(List.of("W18", "W19"),
+            storeRows.stream().map(a -> a.warehouseBusinessUnitCode).toList());
+
+        List<Long> afterCursor = new ArrayList<>();
+        repo.streamByStoreAfter(98L, storeRows.get(0).id, a -> afterCursor.add(a.productId));
+        assertEquals(List.of(3L), afterCursor);
+    }
+
+    private void create(String warehouseCode, Long productId, Long storeId) {
+        WarehouseProductStoreAssociation assoc = new WarehouseProductStoreAssociation();
+        assoc.warehouseBusinessUnitCode = warehouseCode;
+        assoc.productId = productId;
+        assoc.storeId = storeId;
+        repo.create(assoc);
+    }
 }
@@ -0,0 +1,147 @@
+package com.fulfilment.application.monolith.fulfillment.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Stress test of the association limits: 64 parallel clients compete for the same stores,
+ * warehouses and products, and none of the limits may be exceeded.
+ */
+@QuarkusTest
+public class AssociationConcurrencyTest {
+
+  private static final int CLIENTS = 64;
+
+  @Inject WarehouseRepository warehouseRepository;
+
+  @Inject WarehouseProductStoreAssociationRepository associationRepository;
+
+  @Test
+  public void testLimitsHoldUnderParallelClients() throws Exception {
+    // Given - two stores, six warehouses and six products
+    List<Long> stores = List.of(createStore("STRESS-STORE-1"), createStore("STRESS-STORE-2"));
+    List<String> warehouses = new ArrayList<>();
+    List<Long> products = new ArrayList<>();
+    for (int i = 1; i <= 6; i++) {
+      warehouses.add(createArchivedWarehouse("STRESS-WH-" + i));
+      products.add(createProduct("STRESS-PRODUCT-" + i));
+    }
+
+    // When - every client tries one association, all released at once
+    Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int i = 0; i < CLIENTS; i++) {
+      Long storeId = stores.get(i % 2);
+      String warehouseCode = warehouses.get((i / 2) % 6);
+      Long productId = products.get((i / 12) % 6);
+      executor.submit(() -> {
+        start.await();
+        int status =
+            given()
+                .contentType("application/json")
+                .when()
+                .post(
+                    "fulfillment/warehouse/" + warehouseCode
+                        + "/product/" + productId + "/store/" + storeId)
+                .then()
+                .extract()
+                .statusCode();
+        statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+    // Then - only admissions and limit rejections, and every limit holds
+    assertEquals(CLIENTS, statuses.values().stream().mapToInt(AtomicInteger::get).sum());
+    List<Integer> unexpected =
+        statuses.keySet().stream().filter(status -> status != 201 && status != 400).toList();
+    assertTrue(unexpected.isEmpty(), "Unexpected statuses " + unexpected + " in " + statuses);
+    assertTrue(statuses.containsKey(201), "Some associations should be admitted: " + statuses);
+
+    List<WarehouseProductStoreAssociation> stored = new ArrayList<>();
+    stores.forEach(storeId -> stored.addAll(associationRepository.findByStore(storeId)));
+    assertEquals(statuses.get(201).get(), stored.size());
+
+    for (Long storeId : stores) {
+      var ofStore = stored.stream().filter(a -> a.storeId.equals(storeId)).toList();
+      assertTrue(ofStore.stream().map(a -> a.warehouseBusinessUnitCode).distinct().count() <= 3);
+      ofStore.stream()
+          .collect(Collectors.groupingBy(a -> a.productId, Collectors.counting()))
+          .values()
+          .forEach(count -> assertTrue(count <= 2));
+    }
+    for (String warehouseCode : warehouses) {
+      assertTrue(
+          stored.stream()
+                  .filter(a -> a.warehouseBusinessUnitCode.equals(warehouseCode))
+                  .map(a -> a.productId)
+                  .distinct()
+                  .count()
+              <= 5);
+    }
+  }
+
+  private Long createStore(String name) {
+    Object id =
+        given()
+            .contentType("application/json")
+            .body("{\"name\": \"" + name + "\", \"quantityProductsInStock\": 1}")
+            .when()
+            .post("store")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    return Long.valueOf(id.toString());
+  }
+
+  private Long createProduct(String name) {
+    Object id =
+        given()
+            .contentType("application/json")
+            .body("{\"name\": \"" + name + "\", \"stock\": 1}")
+            .when()
+            .post("product")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    return Long.valueOf(id.toString());
+  }
+
+  // Archived, so the warehouse does not count towards any location limit
+  private String createArchivedWarehouse(String code) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = 10;
+    warehouse.stock = 0;
+    warehouse.createdAt = LocalDateTime.now();
+    warehouse.archivedAt = LocalDateTime.now();
+    warehouseRepository.create(warehouse);
+    return code;
+  }
+}
@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.fulfillment.adapters.restapi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the heap allocated to serialize a large warehouse assortment through per-row maps, as
+ * the lookups used to, and through typed responses.
+ */
+public class AssociationResponseAllocationTest {
+
+  private static final int ROWS = 10_000;
+
+  private static final int ROUNDS = 10;
+
+  private ObjectMapper objectMapper;
+
+  private FulfillmentTopology topology;
+
+  @BeforeEach
+  void setup() {
+    objectMapper =
+        new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    topology = new FulfillmentTopology(null, null);
+    List<WarehouseProductStoreAssociation> associations = new ArrayList<>();
+    for (long i = 1; i <= ROWS; i++) {
+      var association = new WarehouseProductStoreAssociation();
+      association.id = i;
+      association.warehouseBusinessUnitCode = "MWH.001";
+      association.productId = 1_000 + i % 5;
+      association.storeId = i;
+      association.createdAt = LocalDateTime.of(2024, 7, 1, 10, 15, 30);
+      associations.add(association);
+    }
+    topology.recordCreated(associations);
+  }
+
+  @Test
+  void testTypedResponsesSerializeLikeTheMaps() throws Exception {
+    assertEquals(
+        objectMapper.readTree(objectMapper.writeValueAsBytes(viaMaps())),
+        objectMapper.readTree(objectMapper.writeValueAsBytes(viaResponses())));
+  }
+
+  @Test
+  void testTypedResponsesAllocateLessThanPerRowMaps() throws Exception {
+    // Warm up both paths so class loading and serializer lookup are not measured
+    for (int i = 0; i < ROUNDS; i++) {
+      objectMapper.writeValueAsBytes(viaMaps());
+      objectMapper.writeValueAsBytes(viaResponses());
+    }
+
+    long mapBytes = allocatedBy(() -> objectMapper.writeValueAsBytes(viaMaps()));
+    long responseBytes = allocatedBy(() -> objectMapper.writeValueAsBytes(viaResponses()));
+
+    assertTrue(
+        responseBytes < mapBytes,
+        "Bytes allocated per lookup of " + ROWS + " rows: maps " + mapBytes / ROUNDS
+            + ", typed responses " + responseBytes / ROUNDS);
+  }
+
+  private List<Map<String, Object>> viaMaps() {
+    return topology.findByWarehouse("MWH.001").stream()
+        .map(
+            a -> {
+              Map<String, Object> map = new HashMap<>();
+              map.put("id", a.id);
+              map.put("warehouseBusinessUnitCode", a.warehouseBusinessUnitCode);
+              map.put("productId", a.productId);
+              map.put("storeId", a.storeId);
+              map.put("createdAt", a.createdAt);
+              return map;
+            })
+        .toList();
+  }
+
+  private List<AssociationResponse> viaResponses() {
+    return topology.findByWarehouse("MWH.001", AssociationResponse::new);
+  }
+
+  private long allocatedBy(Callable<?> action) throws Exception {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ROUNDS; i++) {
+      action.call();
+    }
+    return threads.getThreadAllocatedBytes(threadId) - before;
+  }
+}
@@ -1,14 +1,20 @@
 package com.fulfilment.application.monolith.fulfillment.adapters.restapi;
 
-import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationBatchResult;
 import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
 import com.fulfilment.application.monolith.fulfillment.domain.usecases.AssociateWarehouseToProductInStoreUseCase;
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
+import com.fulfilment.application.monolith.fulfillment.domain.usecases.BatchAssociateWarehouseToProductInStoreUseCase;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -17,21 +23,21 @@ class FulfillmentResourceImplTest {
 
     private FulfillmentResourceImpl resource;
     private AssociateWarehouseToProductInStoreUseCase useCase;
-    private WarehouseProductStoreAssociationRepository repo;
+    private FulfillmentTopology topology;
 
     @BeforeEach
     void setup() throws Exception {
         resource = new FulfillmentResourceImpl();
         useCase = mock(AssociateWarehouseToProductInStoreUseCase.class);
-        repo = mock(WarehouseProductStoreAssociationRepository.class);
+        topology = mock(FulfillmentTopology.class);
 
         Field useCaseField = FulfillmentResourceImpl.class.getDeclaredField("associateUseCase");
         useCaseField.setAccessible(true);
         useCaseField.set(resource, useCase);
 
-        Field repoField = FulfillmentResourceImpl.class.getDeclaredField("associationRepository");
-        repoField.setAccessible(true);
-        repoField.set(resource, repo);
+        Field topologyField = FulfillmentResourceImpl.class.getDeclaredField("topology");
+        topologyField.setAccessible(true);
+        topologyField.set(resource, topology);
     }
 
     @Test
@@ -45,19 +51,66 @@ class FulfillmentResourceImplTest {
 
     @Test
     void testGetAssociationsByWarehouse() {
-        when(repo.findByWarehouse("W1")).thenReturn(Collections.emptyList());
-        assertNotNull(resource.getAssociationsByWarehouse("W1"));
+        when(topology.findByWarehouse("W1")).thenReturn(Collections.emptyList());
+        assertNotNull(resource.getAssociationsByWarehouse("W1", null, null));
     }
 
     @Test
     void testGetAssociationsByStore() {
-        when(repo.findByStore(2L)).thenReturn(Collections.emptyList());
-        assertNotNull(resource.getAssociationsByStore(2L));
+        when(topology.findByStore(2L)).thenReturn(Collections.emptyList());
+        assertNotNull(resource.getAssociationsByStore(2L, null, null));
     }
 
     @Test
     void testGetAssociationsByProductStore() {
-        when(repo.findByProductAndStore(1L, 2L)).thenReturn(Collections.emptyList());
+        when(topology.findByProductAndStore(1L, 2L)).thenReturn(Collections.emptyList());
         assertNotNull(resource.getAssociationsByProductStore(1L, 2L));
     }
+
+    @Test
+    void testAssociateBatch() {
+        BatchAssociateWarehouseToProductInStoreUseCase batchUseCase =
+            mock(BatchAssociateWarehouseToProductInStoreUseCase.class);
+        resource.setBatchAssociateUseCase(batchUseCase);
+        resource.setObjectMapper(new ObjectMapper());
+
+        WarehouseProductStoreAssociation first = association("W1", 1L, 2L);
+        WarehouseProductStoreAssociation second = association("W2", 1L, 2L);
+        AssociationBatchResult created = AssociationBatchResult.created(0, first);
+        created.id = 7L;
+        when(batchUseCase.associateAll(List.of(first, second)))
+            .thenReturn(List.of(created, AssociationBatchResult.rejected(1, second, "Too many")));
+
+        ObjectNode response = resource.associateBatch(List.of(first, second));
+
+        assertEquals(1, response.get("created").asInt());
+        assertEquals(1, response.get("rejected").asInt());
+        assertEquals(7L, response.get("results").get(0).get("id").asLong());
+        assertEquals("Too many", response.get("results").get(1).get("error").asText());
+    }
+
+    @Test
+    void testAssociateBatchRejectsEmptyAndOversizedBatches() {
+        resource.setMaxBatchItems(1);
+
+        WebApplicationException empty =
+            assertThrows(WebApplicationException.class, () -> resource.associateBatch(List.of()));
+        assertEquals(400, empty.getResponse().getStatus());
+
+        WebApplicationException oversized =
+            assertThrows(
+                WebApplicationException.class,
+                () -> resource.associateBatch(
+                    List.of(association("W1", 1L, 2L), association("W2", 1L, 2L))));
+        assertEquals(413, oversized.getResponse().getStatus());
+    }
+
+    private WarehouseProductStoreAssociation association(
+        String warehouseCode, Long productId, Long storeId) {
+        WarehouseProductStoreAssociation association = new WarehouseProductStoreAssociation();
+        association.warehouseBusinessUnitCode = warehouseCode;
+        association.productId = productId;
+        association.storeId = storeId;
+        return association;
+    }
 }
@@ -0,0 +1,147 @@
+package com.fulfilment.application.monolith.fulfillment.domain.locks;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class AssociationLocksTest {
+
+  @Test
+  void testConcurrentChangesToSameStoreAreSerialized() throws Exception {
+    // Given
+    AssociationLocks locks = new AssociationLocks(1024, Duration.ofSeconds(10), null);
+    int clients = 16;
+    AtomicInteger inside = new AtomicInteger();
+    AtomicInteger maxInside = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    CountDownLatch start = new CountDownLatch(1);
+
+    // When
+    for (int i = 0; i < clients; i++) {
+      String warehouseCode = "MWH." + i;
+      executor.submit(() -> {
+        start.await();
+        return locks.callWithLocks(List.of(1L), List.of(warehouseCode), () -> {
+          maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+          Thread.yield();
+          return inside.decrementAndGet();
+        });
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    // Then
+    assertEquals(1, maxInside.get());
+  }
+
+  @Test
+  void testChangesToDifferentStoresAndWarehousesDoNotContend() throws Exception {
+    // Given - one caller holds store 1 and warehouse A
+    AssociationLocks locks = new AssociationLocks(1024, Duration.ofSeconds(10), null);
+    CountDownLatch holding = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Object> holder = executor.submit(() ->
+        locks.callWithLocks(List.of(1L), List.of("MWH.A"), () -> {
+          holding.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return null;
+        }));
+    assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+    // When - another caller changes store 2 and warehouse B
+    String result = locks.callWithLocks(List.of(2L), List.of("MWH.B"), () -> "done");
+
+    // Then
+    assertEquals("done", result);
+    release.countDown();
+    holder.get(5, TimeUnit.SECONDS);
+    executor.shutdown();
+  }
+
+  @Test
+  void testWaitingTooLongFailsWithServiceUnavailable() throws Exception {
+    // Given - a store locked by the open transaction of this thread
+    TransactionSynchronizationRegistry registry = transactionOfCurrentThread();
+    AssociationLocks locks = new AssociationLocks(1024, Duration.ofMillis(50), registry);
+    locks.callWithLocks(List.of(1L), List.of(), () -> null);
+
+    // When - another thread changes the same store
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<WebApplicationException> failure = executor.submit(() ->
+        assertThrows(
+            WebApplicationException.class,
+            () -> locks.callWithLocks(List.of(1L), List.of(), () -> null)));
+
+    // Then
+    assertEquals(503, failure.get(5, TimeUnit.SECONDS).getResponse().getStatus());
+    executor.shutdown();
+  }
+
+  @Test
+  void testLocksAreHeldUntilTheTransactionCompletes() throws Exception {
+    // Given
+    TransactionSynchronizationRegistry registry = transactionOfCurrentThread();
+    AssociationLocks locks = new AssociationLocks(1024, Duration.ofMillis(50), registry);
+
+    // When - two calls in the same transaction lock the same store
+    locks.callWithLocks(List.of(1L), List.of("MWH.001"), () -> null);
+    locks.callWithLocks(List.of(1L), List.of("MWH.001"), () -> null);
+
+    // Then - other threads can only lock the store once the transaction has completed
+    ArgumentCaptor<Synchronization> synchronization =
+        ArgumentCaptor.forClass(Synchronization.class);
+    verify(registry, times(1)).registerInterposedSynchronization(synchronization.capture());
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<?> whileOpen = executor.submit(() ->
+        locks.callWithLocks(List.of(1L), List.of(), () -> "done"));
+    ExecutionException blocked =
+        assertThrows(ExecutionException.class, () -> whileOpen.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(WebApplicationException.class, blocked.getCause());
+
+    synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+    Future<String> afterCompletion = executor.submit(() ->
+        locks.callWithLocks(List.of(1L), List.of(), () -> "done"));
+    assertEquals("done", afterCompletion.get(5, TimeUnit.SECONDS));
+    executor.shutdown();
+  }
+
+  // A registry that reports an active transaction to the calling thread only
+  private TransactionSynchronizationRegistry transactionOfCurrentThread() {
+    Thread owner = Thread.currentThread();
+    Map<Object, Object> resources = new HashMap<>();
+    TransactionSynchronizationRegistry registry = mock(TransactionSynchronizationRegistry.class);
+    when(registry.getTransactionStatus())
+        .thenAnswer(call ->
+            Thread.currentThread() == owner ? Status.STATUS_ACTIVE : Status.STATUS_NO_TRANSACTION);
+    when(registry.getResource(any()))
+        .thenAnswer(call -> resources.get(call.getArgument(0)));
+    doAnswer(call -> resources.put(call.getArgument(0), call.getArgument(1)))
+        .when(registry).putResource(any(), any());
+    return registry;
+  }
+}
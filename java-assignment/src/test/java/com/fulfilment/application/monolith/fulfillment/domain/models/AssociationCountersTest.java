@@ -0,0 +1,52 @@
+package com.fulfilment.application.monolith.fulfillment.domain.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class AssociationCountersTest {
+
+  @Test
+  void testEmptyCountersAllowEverything() {
+    assertNull(new AssociationCounters().violation("W1", 1L, 1L));
+  }
+
+  @Test
+  void testProductStoreLimit() {
+    AssociationCounters counters = new AssociationCounters();
+    counters.addProductStoreCount(1L, 1L, 1);
+    assertNull(counters.violation("W1", 1L, 1L));
+
+    counters.record("W2", 1L, 1L);
+
+    assertEquals(
+        "Maximum number of warehouses (2) reached for this product in this store",
+        counters.violation("W3", 1L, 1L));
+  }
+
+  @Test
+  void testStoreLimitAllowsWarehousesAlreadyInTheStore() {
+    AssociationCounters counters = new AssociationCounters();
+    counters.addWarehouseInStore(1L, "W1");
+    counters.addWarehouseInStore(1L, "W2");
+    counters.record("W3", 3L, 1L);
+
+    assertEquals(
+        "Maximum number of warehouses (3) reached for this store",
+        counters.violation("W4", 4L, 1L));
+    assertNull(counters.violation("W1", 4L, 1L));
+  }
+
+  @Test
+  void testWarehouseLimitAllowsProductsAlreadyInTheWarehouse() {
+    AssociationCounters counters = new AssociationCounters();
+    for (long productId = 1; productId <= 5; productId++) {
+      counters.addProductInWarehouse("W1", productId);
+    }
+
+    assertEquals(
+        "Maximum number of products (5) reached for this warehouse",
+        counters.violation("W1", 6L, 1L));
+    assertNull(counters.violation("W1", 5L, 1L));
+  }
+}
@@ -0,0 +1,189 @@
+package com.fulfilment.application.monolith.fulfillment.domain.topology;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class FulfillmentTopologyTest {
+
+  @Mock private WarehouseProductStoreAssociationRepository associationRepository;
+  @Mock private TransactionSynchronizationRegistry transactionRegistry;
+
+  private List<WarehouseProductStoreAssociation> stored;
+
+  private FulfillmentTopology topology;
+
+  @BeforeEach
+  void setup() {
+    stored = new ArrayList<>();
+    topology = new FulfillmentTopology(associationRepository, transactionRegistry);
+  }
+
+  @Test
+  void testRebuildServesAllLookups() {
+    // Given
+    LocalDateTime createdAt = LocalDateTime.of(2024, 7, 1, 10, 15, 30, 123_456_000);
+    stored.add(createAssociation(1L, "MWH.001", 1L, 1L, createdAt));
+    stored.add(createAssociation(2L, "MWH.012", 1L, 1L, createdAt));
+    stored.add(createAssociation(3L, "MWH.001", 2L, 2L, createdAt));
+    givenStoredAssociations();
+
+    // When
+    topology.rebuild();
+
+    // Then
+    assertEquals(3, topology.getSize());
+    assertEquals(2, topology.getStoreCount());
+    assertEquals(2, topology.getWarehouseCount());
+    assertEquals(2, topology.findByWarehouse("MWH.001").size());
+    assertEquals(2, topology.findByStore(1L).size());
+    assertEquals(List.of(), topology.findByStore(99L));
+    assertEquals(List.of(), topology.findByWarehouse("UNKNOWN"));
+
+    var found = topology.findByProductAndStore(2L, 2L);
+    assertEquals(1, found.size());
+    assertEquals(3L, found.get(0).id);
+    assertEquals("MWH.001", found.get(0).warehouseBusinessUnitCode);
+    assertEquals(createdAt, found.get(0).createdAt);
+  }
+
+  @Test
+  void testRecordCreatedWaitsForCommit() {
+    // Given
+    when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+    var committed = createAssociation(1L, "MWH.001", 1L, 1L, LocalDateTime.now());
+    var rolledBack = createAssociation(2L, "MWH.012", 1L, 2L, LocalDateTime.now());
+
+    // When
+    topology.recordCreated(List.of(committed));
+    topology.recordCreated(List.of(rolledBack));
+
+    // Then - nothing is visible before completion, and only the commit is applied
+    assertEquals(0, topology.getSize());
+    ArgumentCaptor<Synchronization> synchronizations =
+        ArgumentCaptor.forClass(Synchronization.class);
+    verify(transactionRegistry, times(2))
+        .registerInterposedSynchronization(synchronizations.capture());
+    synchronizations.getAllValues().get(0).afterCompletion(Status.STATUS_COMMITTED);
+    synchronizations.getAllValues().get(1).afterCompletion(Status.STATUS_ROLLEDBACK);
+    assertEquals(1, topology.findByStore(1L).size());
+    assertEquals(List.of(), topology.findByStore(2L));
+  }
+
+  @Test
+  void testRecordingTheSameAssociationTwiceKeepsOneRow() {
+    // Given
+    when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+    var association = createAssociation(1L, "MWH.001", 1L, 1L, LocalDateTime.now());
+    stored.add(association);
+    givenStoredAssociations();
+    topology.rebuild();
+
+    // When
+    topology.recordCreated(List.of(association));
+
+    // Then
+    assertEquals(1, topology.getSize());
+  }
+
+  @Test
+  void testAssociationsCommittedDuringRebuildAreKept() {
+    // Given - an association commits while the rebuild reads the database
+    when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+    var committedMeanwhile = createAssociation(7L, "MWH.023", 3L, 3L, LocalDateTime.now());
+    doAnswer(call -> {
+          topology.recordCreated(List.of(committedMeanwhile));
+          return null;
+        })
+        .when(associationRepository).forEachAssociation(any());
+
+    // When
+    topology.rebuild();
+
+    // Then
+    assertEquals(1, topology.findByStore(3L).size());
+  }
+
+  @Test
+  void testPagesFollowIdOrderAcrossOutOfOrderCommits() {
+    // Given
+    when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+    topology.recordCreated(List.of(createAssociation(5L, "MWH.001", 1L, 1L, null)));
+    topology.recordCreated(
+        List.of(
+            createAssociation(2L, "MWH.001", 2L, 1L, null),
+            createAssociation(9L, "MWH.001", 3L, 2L, null)));
+
+    // When
+    var firstPage = topology.findByWarehouse("MWH.001", 0L, 2, (id, code, p, s, at) -> id);
+    var nextPage = topology.findByWarehouse("MWH.001", 5L, 2, (id, code, p, s, at) -> id);
+    var storePage = topology.findByStore(1L, 2L, 10, (id, code, p, s, at) -> id);
+
+    // Then
+    assertEquals(List.of(2L, 5L), firstPage);
+    assertEquals(List.of(9L), nextPage);
+    assertEquals(List.of(5L), storePage);
+    assertEquals(List.of(), topology.findByWarehouse("MWH.001", 9L, 2, (id, code, p, s, at) -> id));
+    assertEquals(List.of(), topology.findByStore(99L, 0L, 2, (id, code, p, s, at) -> id));
+  }
+
+  @Test
+  void testManyStoresAndWarehouses() {
+    // Given - enough keys to grow every array and map several times
+    for (long i = 1; i <= 20_000; i++) {
+      stored.add(createAssociation(i, "MWH." + (i % 500), i % 50, i % 7_000, null));
+    }
+    givenStoredAssociations();
+
+    // When
+    topology.rebuild();
+
+    // Then
+    assertEquals(20_000, topology.getSize());
+    assertEquals(7_000, topology.getStoreCount());
+    assertEquals(500, topology.getWarehouseCount());
+    assertEquals(40, topology.findByWarehouse("MWH.7").size());
+    assertNull(topology.findByStore(1L).get(0).createdAt);
+    // 36 bytes per row plus the indexes, well below one object per association
+    long bytes = topology.getEstimatedMemoryBytes();
+    assertTrue(bytes > 20_000L * 36 && bytes < 20_000L * 200, "estimated " + bytes);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenStoredAssociations() {
+    when(associationRepository.count()).thenReturn((long) stored.size());
+    doAnswer(call -> {
+          Consumer<WarehouseProductStoreAssociation> action = call.getArgument(0);
+          stored.forEach(action);
+          return null;
+        })
+        .when(associationRepository).forEachAssociation(any());
+  }
+
+  private WarehouseProductStoreAssociation createAssociation(
+      Long id, String warehouseCode, Long productId, Long storeId, LocalDateTime createdAt) {
+    var association = new WarehouseProductStoreAssociation();
+    association.id = id;
+    association.warehouseBusinessUnitCode = warehouseCode;
+    association.productId = productId;
+    association.storeId = storeId;
+    association.createdAt = createdAt;
+    return association;
+  }
+}
@@ -11,6 +11,7 @@ import com.fulfilment.application.monolith.stores.Store;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import jakarta.ws.rs.WebApplicationException;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,7 +40,8 @@ public class AssociateWarehouseToProductInStoreUseCaseTest {
   @Test
   void testAssociateFailsWhenWarehouseNotFound() {
     // Given
-    when(warehouseRepository.findByBusinessUnitCode("INVALID")).thenReturn(null);
+    when(warehouseRepository.findOptionalByBusinessUnitCode("INVALID"))
+        .thenReturn(Optional.empty());
 
     // When & Then
     assertThrows(
@@ -51,8 +53,8 @@ public class AssociateWarehouseToProductInStoreUseCaseTest {
   @Test
   void testAssociateFailsWhenProductNotFound() {
     // Given
-    when(warehouseRepository.findByBusinessUnitCode("MWH.001"))
-        .thenReturn(createWarehouse("MWH.001"));
+    when(warehouseRepository.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(createWarehouse("MWH.001")));
     testProductRepository.setTestProduct(null);
 
     // When & Then
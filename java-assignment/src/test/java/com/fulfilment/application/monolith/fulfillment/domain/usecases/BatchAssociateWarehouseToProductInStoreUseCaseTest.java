@@ -0,0 +1,137 @@
+package com.fulfilment.application.monolith.fulfillment.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.fulfillment.adapters.database.WarehouseProductStoreAssociationRepository;
+import com.fulfilment.application.monolith.fulfillment.domain.locks.AssociationLocks;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationBatchResult;
+import com.fulfilment.application.monolith.fulfillment.domain.models.AssociationCounters;
+import com.fulfilment.application.monolith.fulfillment.domain.models.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchAssociateWarehouseToProductInStoreUseCaseTest {
+
+  @Mock private WarehouseProductStoreAssociationRepository associationRepository;
+  @Mock private WarehouseRepository warehouseRepository;
+  @Mock private ProductRepository productRepository;
+
+  private AssociationCounters counters;
+
+  private FulfillmentTopology topology;
+
+  private BatchAssociateWarehouseToProductInStoreUseCase useCase;
+
+  @BeforeEach
+  void setup() {
+    counters = new AssociationCounters();
+    useCase =
+        new BatchAssociateWarehouseToProductInStoreUseCase() {
+          @Override
+          Set<Long> findExistingStoreIds(Set<Long> storeIds) {
+            return Set.of(1L, 2L);
+          }
+        };
+    useCase.setAssociationRepository(associationRepository);
+    useCase.setWarehouseRepository(warehouseRepository);
+    useCase.setProductRepository(productRepository);
+    useCase.setAssociationLocks(new AssociationLocks(16, Duration.ofSeconds(1), null));
+    topology = new FulfillmentTopology(associationRepository, null);
+    useCase.setTopology(topology);
+
+    when(warehouseRepository.findExistingBusinessUnitCodes(any()))
+        .thenReturn(Set.of("MWH.001", "MWH.012"));
+    when(productRepository.findExistingIds(any())).thenReturn(Set.of(1L, 2L));
+    when(associationRepository.loadCounters(any(), any(), any())).thenReturn(counters);
+  }
+
+  @Test
+  void testAssociateAllInsertsAcceptedItemsInOneCall() {
+    // Given
+    var first = createAssociation("MWH.001", 1L, 1L);
+    var second = createAssociation("MWH.012", 2L, 2L);
+    when(associationRepository.createAll(List.of(first, second)))
+        .thenReturn(List.of(stored(first, 10L), stored(second, 11L)));
+
+    // When
+    List<AssociationBatchResult> results = useCase.associateAll(List.of(first, second));
+
+    // Then
+    assertTrue(results.get(0).created);
+    assertEquals(10L, results.get(0).id);
+    assertTrue(results.get(1).created);
+    assertEquals(11L, results.get(1).id);
+    verify(associationRepository, times(1)).loadCounters(any(), any(), any());
+    assertEquals(1, topology.findByProductAndStore(2L, 2L).size());
+  }
+
+  @Test
+  void testAssociateAllRejectsUnknownReferences() {
+    // Given
+    var unknownWarehouse = createAssociation("UNKNOWN", 1L, 1L);
+    var unknownProduct = createAssociation("MWH.001", 99L, 1L);
+    var unknownStore = createAssociation("MWH.001", 1L, 99L);
+    var incomplete = createAssociation("MWH.001", null, 1L);
+
+    // When
+    List<AssociationBatchResult> results =
+        useCase.associateAll(List.of(unknownWarehouse, unknownProduct, unknownStore, incomplete));
+
+    // Then
+    assertEquals("Warehouse not found: UNKNOWN", results.get(0).error);
+    assertEquals("Product not found: 99", results.get(1).error);
+    assertEquals("Store not found: 99", results.get(2).error);
+    assertFalse(results.get(3).created);
+    verify(associationRepository, never()).createAll(any());
+  }
+
+  @Test
+  void testAssociateAllChecksLimitsAgainstEarlierItems() {
+    // Given - one warehouse already fulfils the product in the store
+    counters.addProductStoreCount(1L, 1L, 1);
+    var second = createAssociation("MWH.001", 1L, 1L);
+    var third = createAssociation("MWH.012", 1L, 1L);
+    when(associationRepository.createAll(List.of(second)))
+        .thenReturn(List.of(stored(second, 10L)));
+
+    // When
+    List<AssociationBatchResult> results = useCase.associateAll(List.of(second, third));
+
+    // Then
+    assertTrue(results.get(0).created);
+    assertFalse(results.get(1).created);
+    assertEquals(1, results.get(1).index);
+    assertEquals(
+        "Maximum number of warehouses (2) reached for this product in this store",
+        results.get(1).error);
+  }
+
+  private WarehouseProductStoreAssociation createAssociation(
+      String warehouseCode, Long productId, Long storeId) {
+    var association = new WarehouseProductStoreAssociation();
+    association.warehouseBusinessUnitCode = warehouseCode;
+    association.productId = productId;
+    association.storeId = storeId;
+    return association;
+  }
+
+  private WarehouseProductStoreAssociation stored(
+      WarehouseProductStoreAssociation association, Long id) {
+    var stored =
+        createAssociation(
+            association.warehouseBusinessUnitCode, association.productId, association.storeId);
+    stored.id = id;
+    return stored;
+  }
+}
@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import io.quarkus.test.junit.QuarkusTest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -58,4 +61,87 @@ public class LocationGatewayTest {
         () -> locationGateway.resolveByIdentifier(locationId),
         "Should throw exception for non-existent location");
   }
+
+  @Test
+  public void testBuiltInCatalogMetrics() {
+    // then
+    assertEquals(8, locationGateway.getCatalogSize());
+    assertEquals("built-in", locationGateway.getCatalogSource());
+    assertNotNull(locationGateway.getCatalogLoadedAt());
+  }
+
+  @Test
+  public void testReloadFromCsvFile() throws Exception {
+    // given
+    Path file = Files.createTempFile("locations", ".csv");
+    Files.writeString(
+        file, "identification,maxNumberOfWarehouses,maxCapacity\n# comment\nUTRECHT-001,4,120\n");
+    locationGateway.catalogPath = Optional.of(file.toString());
+
+    // when
+    locationGateway.reload();
+
+    // then
+    Location location = locationGateway.resolveByIdentifier("UTRECHT-001");
+    assertEquals(4, location.maxNumberOfWarehouses);
+    assertEquals(120, location.maxCapacity);
+    assertEquals(1, locationGateway.getCatalogSize());
+    assertThrows(
+        IllegalArgumentException.class, () -> locationGateway.resolveByIdentifier("ZWOLLE-001"));
+    Files.delete(file);
+  }
+
+  @Test
+  public void testReloadFromJsonFile() throws Exception {
+    // given
+    Path file = Files.createTempFile("locations", ".json");
+    Files.writeString(
+        file, "[{\"identification\":\"DELFT-001\",\"maxNumberOfWarehouses\":2,\"maxCapacity\":60}]");
+    locationGateway.catalogPath = Optional.of(file.toString());
+
+    // when
+    locationGateway.reload();
+
+    // then
+    Location location = locationGateway.resolveByIdentifier("DELFT-001");
+    assertEquals(2, location.maxNumberOfWarehouses);
+    assertEquals(60, location.maxCapacity);
+    Files.delete(file);
+  }
+
+  @Test
+  public void testReloadKeepsCurrentCatalogWhenFileIsInvalid() throws Exception {
+    // given
+    Path file = Files.createTempFile("locations", ".csv");
+    Files.writeString(file, "BROKEN-LINE\n");
+    locationGateway.catalogPath = Optional.of(file.toString());
+
+    // when
+    locationGateway.reload();
+
+    // then
+    assertEquals(8, locationGateway.getCatalogSize());
+    assertNotNull(locationGateway.resolveByIdentifier("ZWOLLE-001"));
+    Files.delete(file);
+  }
+
+  @Test
+  public void testReloadKeepsCurrentCatalogWhenJsonEntryLacksAField() throws Exception {
+    // given - the second entry has no maxCapacity and a textual maxNumberOfWarehouses
+    Path file = Files.createTempFile("locations", ".json");
+    Files.writeString(
+        file,
+        "[{\"identification\":\"DELFT-001\",\"maxNumberOfWarehouses\":2,\"maxCapacity\":60},"
+            + "{\"identification\":\"DELFT-002\",\"maxNumberOfWarehouses\":\"two\"}]");
+    locationGateway.catalogPath = Optional.of(file.toString());
+
+    // when
+    locationGateway.reload();
+
+    // then
+    assertEquals(8, locationGateway.getCatalogSize());
+    assertThrows(
+        IllegalArgumentException.class, () -> locationGateway.resolveByIdentifier("DELFT-001"));
+    Files.delete(file);
+  }
 }
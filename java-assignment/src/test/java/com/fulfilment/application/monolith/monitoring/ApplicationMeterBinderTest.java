@@ -0,0 +1,92 @@
+package com.fulfilment.application.monolith.monitoring;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.fulfillment.domain.topology.FulfillmentTopology;
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.stores.LegacyStoreSyncPipeline;
+import com.fulfilment.application.monolith.stores.ResilientLegacyStoreGateway;
+import com.fulfilment.application.monolith.stores.StoreOutboxDispatcher;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationMeterBinderTest {
+
+  @Mock private LocationGateway locationGateway;
+  @Mock private WarehouseLookupCache warehouseLookupCache;
+  @Mock private SessionFactory sessionFactory;
+  @Mock private Statistics statistics;
+  @Mock private CacheRegionStatistics storeRegion;
+  @Mock private FulfillmentTopology fulfillmentTopology;
+  @Mock private LegacyStoreSyncPipeline legacyStoreSyncPipeline;
+  @Mock private StoreOutboxDispatcher storeOutboxDispatcher;
+  @Mock private ResilientLegacyStoreGateway legacyGateway;
+
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setup() {
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+    when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[] {"Store"});
+    when(statistics.getCacheRegionStatistics("Store")).thenReturn(storeRegion);
+    registry = new SimpleMeterRegistry();
+    new ApplicationMeterBinder(
+            locationGateway,
+            warehouseLookupCache,
+            sessionFactory,
+            fulfillmentTopology,
+            legacyStoreSyncPipeline,
+            storeOutboxDispatcher,
+            legacyGateway)
+        .bindTo(registry);
+  }
+
+  @Test
+  void testMetersReadTheComponentsWhenScraped() {
+    // Given
+    when(legacyStoreSyncPipeline.getQueueDepth()).thenReturn(7);
+    when(storeOutboxDispatcher.getLagMillis()).thenReturn(1500L);
+    when(legacyGateway.getRetryCount()).thenReturn(3L);
+
+    // When / Then
+    assertEquals(7.0, registry.get("legacy.sync.queue.depth").gauge().value());
+    assertEquals(
+        1500.0, registry.get("store.outbox.lag").timeGauge().value(TimeUnit.MILLISECONDS), 0.001);
+    assertEquals(3.0, registry.get("legacy.gateway.retries").functionCounter().count());
+  }
+
+  @Test
+  void testCacheRequestsAreTaggedByResultAndRegion() {
+    // Given
+    when(statistics.getSecondLevelCacheHitCount()).thenReturn(9L);
+    when(statistics.getSecondLevelCacheMissCount()).thenReturn(1L);
+    when(storeRegion.getHitCount()).thenReturn(4L);
+
+    // When / Then
+    assertEquals(9.0, requests("orm.second.level.cache.requests", ApplicationMeterBinder.HIT));
+    assertEquals(1.0, requests("orm.second.level.cache.requests", ApplicationMeterBinder.MISS));
+    assertEquals(
+        4.0,
+        registry
+            .get("orm.cache.region.requests")
+            .tag("region", "Store")
+            .tag("result", ApplicationMeterBinder.HIT)
+            .functionCounter()
+            .count());
+  }
+
+  private double requests(String name, String result) {
+    return registry.get(name).tag("result", result).functionCounter().count();
+  }
+}
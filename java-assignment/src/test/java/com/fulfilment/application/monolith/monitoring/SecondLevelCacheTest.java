@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.monitoring;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that repeated single-entity reads are served by the second-level cache: after the first
+ * read the entity is no longer loaded from the database.
+ *
+ * <p>The check counts loads of the entity itself rather than all JDBC statements, as creating a
+ * store starts outbox deliveries whose statements may run during the reads.
+ */
+@QuarkusTest
+public class SecondLevelCacheTest {
+
+  private static final int READS = 20;
+
+  @Inject SessionFactory sessionFactory;
+
+  @Test
+  public void testRepeatedStoreReadsDoNotHitTheDatabase() {
+    Object id =
+        given()
+            .contentType("application/json")
+            .body("{\"name\": \"L2-CACHE-STORE\", \"quantityProductsInStock\": 1}")
+            .when()
+            .post("store")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    assertRepeatedReadsAreCached("store/" + id, Store.class);
+  }
+
+  @Test
+  public void testRepeatedProductReadsDoNotHitTheDatabase() {
+    Object id =
+        given()
+            .contentType("application/json")
+            .body("{\"name\": \"L2-CACHE-PRODUCT\", \"stock\": 1}")
+            .when()
+            .post("product")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    assertRepeatedReadsAreCached("product/" + id, Product.class);
+  }
+
+  private void assertRepeatedReadsAreCached(String path, Class<?> entity) {
+    Statistics statistics = sessionFactory.getStatistics();
+    assertTrue(statistics.isStatisticsEnabled());
+
+    // Warm up: the first read may load the entity from the database
+    given().when().get(path).then().statusCode(200);
+    long loadsBefore = statistics.getEntityStatistics(entity.getName()).getLoadCount();
+    long hitsBefore = statistics.getSecondLevelCacheHitCount();
+
+    for (int i = 0; i < READS; i++) {
+      given().when().get(path).then().statusCode(200);
+    }
+
+    assertEquals(
+        loadsBefore,
+        statistics.getEntityStatistics(entity.getName()).getLoadCount(),
+        "Cached reads of " + path + " should not load the entity from the database");
+    assertTrue(statistics.getSecondLevelCacheHitCount() - hitsBefore >= READS);
+  }
+}
@@ -78,5 +78,125 @@ class SystemMetricsResourceTest {
         assertTrue(threadData.has("peak"));
         assertTrue(threadData.has("totalStarted"));
     }
-}
 
+    @Test
+    void testMetricsContainsLocationCatalogData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("locationCatalog"));
+        ObjectNode catalogData = (ObjectNode) metrics.get("locationCatalog");
+        assertTrue(catalogData.has("size"));
+        assertTrue(catalogData.has("loadTimeMillis"));
+    }
+
+    @Test
+    void testMetricsContainsWarehouseLookupCacheData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("warehouseLookupCache"));
+        ObjectNode cacheData = (ObjectNode) metrics.get("warehouseLookupCache");
+        assertTrue(cacheData.has("hits"));
+        assertTrue(cacheData.has("misses"));
+        assertTrue(cacheData.has("evictions"));
+    }
+
+    @Test
+    void testMetricsContainsSecondLevelCacheData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("secondLevelCache"));
+        ObjectNode cacheData = (ObjectNode) metrics.get("secondLevelCache");
+        assertTrue(cacheData.get("statisticsEnabled").asBoolean());
+        assertTrue(cacheData.has("hitRatio"));
+        assertTrue(cacheData.has("queryCache"));
+        assertTrue(cacheData.has("regions"));
+    }
+
+    @Test
+    void testMetricsContainsFulfillmentTopologyData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("fulfillmentTopology"));
+        ObjectNode topologyData = (ObjectNode) metrics.get("fulfillmentTopology");
+        assertTrue(topologyData.has("associations"));
+        assertTrue(topologyData.get("estimatedMemoryBytes").asLong() > 0);
+    }
+
+    @Test
+    void testMetricsContainsLegacyStoreSyncData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("legacyStoreSync"));
+        ObjectNode syncData = (ObjectNode) metrics.get("legacyStoreSync");
+        assertTrue(syncData.has("queueDepth"));
+        assertTrue(syncData.has("lagMillis"));
+        assertTrue(syncData.has("lastBatchSize"));
+    }
+
+    @Test
+    void testMetricsContainsStoreOutboxData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("storeOutbox"));
+        ObjectNode outboxData = (ObjectNode) metrics.get("storeOutbox");
+        assertTrue(outboxData.has("pending"));
+        assertTrue(outboxData.has("lagMillis"));
+        assertTrue(outboxData.has("throughputPerSecond"));
+    }
+
+    @Test
+    void testMetricsContainsLegacyGatewayData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("legacyGateway"));
+        ObjectNode gatewayData = (ObjectNode) metrics.get("legacyGateway");
+        assertEquals("CLOSED", gatewayData.get("circuitState").asText());
+        assertTrue(gatewayData.has("bulkheadRejected"));
+        assertTrue(gatewayData.has("retryBudget"));
+        assertTrue(gatewayData.has("timeouts"));
+    }
+
+    @Test
+    void testMetricsContainsConnectionPoolData() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.has("connectionPool"));
+        ObjectNode poolData = (ObjectNode) metrics.get("connectionPool");
+        assertTrue(poolData.has("active"));
+        assertTrue(poolData.has("idle"));
+        assertTrue(poolData.has("pending"));
+        assertTrue(poolData.has("leaks"));
+        assertTrue(poolData.get("acquireWait").has("histogram"));
+        assertFalse(poolData.get("adaptiveSizing").get("enabled").asBoolean());
+    }
+
+    @Test
+    void testMetricsAreReadFromTheMeterRegistry() {
+        // When
+        ObjectNode metrics = resource.getSystemMetrics();
+
+        // Then
+        assertTrue(metrics.get("threads").get("active").asLong() > 0);
+        assertTrue(metrics.get("heapMemory").get("used").asLong() > 0);
+        assertTrue(metrics.get("cpu").get("availableProcessors").asInt() > 0);
+        assertTrue(metrics.get("gc").has("pauses"));
+        assertTrue(metrics.get("gc").has("allocatedBytes"));
+        assertTrue(metrics.has("endpoints"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.products;
+
+import static com.fulfilment.application.monolith.common.persistence.ReactiveTestDatabase.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.common.persistence.ReactiveTestDatabase;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ReactiveProductRepositoryTest {
+
+  @Test
+  void testListAllByNameReadsProductsInNameOrder() throws Exception {
+    try (var database =
+        ReactiveTestDatabase.open(
+            "reactive-products",
+            "create table product (id bigint primary key, name varchar(40),"
+                + " description varchar(255), price numeric(10, 2), stock integer)",
+            "insert into product values (1, 'TONSTAD', null, null, 10),"
+                + " (2, 'KALLAX', 'Shelf', 49.99, 5)")) {
+      var readPool = database.readPool();
+      var repository = new ReactiveProductRepository(readPool);
+
+      List<Product> products = await(repository.listAllByName());
+
+      assertTrue(repository.isEnabled());
+      assertEquals(2, products.size());
+      Product kallax = products.get(0);
+      assertEquals(2L, kallax.id);
+      assertEquals("KALLAX", kallax.name);
+      assertEquals("Shelf", kallax.description);
+      assertEquals(0, new BigDecimal("49.99").compareTo(kallax.price));
+      assertEquals(5, kallax.stock);
+      Product tonstad = products.get(1);
+      assertNull(tonstad.description);
+      assertNull(tonstad.price);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the legacy store manager's HTTP endpoint. It can be made slow or made to fail,
+ * and records what it received and how many requests it served at once.
+ */
+class FakeLegacyStoreManager implements AutoCloseable {
+
+  private final HttpServer server;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger receivedEvents = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+  private final AtomicInteger failuresToInject = new AtomicInteger();
+
+  private volatile Duration latency = Duration.ZERO;
+  private volatile boolean failing;
+
+  FakeLegacyStoreManager() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/stores", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  String url() {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + "/stores";
+  }
+
+  void setLatency(Duration latency) {
+    this.latency = latency;
+  }
+
+  void setFailing(boolean failing) {
+    this.failing = failing;
+  }
+
+  /** Answers the next {@code count} requests with 503. */
+  void failNext(int count) {
+    failuresToInject.set(count);
+  }
+
+  int getRequestCount() {
+    return requests.get();
+  }
+
+  int getReceivedEventCount() {
+    return receivedEvents.get();
+  }
+
+  int getPeakInFlight() {
+    return peakInFlight.get();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      Thread.sleep(latency.toMillis());
+      if (failing || failuresToInject.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+        exchange.sendResponseHeaders(503, -1);
+        return;
+      }
+      receivedEvents.addAndGet((int) body.lines().filter(line -> !line.isBlank()).count());
+      exchange.sendResponseHeaders(204, -1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.decrementAndGet();
+      exchange.close();
+    }
+  }
+}
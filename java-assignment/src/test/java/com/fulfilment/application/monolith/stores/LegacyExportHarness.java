@@ -0,0 +1,104 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.stores.legacy.LegacyExportLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.jboss.logging.Logger;
+
+/**
+ * Compares events per second of the temp-file export with the segment log. Both are fed the same
+ * way the outbox dispatcher feeds the gateway, in batches of {@code export.batch-size} stores, so
+ * each temp file and each group fsync of the log carries one batch.
+ *
+ * <p>Timings depend on the disk and the machine, so this runs on demand rather than in the test
+ * suite:
+ *
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *     com.fulfilment.application.monolith.stores.LegacyExportHarness
+ * </pre>
+ *
+ * <p>Settings (system properties): {@code export.events} (5000), {@code export.batch-size} (100)
+ * and {@code export.rounds} (3); the first round warms up and is not reported.
+ */
+public final class LegacyExportHarness {
+
+  private static final Logger LOGGER = Logger.getLogger(LegacyExportHarness.class.getName());
+
+  private LegacyExportHarness() {}
+
+  public static void main(String[] args) throws IOException {
+    int eventCount = Integer.getInteger("export.events", 5_000);
+    int batchSize = Integer.getInteger("export.batch-size", 100);
+    int rounds = Integer.getInteger("export.rounds", 3);
+
+    List<StoreEvent> events = new ArrayList<>(eventCount);
+    for (long id = 1; id <= eventCount; id++) {
+      Store store = new Store("Store " + id, (int) id);
+      store.id = id;
+      events.add(new StoreEvent(store, StoreEvent.EventType.UPDATED));
+    }
+
+    for (int round = 0; round < rounds; round++) {
+      var tempFiles = new LegacyStoreManagerGateway();
+      long tempFileNanos = time(() -> sendInBatches(tempFiles, events, batchSize));
+
+      Path directory = Files.createTempDirectory("legacy-export-harness");
+      var segmentLog = new LegacyStoreManagerGateway();
+      segmentLog.exportMode = LegacyStoreManagerGateway.SEGMENT_LOG_MODE;
+      segmentLog.exportLog =
+          new LegacyExportLog(directory.toString(), 64L * 1024 * 1024, Duration.ZERO, 16);
+      long segmentLogNanos;
+      try {
+        segmentLogNanos = time(() -> sendInBatches(segmentLog, events, batchSize));
+      } finally {
+        segmentLog.exportLog.close();
+        delete(directory);
+      }
+      if (segmentLog.exportLog.getAppendedRecordCount() != eventCount) {
+        throw new IllegalStateException(
+            "Segment log holds " + segmentLog.exportLog.getAppendedRecordCount() + " of "
+                + eventCount + " events");
+      }
+
+      if (round > 0) {
+        LOGGER.infof(
+            "Round %d, batches of %d: temp files %.0f events/s, segment log %.0f events/s"
+                + " (%d fsyncs)",
+            round,
+            batchSize,
+            eventCount * 1e9 / tempFileNanos,
+            eventCount * 1e9 / segmentLogNanos,
+            segmentLog.exportLog.getSyncCount());
+      }
+    }
+  }
+
+  private static void sendInBatches(
+      LegacyStoreManagerGateway gateway, List<StoreEvent> events, int batchSize) {
+    for (int from = 0; from < events.size(); from += batchSize) {
+      gateway.syncStoresOnLegacySystem(
+          events.subList(from, Math.min(from + batchSize, events.size())));
+    }
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (var files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  private static long time(Runnable run) {
+    long start = System.nanoTime();
+    run.run();
+    return System.nanoTime() - start;
+  }
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -105,6 +107,28 @@ class LegacyStoreManagerGatewayTest {
     assertEquals(125, retrieved.quantityProductsInStock);
   }
 
+  @Test
+  void testSyncStoresOnLegacySystem() {
+    Store other = new Store("LegacyBatch_" + System.currentTimeMillis(), 5);
+
+    assertDoesNotThrow(() -> gateway.syncStoresOnLegacySystem(List.of(
+        new StoreEvent(testStore, StoreEvent.EventType.CREATED),
+        new StoreEvent(other, StoreEvent.EventType.UPDATED))));
+  }
+
+  @Test
+  void testSyncStoresOnLegacySystemWithoutEventsShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> gateway.syncStoresOnLegacySystem(List.of()));
+  }
+
+  @Test
+  void testFailedFileWriteReachesTheCaller() {
+    // A name the temp file cannot be created with, so the entry must not count as delivered
+    Store unwritable = new Store("Legacy/Unwritable", 5);
+
+    assertThrows(RuntimeException.class, () -> gateway.createStoreOnLegacySystem(unwritable));
+  }
+
   @Test
   void testCreateStoreOnLegacySystemWithNullShouldThrow() {
     // Test null validation
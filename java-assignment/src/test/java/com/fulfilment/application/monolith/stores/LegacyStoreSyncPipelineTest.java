@@ -0,0 +1,174 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LegacyStoreSyncPipelineTest {
+
+  @Mock private StoreOutboxDispatcher outboxDispatcher;
+
+  private LegacyStoreSyncPipeline pipeline;
+
+  @BeforeEach
+  void setup() {
+    pipeline =
+        new LegacyStoreSyncPipeline(
+            outboxDispatcher, 2, 10, Duration.ofMillis(1), Duration.ofMillis(10), 2);
+  }
+
+  @Test
+  void testChangesOfOneStoreAreCoalesced() {
+    // Given
+    when(outboxDispatcher.dispatchStores(List.of(1L, 2L))).thenReturn(3);
+    pipeline.enqueue(new StoreEvent(createStore(1L, "Store A", 10), StoreEvent.EventType.CREATED));
+    pipeline.enqueue(new StoreEvent(createStore(2L, "Store B", 10), StoreEvent.EventType.CREATED));
+    pipeline.enqueue(new StoreEvent(createStore(1L, "Store A", 20), StoreEvent.EventType.UPDATED));
+
+    // When
+    int flushed = pipeline.flushBatch();
+
+    // Then
+    assertEquals(2, flushed);
+    verify(outboxDispatcher).dispatchStores(List.of(1L, 2L));
+    assertEquals(2, pipeline.getEnqueuedCount());
+    assertEquals(1, pipeline.getCoalescedCount());
+    assertEquals(3, pipeline.getDeliveredCount());
+    assertEquals(0, pipeline.getQueueDepth());
+  }
+
+  @Test
+  void testFullQueueRejectsNewStoresButStillCoalesces() {
+    // Given
+    pipeline.enqueue(new StoreEvent(createStore(1L, "A", 1), StoreEvent.EventType.UPDATED));
+    pipeline.enqueue(new StoreEvent(createStore(2L, "B", 1), StoreEvent.EventType.UPDATED));
+
+    // When
+    pipeline.enqueue(new StoreEvent(createStore(3L, "C", 1), StoreEvent.EventType.UPDATED));
+    pipeline.enqueue(new StoreEvent(createStore(2L, "B", 5), StoreEvent.EventType.UPDATED));
+
+    // Then
+    assertEquals(2, pipeline.getQueueDepth());
+    assertEquals(1, pipeline.getRejectedCount());
+    assertEquals(1, pipeline.getCoalescedCount());
+  }
+
+  @Test
+  void testFailedBatchIsCountedAndLeavesTheQueue() {
+    // Given
+    when(outboxDispatcher.dispatchStores(any())).thenThrow(new RuntimeException("Database down"));
+    pipeline.enqueue(new StoreEvent(createStore(1L, "A", 1), StoreEvent.EventType.CREATED));
+
+    // When
+    int flushed = pipeline.flushBatch();
+
+    // Then
+    assertEquals(1, flushed);
+    assertEquals(1, pipeline.getFailedCount());
+    assertEquals(0, pipeline.getDeliveredCount());
+    assertEquals(1, pipeline.getLastBatchSize());
+    assertEquals(0, pipeline.flushBatch());
+  }
+
+  @Test
+  void testWorkerDeliversQueuedChangesAndStopDrains() {
+    // Given
+    when(outboxDispatcher.dispatchStores(any()))
+        .thenAnswer(call -> call.<List<Long>>getArgument(0).size());
+    pipeline.start();
+
+    // When
+    pipeline.enqueue(new StoreEvent(createStore(1L, "A", 1), StoreEvent.EventType.CREATED));
+    pipeline.enqueue(new StoreEvent(createStore(2L, "B", 1), StoreEvent.EventType.CREATED));
+    pipeline.stop();
+
+    // Then
+    assertEquals(2, pipeline.getDeliveredCount());
+    assertEquals(0, pipeline.getQueueDepth());
+    assertEquals(0, pipeline.getLagMillis());
+  }
+
+  @Test
+  void testStaleSnapshotDoesNotReplaceTheQueuedOne() {
+    // Given
+    pipeline.enqueue(updated(new StoreSnapshot(1L, 3L, "A", 30)));
+
+    // When
+    pipeline.enqueue(updated(new StoreSnapshot(1L, 2L, "A", 20)));
+    pipeline.enqueue(updated(new StoreSnapshot(1L, 4L, "A", 40)));
+
+    // Then
+    assertEquals(1, pipeline.getQueueDepth());
+    assertEquals(1, pipeline.getEnqueuedCount());
+    assertEquals(2, pipeline.getCoalescedCount());
+  }
+
+  @Test
+  void testWorkersDeliverStoresInParallelButNeverOneStoreTwiceAtOnce() throws Exception {
+    // Given
+    pipeline =
+        new LegacyStoreSyncPipeline(
+            outboxDispatcher, 100, 1, Duration.ofMillis(20), Duration.ofSeconds(1), 4);
+    var active = ConcurrentHashMap.<Long>newKeySet();
+    var overlaps = new AtomicInteger();
+    var peakWorkers = new AtomicInteger();
+    var concurrentWorkers = new AtomicInteger();
+    when(outboxDispatcher.dispatchStores(any()))
+        .thenAnswer(
+            call -> {
+              List<Long> stores = call.getArgument(0);
+              peakWorkers.accumulateAndGet(concurrentWorkers.incrementAndGet(), Math::max);
+              for (Long store : stores) {
+                if (!active.add(store)) {
+                  overlaps.incrementAndGet();
+                }
+              }
+              Thread.sleep(30);
+              active.removeAll(stores);
+              concurrentWorkers.decrementAndGet();
+              return stores.size();
+            });
+    pipeline.start();
+
+    // When
+    for (int round = 0; round < 3; round++) {
+      for (long store = 1; store <= 8; store++) {
+        pipeline.enqueue(updated(new StoreSnapshot(store, round, "S" + store, round)));
+      }
+      Thread.sleep(25);
+    }
+    long deadline = System.currentTimeMillis() + 5000;
+    while ((pipeline.getQueueDepth() > 0 || pipeline.getInFlightStoreCount() > 0)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    pipeline.stop();
+
+    // Then
+    assertEquals(0, overlaps.get());
+    assertTrue(peakWorkers.get() > 1);
+    assertEquals(0, pipeline.getQueueDepth());
+    assertEquals(0, pipeline.getRejectedCount());
+    assertEquals(24, pipeline.getEnqueuedCount() + pipeline.getCoalescedCount());
+  }
+
+  private static StoreEvent updated(StoreSnapshot snapshot) {
+    return new StoreEvent(snapshot, StoreEvent.EventType.UPDATED);
+  }
+
+  private Store createStore(Long id, String name, int stock) {
+    Store store = new Store(name, stock);
+    store.id = id;
+    return store;
+  }
+}
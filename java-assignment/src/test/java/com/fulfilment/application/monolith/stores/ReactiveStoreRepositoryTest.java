@@ -0,0 +1,35 @@
+package com.fulfilment.application.monolith.stores;
+
+import static com.fulfilment.application.monolith.common.persistence.ReactiveTestDatabase.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.common.persistence.ReactiveTestDatabase;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ReactiveStoreRepositoryTest {
+
+  @Test
+  void testListAllByNameReadsStoresInNameOrder() throws Exception {
+    try (var database =
+        ReactiveTestDatabase.open(
+            "reactive-stores",
+            "create table store (id bigint primary key, name varchar(40),"
+                + " quantityProductsInStock integer, version bigint)",
+            "insert into store values (1, 'TONSTAD', 10, 0), (2, 'KALLAX', 5, 3)")) {
+      var readPool = database.readPool();
+      var repository = new ReactiveStoreRepository(readPool);
+
+      List<Store> stores = await(repository.listAllByName());
+
+      assertTrue(repository.isEnabled());
+      assertEquals(2, stores.size());
+      Store kallax = stores.get(0);
+      assertEquals(2L, kallax.id);
+      assertEquals("KALLAX", kallax.name);
+      assertEquals(5, kallax.quantityProductsInStock);
+      assertEquals(3L, kallax.version);
+      assertEquals("TONSTAD", stores.get(1).name);
+    }
+  }
+}
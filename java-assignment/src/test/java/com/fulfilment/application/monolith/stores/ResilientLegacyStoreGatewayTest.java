@@ -0,0 +1,196 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResilientLegacyStoreGatewayTest {
+
+  private FakeLegacyStoreManager legacy;
+
+  private LegacyStoreManagerGateway httpGateway;
+
+  @BeforeEach
+  void setup() throws Exception {
+    legacy = new FakeLegacyStoreManager();
+    httpGateway = new LegacyStoreManagerGateway();
+    httpGateway.exportMode = LegacyStoreManagerGateway.HTTP_MODE;
+    httpGateway.legacyUrl = Optional.of(legacy.url());
+    httpGateway.objectMapper = new ObjectMapper();
+  }
+
+  @AfterEach
+  void cleanup() {
+    legacy.close();
+  }
+
+  @Test
+  void testChangesArePostedToTheLegacyEndpoint() {
+    // Given
+    var gateway = gateway(4, Duration.ofSeconds(2), 3, 10, 20, 10, Duration.ofSeconds(30));
+
+    // When
+    gateway.syncStores(events(2));
+
+    // Then
+    assertEquals(2, legacy.getReceivedEventCount());
+    assertEquals(1, gateway.getSucceededCount());
+    assertEquals(0, gateway.getRetryCount());
+    assertEquals("CLOSED", gateway.getCircuitState());
+  }
+
+  @Test
+  void testTransientFailureIsRetried() {
+    // Given
+    var gateway = gateway(4, Duration.ofSeconds(2), 3, 10, 20, 10, Duration.ofSeconds(30));
+    legacy.failNext(1);
+
+    // When
+    gateway.syncStores(events(1));
+
+    // Then
+    assertEquals(2, legacy.getRequestCount());
+    assertEquals(1, legacy.getReceivedEventCount());
+    assertEquals(1, gateway.getRetryCount());
+    assertEquals(1, gateway.getFailedAttemptCount());
+  }
+
+  @Test
+  void testSlowEndpointTimesOut() {
+    // Given
+    var gateway = gateway(4, Duration.ofMillis(50), 1, 10, 20, 10, Duration.ofSeconds(30));
+    legacy.setLatency(Duration.ofMillis(500));
+
+    // When / Then
+    assertThrows(IllegalStateException.class, () -> gateway.syncStores(events(1)));
+    assertEquals(1, gateway.getTimeoutCount());
+    assertEquals(0, gateway.getSucceededCount());
+  }
+
+  @Test
+  void testOpenCircuitParksChangesUntilTheLegacySystemRecovers() throws Exception {
+    // Given
+    var gateway = gateway(4, Duration.ofSeconds(2), 1, 10, 4, 2, Duration.ofMillis(200));
+    legacy.setFailing(true);
+    assertThrows(IllegalStateException.class, () -> gateway.syncStores(events(1)));
+    assertThrows(IllegalStateException.class, () -> gateway.syncStores(events(1)));
+
+    // When
+    assertEquals("OPEN", gateway.getCircuitState());
+    assertThrows(LegacyStoreUnavailableException.class, () -> gateway.syncStores(events(1)));
+
+    // Then
+    assertEquals(2, legacy.getRequestCount());
+    assertFalse(gateway.isCallPermitted());
+    assertEquals(1, gateway.getCircuitOpenCount());
+    assertEquals(1, gateway.getCircuitRejectedCount());
+
+    // When
+    legacy.setFailing(false);
+    Thread.sleep(250);
+    assertTrue(gateway.isCallPermitted());
+    gateway.syncStores(events(1));
+
+    // Then
+    assertEquals("CLOSED", gateway.getCircuitState());
+    assertEquals(1, legacy.getReceivedEventCount());
+  }
+
+  @Test
+  void testBulkheadRejectsCallsBeyondItsLimit() throws Exception {
+    // Given
+    var gateway = gateway(2, Duration.ofSeconds(2), 1, 10, 20, 10, Duration.ofSeconds(30));
+    legacy.setLatency(Duration.ofMillis(300));
+    ExecutorService callers = Executors.newFixedThreadPool(4);
+    var start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+
+    // When
+    for (int i = 0; i < 4; i++) {
+      results.add(
+          callers.submit(
+              () -> {
+                start.await();
+                try {
+                  gateway.syncStores(events(1));
+                  return true;
+                } catch (LegacyStoreUnavailableException e) {
+                  return false;
+                }
+              }));
+    }
+    start.countDown();
+    int sent = 0;
+    for (Future<Boolean> result : results) {
+      sent += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+    }
+    callers.shutdown();
+
+    // Then
+    assertEquals(2, sent);
+    assertEquals(2, gateway.getBulkheadRejectedCount());
+    assertTrue(legacy.getPeakInFlight() <= 2);
+    assertEquals("CLOSED", gateway.getCircuitState());
+  }
+
+  @Test
+  void testRetriesStopWhenTheBudgetIsUsedUp() {
+    // Given
+    var gateway = gateway(4, Duration.ofSeconds(2), 3, 1, 20, 20, Duration.ofSeconds(30));
+    legacy.setFailing(true);
+
+    // When
+    assertThrows(IllegalStateException.class, () -> gateway.syncStores(events(1)));
+
+    // Then
+    assertEquals(2, legacy.getRequestCount());
+    assertEquals(1, gateway.getRetryCount());
+    assertEquals(1, gateway.getRetryBudgetExhaustedCount());
+  }
+
+  private ResilientLegacyStoreGateway gateway(
+      int maxConcurrent,
+      Duration timeout,
+      int maxAttempts,
+      int retryBudgetMax,
+      int breakerWindow,
+      int breakerMinimumCalls,
+      Duration breakerOpenDuration) {
+    return new ResilientLegacyStoreGateway(
+        httpGateway,
+        maxConcurrent,
+        Duration.ofMillis(10),
+        timeout,
+        maxAttempts,
+        Duration.ofMillis(1),
+        Duration.ofMillis(5),
+        0,
+        retryBudgetMax,
+        breakerWindow,
+        breakerMinimumCalls,
+        50,
+        breakerOpenDuration);
+  }
+
+  private static List<StoreEvent> events(int count) {
+    List<StoreEvent> events = new ArrayList<>();
+    for (long id = 1; id <= count; id++) {
+      Store store = new Store("Store " + id, (int) id);
+      store.id = id;
+      events.add(new StoreEvent(store, StoreEvent.EventType.UPDATED));
+    }
+    return events;
+  }
+}
@@ -9,7 +9,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class StoreEventListenerTest {
   @Mock
-  private LegacyStoreManagerGateway legacyStoreManagerGateway;
+  private LegacyStoreSyncPipeline legacyStoreSyncPipeline;
   @InjectMocks
   private StoreEventListener listener;
   private Store testStore;
@@ -27,8 +27,7 @@ class StoreEventListenerTest {
     // When
     listener.onStoreEvent(event);
     // Then
-    verify(legacyStoreManagerGateway, times(1)).createStoreOnLegacySystem(testStore);
-    verify(legacyStoreManagerGateway, never()).updateStoreOnLegacySystem(any());
+    verify(legacyStoreSyncPipeline, times(1)).enqueue(event);
   }
   @Test
   void testOnStoreEventUpdated() {
@@ -37,31 +36,16 @@ class StoreEventListenerTest {
     // When
     listener.onStoreEvent(event);
     // Then
-    verify(legacyStoreManagerGateway, times(1)).updateStoreOnLegacySystem(testStore);
-    verify(legacyStoreManagerGateway, never()).createStoreOnLegacySystem(any());
+    verify(legacyStoreSyncPipeline, times(1)).enqueue(event);
   }
   @Test
-  void testOnStoreEventCreatedWithException() {
+  void testOnStoreEventWithException() {
     // Given
     StoreEvent event = new StoreEvent(testStore, StoreEvent.EventType.CREATED);
-    doThrow(new RuntimeException("Legacy system error"))
-        .when(legacyStoreManagerGateway)
-        .createStoreOnLegacySystem(testStore);
+    doThrow(new RuntimeException("Queue error")).when(legacyStoreSyncPipeline).enqueue(event);
     // When - should not throw exception
     listener.onStoreEvent(event);
     // Then
-    verify(legacyStoreManagerGateway, times(1)).createStoreOnLegacySystem(testStore);
-  }
-  @Test
-  void testOnStoreEventUpdatedWithException() {
-    // Given
-    StoreEvent event = new StoreEvent(testStore, StoreEvent.EventType.UPDATED);
-    doThrow(new RuntimeException("Legacy system error"))
-        .when(legacyStoreManagerGateway)
-        .updateStoreOnLegacySystem(testStore);
-    // When - should not throw exception
-    listener.onStoreEvent(event);
-    // Then
-    verify(legacyStoreManagerGateway, times(1)).updateStoreOnLegacySystem(testStore);
+    verify(legacyStoreSyncPipeline, times(1)).enqueue(event);
   }
 }
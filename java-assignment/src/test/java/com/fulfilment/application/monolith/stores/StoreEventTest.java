@@ -13,10 +13,35 @@ class StoreEventTest {
     StoreEvent event = new StoreEvent(store, StoreEvent.EventType.CREATED);
     // Then
     assertNotNull(event);
-    assertEquals(store, event.getStore());
+    assertEquals(new StoreSnapshot(1L, 0L, "Test Store", 50), event.getSnapshot());
+    assertEquals(1L, event.getStoreId());
     assertEquals(StoreEvent.EventType.CREATED, event.getEventType());
   }
   @Test
+  void testLaterChangesToTheStoreDoNotReachTheEvent() {
+    // Given
+    Store store = new Store("Snapshot Store", 10);
+    store.id = 3L;
+    store.version = 4;
+    StoreEvent event = new StoreEvent(store, StoreEvent.EventType.UPDATED);
+    // When
+    store.name = "Renamed Store";
+    store.quantityProductsInStock = 99;
+    store.version = 5;
+    // Then
+    assertEquals("Snapshot Store", event.getSnapshot().name());
+    assertEquals(10, event.getSnapshot().quantityProductsInStock());
+    assertEquals(4, event.getSnapshot().version());
+  }
+  @Test
+  void testSnapshotSupersedesOnlyOlderVersions() {
+    StoreSnapshot older = new StoreSnapshot(1L, 1L, "A", 1);
+    StoreSnapshot newer = new StoreSnapshot(1L, 2L, "A", 2);
+    assertTrue(newer.supersedes(older));
+    assertFalse(older.supersedes(newer));
+    assertFalse(newer.supersedes(newer));
+  }
+  @Test
   void testStoreEventWithUpdatedType() {
     // Given
     Store store = new Store();
@@ -27,7 +52,8 @@ class StoreEventTest {
     StoreEvent event = new StoreEvent(store, StoreEvent.EventType.UPDATED);
     // Then
     assertNotNull(event);
-    assertEquals(store, event.getStore());
+    assertEquals("Updated Store", event.getSnapshot().name());
+    assertEquals(100, event.getSnapshot().quantityProductsInStock());
     assertEquals(StoreEvent.EventType.UPDATED, event.getEventType());
   }
   @Test
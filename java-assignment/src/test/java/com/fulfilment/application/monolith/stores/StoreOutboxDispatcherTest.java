@@ -0,0 +1,185 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StoreOutboxDispatcherTest {
+
+  @Mock private StoreOutboxRepository outboxRepository;
+  @Mock private ResilientLegacyStoreGateway legacyGateway;
+
+  private StoreOutboxDispatcher dispatcher;
+
+  @BeforeEach
+  void setup() {
+    dispatcher =
+        new StoreOutboxDispatcher(outboxRepository, legacyGateway, 100, 2, Duration.ofMinutes(1));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testDeliverSendsLatestStateOfEachStoreAndMarksEntriesDelivered() {
+    // Given
+    StoreOutboxEntry created = createEntry(1L, 7L, StoreEvent.EventType.CREATED, 10);
+    StoreOutboxEntry updated = createEntry(2L, 7L, StoreEvent.EventType.UPDATED, 20);
+    StoreOutboxEntry other = createEntry(3L, 8L, StoreEvent.EventType.UPDATED, 5);
+
+    // When
+    int delivered = dispatcher.deliver(List.of(created, updated, other));
+
+    // Then
+    assertEquals(3, delivered);
+    ArgumentCaptor<List<StoreEvent>> sent = ArgumentCaptor.forClass(List.class);
+    verify(legacyGateway).syncStores(sent.capture());
+    assertEquals(2, sent.getValue().size());
+    assertEquals(StoreEvent.EventType.CREATED, sent.getValue().get(0).getEventType());
+    assertEquals(20, sent.getValue().get(0).getSnapshot().quantityProductsInStock());
+    assertEquals(1, sent.getValue().get(0).getSnapshot().version());
+    assertEquals(8L, sent.getValue().get(1).getStoreId());
+    for (StoreOutboxEntry entry : List.of(created, updated, other)) {
+      assertEquals(StoreOutboxEntry.Status.DELIVERED, entry.status);
+      assertNotNull(entry.processedAt);
+    }
+    verify(outboxRepository).release(List.of(created, updated, other));
+    assertEquals(3, dispatcher.getDeliveredCount());
+    assertEquals(3, dispatcher.getLastBatchSize());
+    assertTrue(dispatcher.getThroughputPerSecond() > 0);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testDeliverSendsTheHighestVersionWhateverTheEntryOrder() {
+    // Given
+    StoreOutboxEntry newer = createEntry(1L, 7L, StoreEvent.EventType.UPDATED, 30);
+    newer.storeVersion = 3;
+    StoreOutboxEntry older = createEntry(2L, 7L, StoreEvent.EventType.UPDATED, 20);
+    older.storeVersion = 2;
+
+    // When
+    dispatcher.deliver(List.of(newer, older));
+
+    // Then
+    ArgumentCaptor<List<StoreEvent>> sent = ArgumentCaptor.forClass(List.class);
+    verify(legacyGateway).syncStores(sent.capture());
+    assertEquals(1, sent.getValue().size());
+    assertEquals(3, sent.getValue().get(0).getSnapshot().version());
+    assertEquals(30, sent.getValue().get(0).getSnapshot().quantityProductsInStock());
+    assertEquals(StoreOutboxEntry.Status.DELIVERED, older.status);
+  }
+
+  @Test
+  void testFailedDeliveryKeepsEntriesPendingUntilAttemptsRunOut() {
+    // Given
+    doThrow(new RuntimeException("Legacy system error"))
+        .when(legacyGateway)
+        .syncStores(any());
+    StoreOutboxEntry entry = createEntry(1L, 7L, StoreEvent.EventType.UPDATED, 10);
+
+    // When
+    int firstAttempt = dispatcher.deliver(List.of(entry));
+
+    // Then
+    assertEquals(0, firstAttempt);
+    assertEquals(StoreOutboxEntry.Status.PENDING, entry.status);
+    assertEquals(1, entry.attempts);
+    assertEquals("Legacy system error", entry.lastError);
+
+    // When
+    dispatcher.deliver(List.of(entry));
+
+    // Then
+    assertEquals(StoreOutboxEntry.Status.FAILED, entry.status);
+    assertEquals(2, dispatcher.getFailedAttemptCount());
+    assertEquals(1, dispatcher.getDeadLetterCount());
+    verify(outboxRepository, times(2)).release(List.of(entry));
+  }
+
+  @Test
+  void testEntriesTheGatewayDoesNotSendAreParkedWithoutUsingAnAttempt() {
+    // Given
+    doThrow(new LegacyStoreUnavailableException("Legacy store manager circuit is open"))
+        .when(legacyGateway)
+        .syncStores(any());
+    StoreOutboxEntry entry = createEntry(1L, 7L, StoreEvent.EventType.UPDATED, 10);
+
+    // When
+    int delivered = dispatcher.deliver(List.of(entry));
+
+    // Then
+    assertEquals(0, delivered);
+    assertEquals(StoreOutboxEntry.Status.PENDING, entry.status);
+    assertEquals(0, entry.attempts);
+    assertEquals(1, dispatcher.getParkedCount());
+    assertEquals(0, dispatcher.getFailedAttemptCount());
+    verify(outboxRepository).release(List.of(entry));
+  }
+
+  @Test
+  void testPollSendsOutsideTheClaimAndReleaseTransactions() {
+    // Given
+    StoreOutboxEntry entry = createEntry(1L, 7L, StoreEvent.EventType.UPDATED, 10);
+    when(legacyGateway.isCallPermitted()).thenReturn(true);
+    when(outboxRepository.claimPending(100, Duration.ofMinutes(1)))
+        .thenReturn(List.of(entry), List.of());
+
+    // When
+    dispatcher.poll();
+
+    // Then - claimed, sent, then released, each step on its own, until nothing is left to claim
+    var order = inOrder(outboxRepository, legacyGateway);
+    order.verify(outboxRepository).claimPending(100, Duration.ofMinutes(1));
+    order.verify(legacyGateway).syncStores(any());
+    order.verify(outboxRepository).release(List.of(entry));
+    order.verify(outboxRepository).claimPending(100, Duration.ofMinutes(1));
+    assertEquals(StoreOutboxEntry.Status.DELIVERED, entry.status);
+  }
+
+  @Test
+  void testPollHoldsOffWhileTheCircuitIsOpen() {
+    // Given
+    when(legacyGateway.isCallPermitted()).thenReturn(false);
+
+    // When
+    dispatcher.poll();
+
+    // Then
+    verifyNoInteractions(outboxRepository);
+  }
+
+  @Test
+  void testDeliverWithoutEntriesDoesNothing() {
+    assertEquals(0, dispatcher.deliver(List.of()));
+    verifyNoInteractions(legacyGateway);
+  }
+
+  @Test
+  void testLagIsZeroWithoutPendingEntries() {
+    when(outboxRepository.oldestPendingCreatedAt()).thenReturn(null);
+    assertEquals(0, dispatcher.getLagMillis());
+  }
+
+  private StoreOutboxEntry createEntry(
+      Long id, Long storeId, StoreEvent.EventType eventType, int stock) {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.id = id;
+    entry.storeId = storeId;
+    entry.storeVersion = id - 1;
+    entry.eventType = eventType;
+    entry.name = "Store " + storeId;
+    entry.quantityProductsInStock = stock;
+    entry.status = StoreOutboxEntry.Status.PENDING;
+    entry.createdAt = LocalDateTime.now();
+    return entry;
+  }
+}
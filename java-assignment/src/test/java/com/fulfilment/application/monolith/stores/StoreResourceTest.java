@@ -33,7 +33,7 @@ class StoreResourceTest {
         mockStore.name = "Test_" + System.currentTimeMillis();
         mockStore.quantityProductsInStock = 1;
         mockStore.persist();
-        assertFalse(resource.get().isEmpty());
+        assertFalse(resource.get().await().indefinitely().isEmpty());
     }
 
     @Test
@@ -130,7 +130,7 @@ class StoreResourceTest {
     @Transactional
     void testGetAllEmpty() {
         Store.deleteAll();
-        List<Store> stores = resource.get();
+        List<Store> stores = resource.get().await().indefinitely();
         assertTrue(stores.isEmpty());
     }
 
@@ -240,7 +240,7 @@ class StoreResourceTest {
         store2.quantityProductsInStock = 20;
         Store.persist(store2);
 
-        List<Store> stores = resource.get();
+        List<Store> stores = resource.get().await().indefinitely();
         assertEquals(2, stores.size());
         assertTrue(stores.stream().anyMatch(s -> s.name.startsWith("StoreA_")));
         assertTrue(stores.stream().anyMatch(s -> s.name.startsWith("StoreB_")));
@@ -0,0 +1,212 @@
+package com.fulfilment.application.monolith.stores.legacy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreEvent;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LegacyExportLogTest {
+
+  @TempDir Path directory;
+
+  private LegacyExportLog log;
+
+  @AfterEach
+  void cleanup() {
+    if (log != null) {
+      log.close();
+    }
+  }
+
+  @Test
+  void testAppendedEventsAreReadBackInOrder() throws IOException {
+    // Given
+    log = open(1024 * 1024, Duration.ZERO, 16);
+
+    // When
+    log.append(List.of(created(1L, "Store A", 10), updated(2L, "Störe B", 20)));
+    long end = log.append(List.of(updated(1L, "Store A", 15)));
+
+    // Then
+    try (var reader = log.openReader(0)) {
+      var records = reader.poll(10);
+      assertEquals(3, records.size());
+      assertEquals(StoreEvent.EventType.CREATED, records.get(0).eventType());
+      assertEquals(1L, records.get(0).storeId());
+      assertEquals("Store A", records.get(0).name());
+      assertEquals(10, records.get(0).quantityProductsInStock());
+      assertEquals("Störe B", records.get(1).name());
+      assertEquals(records.get(0).nextPosition(), records.get(1).position());
+      assertEquals(15, records.get(2).quantityProductsInStock());
+      assertEquals(end, reader.position());
+      assertTrue(reader.poll(10).isEmpty());
+    }
+    assertEquals(end, log.getDurablePosition());
+    assertEquals(3, log.getAppendedRecordCount());
+  }
+
+  @Test
+  void testReaderTailsAcrossRotatedSegments() throws IOException {
+    // Given
+    log = open(256, Duration.ZERO, 100);
+    var reader = log.openReader(0);
+
+    // When
+    List<LegacyExportRecord> seen = new ArrayList<>();
+    for (long id = 1; id <= 50; id++) {
+      log.append(List.of(updated(id, "Store " + id, (int) id)));
+      seen.addAll(reader.poll(3));
+    }
+    seen.addAll(reader.poll(100));
+    reader.close();
+
+    // Then
+    assertTrue(log.getRotationCount() > 0);
+    assertEquals(50, seen.size());
+    for (int i = 0; i < 50; i++) {
+      assertEquals(i + 1L, seen.get(i).storeId());
+    }
+  }
+
+  @Test
+  void testOldSegmentsAreDeletedAndTheirPositionsRejected() throws IOException {
+    // Given
+    log = open(128, Duration.ZERO, 2);
+
+    // When
+    for (long id = 1; id <= 20; id++) {
+      log.append(List.of(updated(id, "Store " + id, 1)));
+    }
+
+    // Then
+    assertEquals(2, LegacyExportLog.listSegments(directory).size());
+    try (var reader = log.openReader(0)) {
+      assertThrows(IOException.class, () -> reader.poll(1));
+    }
+  }
+
+  @Test
+  void testTornRecordIsCutOffWhenReopened() throws IOException {
+    // Given
+    log = open(1024 * 1024, Duration.ZERO, 16);
+    long end = log.append(List.of(created(1L, "Store A", 10), created(2L, "Store B", 20)));
+    log.close();
+    try (var segment =
+        FileChannel.open(
+            LegacyExportLog.segmentPath(directory, 0), StandardOpenOption.WRITE)) {
+      segment.truncate(end - 3);
+    }
+
+    // When
+    log = open(1024 * 1024, Duration.ZERO, 16);
+    log.append(List.of(updated(3L, "Store C", 30)));
+
+    // Then
+    try (var reader = log.openReader(0)) {
+      var records = reader.poll(10);
+      assertEquals(2, records.size());
+      assertEquals(1L, records.get(0).storeId());
+      assertEquals(3L, records.get(1).storeId());
+    }
+  }
+
+  @Test
+  void testConcurrentAppendersShareFsyncs() throws Exception {
+    // Given
+    log = open(1024 * 1024, Duration.ZERO, 16);
+    int threads = 8;
+    int appendsPerThread = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    var start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+
+    // When
+    for (int t = 0; t < threads; t++) {
+      long base = t * 1000L;
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < appendsPerThread; i++) {
+                  long end = log.append(List.of(updated(base + i, "Store", i)));
+                  assertTrue(log.getDurablePosition() >= end);
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    // Then
+    assertEquals(threads * appendsPerThread, log.getAppendedRecordCount());
+    assertTrue(log.getSyncCount() <= threads * appendsPerThread);
+    try (var reader = log.openReader(0)) {
+      assertEquals(threads * appendsPerThread, reader.poll(Integer.MAX_VALUE).size());
+    }
+  }
+
+  @Test
+  void testBackgroundFsyncCatchesUp() throws Exception {
+    // Given
+    log = open(1024 * 1024, Duration.ofMillis(10), 16);
+
+    // When
+    long end = log.append(List.of(created(1L, "Store A", 10)));
+
+    // Then
+    long deadline = System.currentTimeMillis() + 5000;
+    while (log.getDurablePosition() < end && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(end, log.getDurablePosition());
+  }
+
+  @Test
+  void testClosedLogRejectsAppends() {
+    // Given
+    log = open(1024, Duration.ZERO, 16);
+    log.close();
+
+    // When / Then
+    assertThrows(IllegalStateException.class, () -> log.append(List.of(created(1L, "A", 1))));
+    assertTrue(Files.isDirectory(directory));
+  }
+
+  private LegacyExportLog open(long segmentBytes, Duration fsyncInterval, int retainedSegments) {
+    return new LegacyExportLog(
+        directory.toString(), segmentBytes, fsyncInterval, retainedSegments);
+  }
+
+  static StoreEvent created(Long id, String name, int stock) {
+    return new StoreEvent(store(id, name, stock), StoreEvent.EventType.CREATED);
+  }
+
+  static StoreEvent updated(Long id, String name, int stock) {
+    return new StoreEvent(store(id, name, stock), StoreEvent.EventType.UPDATED);
+  }
+
+  private static Store store(Long id, String name, int stock) {
+    Store store = new Store(name, stock);
+    store.id = id;
+    return store;
+  }
+}
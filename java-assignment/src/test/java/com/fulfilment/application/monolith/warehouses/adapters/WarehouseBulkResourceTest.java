@@ -0,0 +1,135 @@
+package com.fulfilment.application.monolith.warehouses.adapters;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseBulkResource;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.BulkCreateWarehouseUseCase;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class WarehouseBulkResourceTest {
+
+  @Mock private BulkCreateWarehouseUseCase bulkCreateWarehouseUseCase;
+
+  private WarehouseBulkResource resource;
+
+  @BeforeEach
+  void setup() {
+    resource = new WarehouseBulkResource();
+    resource.setBulkCreateWarehouseUseCase(bulkCreateWarehouseUseCase);
+    resource.setObjectMapper(new ObjectMapper());
+  }
+
+  @Test
+  void testImportWarehousesFromJsonArray() {
+    // Given
+    var first = new com.warehouse.api.beans.Warehouse();
+    first.setBusinessUnitCode("BULK-001");
+    first.setLocation("AMSTERDAM-001");
+    first.setCapacity(20);
+    first.setStock(5);
+    var second = new com.warehouse.api.beans.Warehouse();
+    second.setBusinessUnitCode("BULK-002");
+    second.setLocation("UNKNOWN");
+    second.setCapacity(20);
+    second.setStock(5);
+
+    when(bulkCreateWarehouseUseCase.createAll(any()))
+        .thenReturn(
+            List.of(
+                WarehouseImportResult.created(0, "BULK-001"),
+                WarehouseImportResult.rejected(1, "BULK-002", "Location not found: UNKNOWN")));
+
+    // When
+    ObjectNode response = resource.importWarehouses(List.of(first, second));
+
+    // Then
+    assertEquals(1, response.get("created").asInt());
+    assertEquals(1, response.get("rejected").asInt());
+    assertEquals(
+        "Location not found: UNKNOWN", response.get("results").get(1).get("error").asText());
+    assertFalse(response.get("results").get(0).has("error"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testImportWarehousesFromNdjson() {
+    // Given
+    String body =
+        "{\"businessUnitCode\":\"BULK-001\",\"location\":\"AMSTERDAM-001\",\"capacity\":20,\"stock\":5}\n"
+            + "\n"
+            + "{\"businessUnitCode\":\"BULK-002\",\"location\":\"ZWOLLE-002\",\"capacity\":10,\"stock\":1}\n";
+
+    when(bulkCreateWarehouseUseCase.createAll(any()))
+        .thenReturn(
+            List.of(
+                WarehouseImportResult.created(0, "BULK-001"),
+                WarehouseImportResult.created(1, "BULK-002")));
+
+    // When
+    ObjectNode response =
+        resource.importWarehousesStream(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+    // Then
+    ArgumentCaptor<List<Warehouse>> captor = ArgumentCaptor.forClass(List.class);
+    verify(bulkCreateWarehouseUseCase).createAll(captor.capture());
+    assertEquals(2, captor.getValue().size());
+    assertEquals("ZWOLLE-002", captor.getValue().get(1).location);
+    assertEquals(10, captor.getValue().get(1).capacity);
+    assertEquals(2, response.get("created").asInt());
+  }
+
+  @Test
+  void testImportWarehousesFromNdjsonWithInvalidLine() {
+    // Given
+    String body = "{\"businessUnitCode\":\"BULK-001\"}\nnot json\n";
+
+    // When & Then
+    WebApplicationException exception =
+        assertThrows(
+            WebApplicationException.class,
+            () ->
+                resource.importWarehousesStream(
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+    assertEquals(400, exception.getResponse().getStatus());
+    verify(bulkCreateWarehouseUseCase, never()).createAll(any());
+  }
+
+  @Test
+  void testImportWarehousesRejectsEmptyBatch() {
+    // When & Then
+    WebApplicationException exception =
+        assertThrows(WebApplicationException.class, () -> resource.importWarehouses(List.of()));
+    assertEquals(400, exception.getResponse().getStatus());
+  }
+
+  @Test
+  void testImportWarehousesRejectsOversizedBatch() {
+    // Given
+    resource.setMaxItems(1);
+    var warehouse = new com.warehouse.api.beans.Warehouse();
+
+    // When & Then
+    WebApplicationException exception =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.importWarehouses(List.of(warehouse, warehouse)));
+    assertEquals(413, exception.getResponse().getStatus());
+    verify(bulkCreateWarehouseUseCase, never()).createAll(any());
+  }
+}
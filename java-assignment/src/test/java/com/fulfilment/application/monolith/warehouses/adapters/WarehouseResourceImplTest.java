@@ -12,6 +12,7 @@ import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
+import jakarta.ws.rs.WebApplicationException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -48,7 +49,8 @@ public class WarehouseResourceImplTest {
     when(warehouseRepository.getAll()).thenReturn(new ArrayList<>());
 
     // When
-    List<com.warehouse.api.beans.Warehouse> result = resource.listAllWarehousesUnits();
+    List<com.warehouse.api.beans.Warehouse> result =
+        resource.listAllWarehousesUnits(null, null, null, null);
 
     // Then
     assertNotNull(result);
@@ -74,7 +76,8 @@ public class WarehouseResourceImplTest {
     when(warehouseRepository.getAll()).thenReturn(List.of(w1, w2));
 
     // When
-    List<com.warehouse.api.beans.Warehouse> result = resource.listAllWarehousesUnits();
+    List<com.warehouse.api.beans.Warehouse> result =
+        resource.listAllWarehousesUnits(null, null, null, null);
 
     // Then
     assertNotNull(result);
@@ -83,6 +86,122 @@ public class WarehouseResourceImplTest {
     assertEquals("WH-002", result.get(1).getBusinessUnitCode());
   }
 
+  @Test
+  void testListAllWarehousesUnitsPageAfterCursor() {
+    // Given
+    DbWarehouse db = new DbWarehouse();
+    db.id = 7L;
+    db.businessUnitCode = "WH-007";
+    db.location = "AMSTERDAM-001";
+    db.capacity = 100;
+    db.stock = 50;
+
+    when(warehouseRepository.listAfter(5L, 2)).thenReturn(List.of(db));
+
+    // When
+    List<com.warehouse.api.beans.Warehouse> result =
+        resource.listAllWarehousesUnits(5L, 2, null, null);
+
+    // Then
+    assertEquals(1, result.size());
+    assertEquals("7", result.get(0).getId());
+    assertEquals("WH-007", result.get(0).getBusinessUnitCode());
+    verify(warehouseRepository, never()).getAll();
+  }
+
+  @Test
+  void testListAllWarehousesUnitsPageUsesDefaultLimit() {
+    // Given
+    when(warehouseRepository.listAfter(3L, 1000)).thenReturn(List.of());
+
+    // When
+    List<com.warehouse.api.beans.Warehouse> result =
+        resource.listAllWarehousesUnits(3L, null, null, null);
+
+    // Then
+    assertEquals(0, result.size());
+  }
+
+  @Test
+  void testListAllWarehousesUnitsRejectsInvalidLimit() {
+    // When & Then
+    WebApplicationException tooSmall =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.listAllWarehousesUnits(null, 0, null, null));
+    WebApplicationException tooLarge =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.listAllWarehousesUnits(null, 1001, null, null));
+    assertEquals(400, tooSmall.getResponse().getStatus());
+    assertEquals(400, tooLarge.getResponse().getStatus());
+    verifyNoInteractions(warehouseRepository);
+  }
+
+  @Test
+  void testListActiveWarehousesUnits() {
+    // Given
+    Warehouse active = new Warehouse();
+    active.businessUnitCode = "WH-001";
+    when(warehouseRepository.getActive()).thenReturn(List.of(active));
+
+    // When
+    List<com.warehouse.api.beans.Warehouse> result =
+        resource.listAllWarehousesUnits(null, null, "active", null);
+
+    // Then
+    assertEquals(1, result.size());
+    verify(warehouseRepository, never()).getAll();
+  }
+
+  @Test
+  void testListArchivedWarehousesUnitsSinceDate() {
+    // Given
+    when(warehouseRepository.getArchived(LocalDateTime.of(2024, 7, 1, 0, 0)))
+        .thenReturn(List.of());
+
+    // When
+    List<com.warehouse.api.beans.Warehouse> result =
+        resource.listAllWarehousesUnits(null, null, "ARCHIVED", "2024-07-01");
+
+    // Then
+    assertEquals(0, result.size());
+  }
+
+  @Test
+  void testListActiveWarehousesUnitsPage() {
+    // Given
+    when(warehouseRepository.listActiveAfter(null, 10)).thenReturn(List.of());
+
+    // When
+    resource.listAllWarehousesUnits(null, 10, "active", null);
+
+    // Then
+    verify(warehouseRepository).listActiveAfter(null, 10);
+    verify(warehouseRepository, never()).listAfter(any(), anyInt());
+  }
+
+  @Test
+  void testListWarehousesUnitsRejectsInvalidFilters() {
+    // When & Then
+    WebApplicationException unknownStatus =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.listAllWarehousesUnits(null, null, "deleted", null));
+    WebApplicationException sinceWithoutArchived =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.listAllWarehousesUnits(null, null, "active", "2024-07-01"));
+    WebApplicationException invalidSince =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.listAllWarehousesUnits(null, null, "archived", "yesterday"));
+    assertEquals(400, unknownStatus.getResponse().getStatus());
+    assertEquals(400, sinceWithoutArchived.getResponse().getStatus());
+    assertEquals(400, invalidSince.getResponse().getStatus());
+    verifyNoInteractions(warehouseRepository);
+  }
+
   @Test
   void testCreateANewWarehouseUnit() {
     // Given
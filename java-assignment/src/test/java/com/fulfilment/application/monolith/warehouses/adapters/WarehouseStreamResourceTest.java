@@ -0,0 +1,78 @@
+package com.fulfilment.application.monolith.warehouses.adapters;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseStreamResource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class WarehouseStreamResourceTest {
+
+  @Mock private WarehouseRepository warehouseRepository;
+
+  private WarehouseStreamResource resource;
+
+  @BeforeEach
+  void setup() {
+    resource = new WarehouseStreamResource();
+    resource.setWarehouseRepository(warehouseRepository);
+    resource.setObjectMapper(new ObjectMapper());
+  }
+
+  @Test
+  void testStreamWarehousesWritesOneLinePerWarehouse() throws Exception {
+    // Given
+    doAnswer(invocation -> {
+          Consumer<DbWarehouse> action = invocation.getArgument(1);
+          action.accept(createDbWarehouse(1L, "MWH.001"));
+          action.accept(createDbWarehouse(2L, "MWH.012"));
+          return null;
+        })
+        .when(warehouseRepository).streamAfter(eq(null), any());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    // When
+    resource.streamWarehouses(null).write(output);
+
+    // Then
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    ObjectMapper mapper = new ObjectMapper();
+    assertEquals("1", mapper.readTree(lines[0]).get("id").asText());
+    assertEquals("MWH.012", mapper.readTree(lines[1]).get("businessUnitCode").asText());
+  }
+
+  @Test
+  void testStreamWarehousesStartsAfterCursor() throws Exception {
+    // Given
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    // When
+    resource.streamWarehouses(42L).write(output);
+
+    // Then
+    verify(warehouseRepository).streamAfter(eq(42L), any());
+    assertEquals(0, output.size());
+  }
+
+  private DbWarehouse createDbWarehouse(Long id, String code) {
+    DbWarehouse warehouse = new DbWarehouse();
+    warehouse.id = id;
+    warehouse.businessUnitCode = code;
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = 100;
+    warehouse.stock = 10;
+    return warehouse;
+  }
+}
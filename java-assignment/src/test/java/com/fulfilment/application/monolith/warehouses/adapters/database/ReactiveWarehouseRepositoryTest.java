@@ -0,0 +1,126 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static com.fulfilment.application.monolith.common.persistence.ReactiveTestDatabase.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.common.persistence.ReactiveTestDatabase;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReactiveWarehouseRepositoryTest {
+
+  private ReactiveTestDatabase database;
+
+  private ReactiveWarehouseRepository repository;
+
+  @BeforeEach
+  void setup() throws Exception {
+    database =
+        ReactiveTestDatabase.open(
+            "reactive-warehouses",
+            "create table warehouse (id bigint primary key, businessUnitCode varchar(255),"
+                + " location varchar(255), capacity integer, stock integer,"
+                + " createdAt timestamp, archivedAt timestamp)",
+            "insert into warehouse values"
+                + " (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01 00:00:00', null),"
+                + " (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01 00:00:00', null),"
+                + " (3, 'MWH.023', 'ZWOLLE-001', 30, 27, '2021-02-01 00:00:00',"
+                + " '2024-01-15 10:00:00'),"
+                + " (4, 'MWH.034', 'TILBURG-001', 40, 0, '2020-05-01 00:00:00',"
+                + " '2022-03-01 00:00:00')");
+    repository = new ReactiveWarehouseRepository(database.readPool());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    database.execute("drop table warehouse");
+    database.close();
+  }
+
+  @Test
+  void testIsEnabledFollowsReadPool() {
+    assertTrue(repository.isEnabled());
+  }
+
+  @Test
+  void testGetAllReadsEveryColumnInIdOrder() {
+    List<Warehouse> all = await(repository.getAll());
+
+    assertEquals(List.of("MWH.001", "MWH.012", "MWH.023", "MWH.034"), codes(all));
+    Warehouse archived = all.get(2);
+    assertEquals("ZWOLLE-001", archived.location);
+    assertEquals(30, archived.capacity);
+    assertEquals(27, archived.stock);
+    assertEquals(LocalDateTime.of(2021, 2, 1, 0, 0), archived.createdAt);
+    assertEquals(LocalDateTime.of(2024, 1, 15, 10, 0), archived.archivedAt);
+  }
+
+  @Test
+  void testGetActiveSkipsArchived() {
+    assertEquals(List.of("MWH.001", "MWH.012"), codes(await(repository.getActive())));
+  }
+
+  @Test
+  void testGetActiveByLocation() {
+    assertEquals(
+        List.of("MWH.001"),
+        codes(await(repository.getActiveByLocation("ZWOLLE-001"))));
+  }
+
+  @Test
+  void testGetArchivedSince() {
+    assertEquals(
+        List.of("MWH.023", "MWH.034"), codes(await(repository.getArchived(null))));
+    assertEquals(
+        List.of("MWH.023"),
+        codes(await(repository.getArchived(LocalDateTime.of(2023, 1, 1, 0, 0)))));
+  }
+
+  @Test
+  void testFindOptionalByBusinessUnitCode() {
+    var found = await(repository.findOptionalByBusinessUnitCode("MWH.012"));
+    assertTrue(found.isPresent());
+    assertEquals("AMSTERDAM-001", found.get().location);
+
+    assertTrue(await(repository.findOptionalByBusinessUnitCode("MWH.999")).isEmpty());
+  }
+
+  @Test
+  void testListAfterPagesById() {
+    List<DbWarehouse> first = await(repository.listAfter(null, 2));
+    List<DbWarehouse> second = await(repository.listAfter(first.get(1).id, 2));
+
+    assertEquals(List.of(1L, 2L), ids(first));
+    assertEquals(List.of(3L, 4L), ids(second));
+    assertTrue(await(repository.listAfter(4L, 2)).isEmpty());
+  }
+
+  @Test
+  void testListActiveAfter() {
+    assertEquals(List.of(2L), ids(await(repository.listActiveAfter(1L, 10))));
+  }
+
+  @Test
+  void testListArchivedAfter() {
+    assertEquals(
+        List.of(3L, 4L), ids(await(repository.listArchivedAfter(null, 0L, 10))));
+    assertEquals(
+        List.of(3L),
+        ids(
+            await(
+                repository.listArchivedAfter(LocalDateTime.of(2023, 1, 1, 0, 0), null, 10))));
+    assertEquals(List.of(4L), ids(await(repository.listArchivedAfter(null, 3L, 10))));
+  }
+
+  private static List<String> codes(List<Warehouse> warehouses) {
+    return warehouses.stream().map(warehouse -> warehouse.businessUnitCode).toList();
+  }
+
+  private static List<Long> ids(List<DbWarehouse> warehouses) {
+    return warehouses.stream().map(warehouse -> warehouse.id).toList();
+  }
+}
@@ -0,0 +1,130 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class WarehouseLookupCacheTest {
+
+  @Mock private TransactionSynchronizationRegistry transactionRegistry;
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private WarehouseLookupCache cache;
+
+  @BeforeEach
+  void setup() {
+    cache =
+        new WarehouseLookupCache(
+            100, Duration.ofMinutes(10), Duration.ofSeconds(5), transactionRegistry, nanos::get);
+  }
+
+  @Test
+  void testGetLoadsOnceAndCountsHitsAndMisses() {
+    // When
+    cache.get("MWH.001", loader(warehouse("MWH.001")));
+    Optional<Warehouse> result = cache.get("MWH.001", loader(warehouse("MWH.001")));
+
+    // Then
+    assertTrue(result.isPresent());
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.getStats().hitCount());
+    assertEquals(1, cache.getStats().missCount());
+  }
+
+  @Test
+  void testGetReturnsCopies() {
+    // Given
+    cache.get("MWH.001", loader(warehouse("MWH.001")));
+
+    // When
+    cache.get("MWH.001", loader(null)).get().capacity = 999;
+
+    // Then
+    assertEquals(100, cache.get("MWH.001", loader(null)).get().capacity);
+  }
+
+  @Test
+  void testMissingCodesExpireAfterNegativeTtl() {
+    // Given
+    cache.get("MWH.404", loader(null));
+    cache.get("MWH.001", loader(warehouse("MWH.001")));
+
+    // When
+    nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+    cache.get("MWH.404", loader(null));
+    cache.get("MWH.001", loader(warehouse("MWH.001")));
+
+    // Then - only the missing code was loaded again
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  void testInvalidateOutsideTransactionDropsEntry() {
+    // Given
+    when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+    cache.get("MWH.001", loader(null));
+
+    // When
+    cache.invalidate("MWH.001");
+    Optional<Warehouse> result = cache.get("MWH.001", loader(warehouse("MWH.001")));
+
+    // Then
+    assertTrue(result.isPresent());
+    assertEquals(1, cache.getInvalidationCount());
+    verify(transactionRegistry, never()).registerInterposedSynchronization(any());
+  }
+
+  @Test
+  void testInvalidateInTransactionDropsEntryAgainAfterCompletion() {
+    // Given
+    when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+    cache.get("MWH.001", loader(warehouse("MWH.001")));
+
+    // When - a lookup during the transaction caches the value again
+    cache.invalidate("MWH.001");
+    cache.get("MWH.001", loader(warehouse("MWH.001")));
+    ArgumentCaptor<Synchronization> synchronization =
+        ArgumentCaptor.forClass(Synchronization.class);
+    verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+    synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+    cache.get("MWH.001", loader(warehouse("MWH.001")));
+
+    // Then
+    assertEquals(3, loads.get());
+  }
+
+  private Function<String, Optional<Warehouse>> loader(Warehouse warehouse) {
+    return code -> {
+      loads.incrementAndGet();
+      return Optional.ofNullable(warehouse);
+    };
+  }
+
+  private Warehouse warehouse(String code) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = 100;
+    warehouse.stock = 10;
+    return warehouse;
+  }
+}
@@ -2,6 +2,7 @@ package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
 
 import io.quarkus.test.junit.QuarkusTest;
 import org.junit.jupiter.api.Test;
@@ -22,4 +23,52 @@ public class WarehouseEndpointIT {
         .statusCode(200)
         .body(containsString("MWH.001"), containsString("MWH.012"), containsString("MWH.023"));
   }
+
+  @Test
+  public void testPagedListWarehouses() {
+
+    // First page of two warehouses, ordered by id
+    given()
+        .when()
+        .get("warehouse?limit=2")
+        .then()
+        .statusCode(200)
+        .body(
+            containsString("MWH.001"),
+            containsString("MWH.012"),
+            not(containsString("MWH.023")));
+
+    // Next page after the second warehouse
+    given()
+        .when()
+        .get("warehouse?after=2&limit=2")
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.023"), not(containsString("MWH.001")));
+  }
+
+  @Test
+  public void testStreamWarehousesAsNdjson() {
+
+    given()
+        .when()
+        .get("warehouse/stream")
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.001"), containsString("MWH.012"), containsString("MWH.023"));
+  }
+
+  @Test
+  public void testListWarehousesByStatus() {
+
+    // All initial warehouses are active
+    given()
+        .when()
+        .get("warehouse?status=active")
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.001"), containsString("MWH.012"), containsString("MWH.023"));
+
+    given().when().get("warehouse?status=unknown").then().statusCode(400);
+  }
 }
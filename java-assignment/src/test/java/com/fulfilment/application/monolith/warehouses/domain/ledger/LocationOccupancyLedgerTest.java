@@ -0,0 +1,148 @@
+package com.fulfilment.application.monolith.warehouses.domain.ledger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationOccupancyLedgerTest {
+
+  @Mock private WarehouseStore warehouseStore;
+
+  private LocationOccupancyLedger ledger;
+
+  @BeforeEach
+  void setup() {
+    ledger = new LocationOccupancyLedger(warehouseStore);
+  }
+
+  @Test
+  void testRebuildLoadsOccupancyFromStore() {
+    // Given
+    when(warehouseStore.getActiveOccupancyByLocation())
+        .thenReturn(List.of(new LocationOccupancy("AMSTERDAM-001", 2L, 80L)));
+
+    // When
+    ledger.rebuild();
+
+    // Then
+    assertEquals(2, ledger.occupancyOf("AMSTERDAM-001").activeWarehouses);
+    assertEquals(80, ledger.occupancyOf("AMSTERDAM-001").totalCapacity);
+    assertEquals(0, ledger.occupancyOf("ZWOLLE-001").activeWarehouses);
+  }
+
+  @Test
+  void testRecordCreatedAndArchived() {
+    // Given
+    Warehouse warehouse = createWarehouse("MWH.100", "ZWOLLE-002", 20);
+
+    // When
+    ledger.recordCreated(warehouse);
+    ledger.recordCreated(createWarehouse("MWH.101", "ZWOLLE-002", 15));
+    ledger.recordArchived(warehouse);
+
+    // Then
+    assertEquals(1, ledger.occupancyOf("ZWOLLE-002").activeWarehouses);
+    assertEquals(15, ledger.occupancyOf("ZWOLLE-002").totalCapacity);
+  }
+
+  @Test
+  void testReconcileCorrectsDrift() {
+    // Given
+    ledger.recordCreated(createWarehouse("MWH.100", "TILBURG-001", 30));
+    when(warehouseStore.getActiveOccupancyByLocation()).thenReturn(List.of());
+    when(warehouseStore.getActiveOccupancy("TILBURG-001"))
+        .thenReturn(LocationOccupancy.empty("TILBURG-001"));
+
+    // When
+    ledger.reconcile();
+
+    // Then
+    assertEquals(0, ledger.occupancyOf("TILBURG-001").activeWarehouses);
+    assertEquals(0, ledger.occupancyOf("TILBURG-001").totalCapacity);
+  }
+
+  @Test
+  void testConcurrentAdmissionsAtSameLocationAreSerialized() throws Exception {
+    // Given - a location that admits a single warehouse
+    int clients = 16;
+    AtomicInteger admitted = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    CountDownLatch start = new CountDownLatch(1);
+
+    // When
+    for (int i = 0; i < clients; i++) {
+      String code = "MWH." + i;
+      executor.submit(() -> {
+        start.await();
+        ledger.runWithLocationLock("HELMOND-001", () -> {
+          if (ledger.occupancyOf("HELMOND-001").activeWarehouses < 1) {
+            ledger.recordCreated(createWarehouse(code, "HELMOND-001", 10));
+            admitted.incrementAndGet();
+          }
+        });
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    // Then
+    assertEquals(1, admitted.get());
+    assertEquals(1, ledger.occupancyOf("HELMOND-001").activeWarehouses);
+  }
+
+  @Test
+  void testLocationLocksAreTakenInOrderWithoutDeadlock() throws Exception {
+    // Given - callers locking the same locations in opposite orders
+    int clients = 8;
+    AtomicInteger completed = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    CountDownLatch start = new CountDownLatch(1);
+
+    // When
+    for (int i = 0; i < clients; i++) {
+      List<String> locations =
+          i % 2 == 0
+              ? List.of("AMSTERDAM-001", "ZWOLLE-001")
+              : List.of("ZWOLLE-001", "AMSTERDAM-001");
+      executor.submit(() -> {
+        start.await();
+        for (int round = 0; round < 100; round++) {
+          ledger.runWithLocationLocks(locations, completed::incrementAndGet);
+        }
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+
+    // Then
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(clients * 100, completed.get());
+  }
+
+  private Warehouse createWarehouse(String code, String location, int capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = 0;
+    return warehouse;
+  }
+}
@@ -3,6 +3,7 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import java.time.LocalDateTime;
@@ -23,6 +24,7 @@ public class ArchiveWarehouseUseCaseTest {
   @BeforeEach
   void setup() {
     useCase = new ArchiveWarehouseUseCase(warehouseStore);
+    useCase.setOccupancyLedger(new LocationOccupancyLedger(warehouseStore));
   }
 
   @Test
@@ -53,6 +55,35 @@ public class ArchiveWarehouseUseCaseTest {
     assertEquals("MWH.001", archived.businessUnitCode);
   }
 
+  @Test
+  void testArchiveUpdatesAndRecordsUnderTheLocationLock() {
+    // Given
+    LocationOccupancyLedger ledger = mock(LocationOccupancyLedger.class);
+    useCase.setOccupancyLedger(ledger);
+
+    Warehouse existingWarehouse = new Warehouse();
+    existingWarehouse.businessUnitCode = "MWH.001";
+    existingWarehouse.location = "AMSTERDAM-001";
+    existingWarehouse.capacity = 100;
+
+    Warehouse warehouseToArchive = new Warehouse();
+    warehouseToArchive.businessUnitCode = "MWH.001";
+
+    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(existingWarehouse);
+
+    // When
+    useCase.archive(warehouseToArchive);
+
+    // Then - the update and the ledger record only happen once the lock runs them
+    ArgumentCaptor<Runnable> action = ArgumentCaptor.forClass(Runnable.class);
+    verify(ledger).runWithLocationLock(eq("AMSTERDAM-001"), action.capture());
+    verify(warehouseStore, never()).update(any());
+
+    action.getValue().run();
+    verify(warehouseStore).update(existingWarehouse);
+    verify(ledger).recordArchived(existingWarehouse);
+  }
+
   @Test
   void testArchiveWarehouseFailsWhenNotFound() {
     // Given
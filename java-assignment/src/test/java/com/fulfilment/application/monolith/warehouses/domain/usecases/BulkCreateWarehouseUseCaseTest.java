@@ -0,0 +1,165 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.validators.WarehouseValidator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkCreateWarehouseUseCaseTest {
+
+  @Mock private WarehouseStore warehouseStore;
+  @Mock private WarehouseValidator validator;
+
+  private LocationOccupancyLedger occupancyLedger;
+
+  private BulkCreateWarehouseUseCase useCase;
+
+  @BeforeEach
+  void setup() {
+    occupancyLedger = new LocationOccupancyLedger(warehouseStore);
+    useCase = new BulkCreateWarehouseUseCase(warehouseStore);
+    useCase.setValidator(validator);
+    useCase.setOccupancyLedger(occupancyLedger);
+  }
+
+  @Test
+  void testCreateAllInsertsEveryValidWarehouseInOneCall() {
+    // Given
+    Warehouse first = createWarehouse("BULK-001", "AMSTERDAM-001", 20);
+    Warehouse second = createWarehouse("BULK-002", "ZWOLLE-002", 30);
+
+    when(warehouseStore.findExistingBusinessUnitCodes(any())).thenReturn(Set.of());
+
+    // When
+    List<WarehouseImportResult> results = useCase.createAll(List.of(first, second));
+
+    // Then
+    assertEquals(2, results.size());
+    assertTrue(results.get(0).created);
+    assertTrue(results.get(1).created);
+    verify(warehouseStore).createAll(List.of(first, second));
+    verify(warehouseStore, never()).create(any());
+    assertNotNull(first.createdAt);
+    assertEquals(1, occupancyLedger.occupancyOf("AMSTERDAM-001").activeWarehouses);
+    assertEquals(30, occupancyLedger.occupancyOf("ZWOLLE-002").totalCapacity);
+  }
+
+  @Test
+  void testCreateAllReportsRejectedItemsAndKeepsTheRest() {
+    // Given
+    Warehouse valid = createWarehouse("BULK-001", "AMSTERDAM-001", 20);
+    Warehouse invalid = createWarehouse("BULK-002", "INVALID-LOCATION", 20);
+
+    when(warehouseStore.findExistingBusinessUnitCodes(any())).thenReturn(Set.of());
+    // lenient, as the valid item reaches the validator with other arguments first
+    lenient()
+        .doThrow(new IllegalArgumentException("Location not found: INVALID-LOCATION"))
+        .when(validator)
+        .validateForCreate(eq(invalid), any(), any());
+
+    // When
+    List<WarehouseImportResult> results = useCase.createAll(List.of(valid, invalid));
+
+    // Then
+    assertTrue(results.get(0).created);
+    assertFalse(results.get(1).created);
+    assertEquals(1, results.get(1).index);
+    assertEquals("Location not found: INVALID-LOCATION", results.get(1).error);
+    verify(warehouseStore).createAll(List.of(valid));
+  }
+
+  @Test
+  void testCreateAllRejectsItemsWithMissingFields() {
+    // Given
+    Warehouse incomplete = new Warehouse();
+    incomplete.businessUnitCode = "BULK-001";
+
+    when(warehouseStore.findExistingBusinessUnitCodes(any())).thenReturn(Set.of());
+
+    // When
+    List<WarehouseImportResult> results = useCase.createAll(List.of(incomplete));
+
+    // Then
+    assertFalse(results.get(0).created);
+    verify(validator, never()).validateForCreate(any(), any(), any());
+    verify(warehouseStore, never()).createAll(any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCreateAllValidatesLaterItemsAgainstEarlierOnes() {
+    // Given - two items for the same location and a duplicated code in the batch
+    occupancyLedger.recordCreated(createWarehouse("MWH.001", "EINDHOVEN-001", 10));
+    Warehouse first = createWarehouse("BULK-001", "EINDHOVEN-001", 20);
+    Warehouse second = createWarehouse("BULK-002", "EINDHOVEN-001", 30);
+    Warehouse duplicate = createWarehouse("BULK-001", "AMSTERDAM-001", 5);
+
+    when(warehouseStore.findExistingBusinessUnitCodes(any())).thenReturn(Set.of());
+    List<Long> seenActiveWarehouses = new ArrayList<>();
+    List<Long> seenTotalCapacity = new ArrayList<>();
+    List<Boolean> seenCodeInUse = new ArrayList<>();
+    doAnswer(invocation -> {
+          Warehouse warehouse = invocation.getArgument(0);
+          Predicate<String> codeInUse = invocation.getArgument(1);
+          Function<String, LocationOccupancy> occupancy = invocation.getArgument(2);
+          seenCodeInUse.add(codeInUse.test(warehouse.businessUnitCode));
+          seenActiveWarehouses.add(occupancy.apply(warehouse.location).activeWarehouses);
+          seenTotalCapacity.add(occupancy.apply(warehouse.location).totalCapacity);
+          return null;
+        })
+        .when(validator).validateForCreate(any(), any(), any());
+
+    // When
+    useCase.createAll(List.of(first, second, duplicate));
+
+    // Then
+    assertEquals(List.of(1L, 2L, 0L), seenActiveWarehouses);
+    assertEquals(List.of(10L, 30L, 0L), seenTotalCapacity);
+    assertEquals(List.of(false, false, true), seenCodeInUse);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCreateAllLooksUpExistingCodesOnce() {
+    // Given
+    Warehouse first = createWarehouse("BULK-001", "AMSTERDAM-001", 20);
+    Warehouse second = createWarehouse("MWH.001", "AMSTERDAM-001", 20);
+
+    when(warehouseStore.findExistingBusinessUnitCodes(any())).thenReturn(Set.of("MWH.001"));
+
+    // When
+    useCase.createAll(List.of(first, second));
+
+    // Then
+    ArgumentCaptor<Set<String>> codes = ArgumentCaptor.forClass(Set.class);
+    verify(warehouseStore, times(1)).findExistingBusinessUnitCodes(codes.capture());
+    assertEquals(Set.of("BULK-001", "MWH.001"), codes.getValue());
+    verify(warehouseStore, never()).existsByBusinessUnitCode(anyString());
+  }
+
+  private Warehouse createWarehouse(String code, String location, int capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = 0;
+    return warehouse;
+  }
+}
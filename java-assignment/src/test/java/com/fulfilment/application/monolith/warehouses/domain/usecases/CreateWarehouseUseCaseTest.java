@@ -3,6 +3,7 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import com.fulfilment.application.monolith.warehouses.domain.validators.WarehouseValidator;
@@ -24,6 +25,7 @@ public class CreateWarehouseUseCaseTest {
   void setup() {
     useCase = new CreateWarehouseUseCase(warehouseStore);
     useCase.setValidator(validator);
+    useCase.setOccupancyLedger(new LocationOccupancyLedger(warehouseStore));
   }
 
   @Test
@@ -3,6 +3,7 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import com.fulfilment.application.monolith.warehouses.domain.validators.WarehouseValidator;
@@ -25,6 +26,7 @@ public class ReplaceWarehouseUseCaseTest {
   void setup() {
     useCase = new ReplaceWarehouseUseCase(warehouseStore);
     useCase.setValidator(validator);
+    useCase.setOccupancyLedger(new LocationOccupancyLedger(warehouseStore));
   }
 
   @Test
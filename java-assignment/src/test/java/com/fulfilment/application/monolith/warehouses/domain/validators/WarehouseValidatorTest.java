@@ -3,10 +3,13 @@ package com.fulfilment.application.monolith.warehouses.domain.validators;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.warehouses.domain.ledger.LocationOccupancyLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +21,7 @@ class WarehouseValidatorTest {
 
   @Mock private WarehouseStore warehouseStore;
   @Mock private LocationResolver locationResolver;
+  @Mock private LocationOccupancyLedger occupancyLedger;
 
   private WarehouseValidator validator;
 
@@ -26,6 +30,7 @@ class WarehouseValidatorTest {
     validator = new WarehouseValidator();
     validator.warehouseStore = warehouseStore;
     validator.locationResolver = locationResolver;
+    validator.occupancyLedger = occupancyLedger;
   }
 
   // ==================== CREATE VALIDATIONS ====================
@@ -42,12 +47,13 @@ class WarehouseValidatorTest {
     Location location = new Location("AMSTERDAM-001", 5, 200);
 
     when(locationResolver.resolveByIdentifier("AMSTERDAM-001")).thenReturn(location);
-    when(warehouseStore.findByBusinessUnitCode("NEW-001"))
-        .thenThrow(new IllegalArgumentException("Warehouse not found"));
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of());
+    when(warehouseStore.existsByBusinessUnitCode("NEW-001")).thenReturn(false);
+    when(occupancyLedger.occupancyOf("AMSTERDAM-001"))
+        .thenReturn(LocationOccupancy.empty("AMSTERDAM-001"));
 
     // When & Then - should not throw
     assertDoesNotThrow(() -> validator.validateForCreate(warehouse));
+    verify(warehouseStore, never()).findByBusinessUnitCode(anyString());
   }
 
   @Test
@@ -59,10 +65,7 @@ class WarehouseValidatorTest {
     warehouse.capacity = 50;
     warehouse.stock = 10;
 
-    Warehouse existingWarehouse = new Warehouse();
-    existingWarehouse.businessUnitCode = "EXISTING-001";
-
-    when(warehouseStore.findByBusinessUnitCode("EXISTING-001")).thenReturn(existingWarehouse);
+    when(warehouseStore.existsByBusinessUnitCode("EXISTING-001")).thenReturn(true);
 
     // When & Then
     assertThrows(
@@ -80,8 +83,7 @@ class WarehouseValidatorTest {
     warehouse.capacity = 50;
     warehouse.stock = 10;
 
-    when(warehouseStore.findByBusinessUnitCode("NEW-001"))
-        .thenThrow(new IllegalArgumentException("Warehouse not found"));
+    when(warehouseStore.existsByBusinessUnitCode("NEW-001")).thenReturn(false);
     when(locationResolver.resolveByIdentifier("INVALID-LOCATION"))
         .thenThrow(new IllegalArgumentException("Location not found"));
 
@@ -109,10 +111,10 @@ class WarehouseValidatorTest {
     existing.capacity = 30;
     existing.archivedAt = null;
 
-    when(warehouseStore.findByBusinessUnitCode("NEW-001"))
-        .thenThrow(new IllegalArgumentException("Warehouse not found"));
+    when(warehouseStore.existsByBusinessUnitCode("NEW-001")).thenReturn(false);
     when(locationResolver.resolveByIdentifier("ZWOLLE-001")).thenReturn(location);
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of(existing));
+    when(occupancyLedger.occupancyOf("ZWOLLE-001"))
+        .thenReturn(new LocationOccupancy("ZWOLLE-001", 1L, 30L));
 
     // When & Then
     assertThrows(
@@ -132,10 +134,10 @@ class WarehouseValidatorTest {
 
     Location location = new Location("AMSTERDAM-001", 5, 200);
 
-    when(warehouseStore.findByBusinessUnitCode("NEW-001"))
-        .thenThrow(new IllegalArgumentException("Warehouse not found"));
+    when(warehouseStore.existsByBusinessUnitCode("NEW-001")).thenReturn(false);
     when(locationResolver.resolveByIdentifier("AMSTERDAM-001")).thenReturn(location);
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of());
+    when(occupancyLedger.occupancyOf("AMSTERDAM-001"))
+        .thenReturn(LocationOccupancy.empty("AMSTERDAM-001"));
 
     // When & Then
     assertThrows(
@@ -161,10 +163,10 @@ class WarehouseValidatorTest {
     existing.capacity = 35;
     existing.archivedAt = null;
 
-    when(warehouseStore.findByBusinessUnitCode("NEW-001"))
-        .thenThrow(new IllegalArgumentException("Warehouse not found"));
+    when(warehouseStore.existsByBusinessUnitCode("NEW-001")).thenReturn(false);
     when(locationResolver.resolveByIdentifier("ZWOLLE-001")).thenReturn(location);
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of(existing));
+    when(occupancyLedger.occupancyOf("ZWOLLE-001"))
+        .thenReturn(new LocationOccupancy("ZWOLLE-001", 1L, 35L));
 
     // When & Then
     assertThrows(
@@ -173,6 +175,56 @@ class WarehouseValidatorTest {
         "Should throw exception when exceeds location capacity");
   }
 
+  @Test
+  void testValidateForCreateResolvesLocationAndOccupancyOnce() {
+    // Given
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = "NEW-001";
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = 50;
+    warehouse.stock = 10;
+
+    Location location = new Location("AMSTERDAM-001", 5, 200);
+
+    when(locationResolver.resolveByIdentifier("AMSTERDAM-001")).thenReturn(location);
+    when(warehouseStore.existsByBusinessUnitCode("NEW-001")).thenReturn(false);
+    when(occupancyLedger.occupancyOf("AMSTERDAM-001"))
+        .thenReturn(new LocationOccupancy("AMSTERDAM-001", 2L, 80L));
+
+    // When
+    validator.validateForCreate(warehouse);
+
+    // Then - every rule shares the same resolved location and occupancy
+    verify(locationResolver, times(1)).resolveByIdentifier("AMSTERDAM-001");
+    verify(occupancyLedger, times(1)).occupancyOf("AMSTERDAM-001");
+  }
+
+  @Test
+  void testValidateForCreateWithProvidedLookupsSkipsStoreAndLedger() {
+    // Given
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = "NEW-001";
+    warehouse.location = "ZWOLLE-001";
+    warehouse.capacity = 20;
+    warehouse.stock = 5;
+
+    when(locationResolver.resolveByIdentifier("ZWOLLE-001"))
+        .thenReturn(new Location("ZWOLLE-001", 1, 40));
+
+    // When & Then - the snapshot says the location is already full
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                validator.validateForCreate(
+                    warehouse,
+                    code -> false,
+                    location -> new LocationOccupancy(location, 1L, 20L)));
+    assertEquals("Maximum number of warehouses reached for location: ZWOLLE-001",
+        exception.getMessage());
+    verifyNoInteractions(warehouseStore, occupancyLedger);
+  }
+
   // ==================== REPLACE VALIDATIONS ====================
 
   @Test
@@ -193,9 +245,11 @@ class WarehouseValidatorTest {
 
     Location location = new Location("AMSTERDAM-001", 5, 300);
 
-    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(oldWarehouse);
+    when(warehouseStore.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(oldWarehouse));
     when(locationResolver.resolveByIdentifier("AMSTERDAM-001")).thenReturn(location);
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of(oldWarehouse));
+    when(occupancyLedger.occupancyOf("AMSTERDAM-001"))
+        .thenReturn(new LocationOccupancy("AMSTERDAM-001", 1L, 100L));
 
     // When & Then - should not throw
     assertDoesNotThrow(() -> validator.validateForReplace(newWarehouse));
@@ -210,8 +264,7 @@ class WarehouseValidatorTest {
     newWarehouse.capacity = 150;
     newWarehouse.stock = 50;
 
-    when(warehouseStore.findByBusinessUnitCode("NONEXISTENT"))
-        .thenThrow(new IllegalArgumentException("Warehouse not found"));
+    when(warehouseStore.findOptionalByBusinessUnitCode("NONEXISTENT")).thenReturn(Optional.empty());
 
     // When & Then
     assertThrows(
@@ -236,7 +289,8 @@ class WarehouseValidatorTest {
     newWarehouse.capacity = 70; // Less than old stock - FAILS
     newWarehouse.stock = 80;
 
-    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(oldWarehouse);
+    when(warehouseStore.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(oldWarehouse));
 
     // When & Then
     assertThrows(
@@ -263,9 +317,11 @@ class WarehouseValidatorTest {
 
     Location location = new Location("AMSTERDAM-001", 5, 300);
 
-    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(oldWarehouse);
+    when(warehouseStore.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(oldWarehouse));
     when(locationResolver.resolveByIdentifier("AMSTERDAM-001")).thenReturn(location);
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of(oldWarehouse));
+    when(occupancyLedger.occupancyOf("AMSTERDAM-001"))
+        .thenReturn(new LocationOccupancy("AMSTERDAM-001", 1L, 100L));
 
     // When & Then
     assertThrows(
@@ -290,7 +346,8 @@ class WarehouseValidatorTest {
     newWarehouse.capacity = 150;
     newWarehouse.stock = 50;
 
-    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(oldWarehouse);
+    when(warehouseStore.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(oldWarehouse));
     when(locationResolver.resolveByIdentifier("INVALID-LOCATION"))
         .thenThrow(new IllegalArgumentException("Location not found"));
 
@@ -319,7 +376,8 @@ class WarehouseValidatorTest {
 
     Location location = new Location("AMSTERDAM-001", 5, 300);
 
-    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(oldWarehouse);
+    when(warehouseStore.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(oldWarehouse));
     when(locationResolver.resolveByIdentifier("AMSTERDAM-001")).thenReturn(location);
 
     // When & Then
@@ -353,9 +411,11 @@ class WarehouseValidatorTest {
     otherWarehouse.capacity = 20;
     otherWarehouse.archivedAt = null;
 
-    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(oldWarehouse);
+    when(warehouseStore.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(oldWarehouse));
     when(locationResolver.resolveByIdentifier("ZWOLLE-001")).thenReturn(location);
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of(oldWarehouse, otherWarehouse));
+    when(occupancyLedger.occupancyOf("ZWOLLE-001"))
+        .thenReturn(new LocationOccupancy("ZWOLLE-001", 2L, 50L));
 
     // When & Then - should not throw (20 + 20 = 40 <= 50 max capacity)
     assertDoesNotThrow(() -> validator.validateForReplace(newWarehouse));
@@ -385,9 +445,11 @@ class WarehouseValidatorTest {
     otherWarehouse.capacity = 20;
     otherWarehouse.archivedAt = null;
 
-    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(oldWarehouse);
+    when(warehouseStore.findOptionalByBusinessUnitCode("MWH.001"))
+        .thenReturn(Optional.of(oldWarehouse));
     when(locationResolver.resolveByIdentifier("ZWOLLE-001")).thenReturn(location);
-    when(warehouseStore.getAll()).thenReturn(java.util.List.of(oldWarehouse, otherWarehouse));
+    when(occupancyLedger.occupancyOf("ZWOLLE-001"))
+        .thenReturn(new LocationOccupancy("ZWOLLE-001", 2L, 50L));
 
     // When & Then - should throw (30 + 20 = 50 currently, new warehouse would be 40 + 20 = 60 > 50)
     assertThrows(